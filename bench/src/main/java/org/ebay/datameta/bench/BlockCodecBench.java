@@ -0,0 +1,93 @@
+package org.ebay.datameta.bench;
+
+import org.ebay.datameta.bench.gen.DmTesting_InOutable;
+import org.ebay.datameta.ser.bytes.BlockCodecs;
+import org.ebay.datameta.ser.bytes.BlockFile;
+import org.ebay.datameta.ser.bytes.BlockFileReader;
+import org.ebay.datameta.ser.bytes.BlockFileWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import test.ebay.datameta.ser.jackson.fasterxml.gen.v3_2_14.DmTesting;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes and reads a {@link BlockFile} of {@link #RECORDS} records in memory, one file per op, with each
+ * {@link org.ebay.datameta.ser.bytes.BlockCodec}; the setup prints the file size per codec.
+ * The Hadoop's LZ4 and Snappy need its native library, add them when it is on the <tt>java.library.path</tt>:
+ * <pre>
+ *   java -Djava.library.path=$HADOOP_HOME/lib/native -jar target/benchmarks.jar BlockCodecBench \
+ *     -p codec=none,deflate,org.apache.hadoop.io.compress.Lz4Codec,org.apache.hadoop.io.compress.SnappyCodec
+ * </pre>
+ *
+ * @author Michael Bergens
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BlockCodecBench {
+
+    /**
+     * Records per file.
+     */
+    public static final int RECORDS = 1000;
+
+    private static final DmTesting_InOutable IO = DmTesting_InOutable.getInstance();
+
+    @Param({"SMALL", "MEDIUM"})
+    public Fixtures.Payload payload;
+
+    /**
+     * The {@link org.ebay.datameta.ser.bytes.BlockCodec#getName()}.
+     */
+    @Param({BlockCodecs.NONE_NAME, BlockCodecs.DEFLATE_NAME, "org.apache.hadoop.io.compress.DefaultCodec"})
+    public String codec;
+
+    private List<DmTesting> values;
+    private final ByteArrayOutputStream target = new ByteArrayOutputStream(1 << 20);
+    private byte[] file;
+    private BlockFile.Header header;
+    private final DmTesting reused = new DmTesting();
+
+    @Setup public void setup() throws IOException {
+        values = Fixtures.randomDmTestings(payload, RECORDS);
+        write();
+        file = target.toByteArray();
+        header = BlockFile.readHeader(new ByteArrayInputStream(file), codec);
+        System.out.printf("%n%s %s: %,d bytes per %d records%n", codec, payload, file.length, RECORDS);
+    }
+
+    @Benchmark public int write() throws IOException {
+        target.reset();
+        try(final BlockFileWriter<DmTesting> writer = new BlockFileWriter<>(target, IO,
+            new BlockFile.Header(DmTesting.class.getName(), DmTesting.VERSION, codec), BlockFile.DEFAULT_BLOCK_SIZE)) {
+            for(final DmTesting value: values) writer.write(value);
+        }
+        return target.size();
+    }
+
+    @Benchmark public int read() throws IOException {
+        int count = 0;
+        try(final BlockFileReader<DmTesting> reader = new BlockFileReader<>(new ByteArrayInputStream(file,
+            header.size(), file.length - header.size()), header.size(), file.length, header, IO)) {
+            while(reader.read(reused) != null) count++;
+        }
+        return count;
+    }
+}
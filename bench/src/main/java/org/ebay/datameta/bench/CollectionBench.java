@@ -0,0 +1,131 @@
+package org.ebay.datameta.bench;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.google.common.io.ByteArrayDataOutput;
+import org.ebay.datameta.bench.gen.DmTesting_InOutable;
+import org.ebay.datameta.ser.bytes.DataMetaHadoopUtil;
+import org.ebay.datameta.ser.jackson.fasterxml.JacksonUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import test.ebay.datameta.ser.jackson.fasterxml.gen.v3_2_14.DmTesting;
+import test.ebay.datameta.ser.jackson.fasterxml.gen.v3_2_14.DmTesting_JSONable;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.io.ByteStreams.newDataInput;
+import static com.google.common.io.ByteStreams.newDataOutput;
+
+/**
+ * The collection helpers of the {@link DataMetaHadoopUtil} and the {@link JacksonUtil}: a list of longs
+ * and a list of records, at several collection sizes.
+ *
+ * @author Michael Bergens
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollectionBench {
+
+    private static final JacksonUtil JU = JacksonUtil.getInstance();
+    private static final DmTesting_InOutable IO = DmTesting_InOutable.getInstance();
+    private static final DmTesting_JSONable JS = DmTesting_JSONable.getInstance();
+
+    @Param({"16", "1024", "16384"})
+    public int size;
+
+    private List<Long> longs;
+    private List<DmTesting> records;
+    private byte[] longsBytes;
+    private byte[] recordsBytes;
+    private String longsJson;
+    private String recordsJson;
+
+    @Setup public void setup() throws IOException {
+        longs = Fixtures.longs(size);
+        // records are bigger, keep the whole list in a reasonable range
+        records = Fixtures.dmTestings(Fixtures.Payload.SMALL, Math.max(1, size / 16));
+        longsBytes = writeListLongBytes();
+        recordsBytes = writeListRecordBytes();
+        longsJson = writeListLongJson();
+        recordsJson = writeListRecordJson();
+    }
+
+    @Benchmark public byte[] writeListLongBytes() throws IOException {
+        final ByteArrayDataOutput out = newDataOutput(longs.size() * 9 + 5);
+        DataMetaHadoopUtil.writeListLong(out, longs);
+        return out.toByteArray();
+    }
+
+    @Benchmark public List<Long> readListLongBytes() throws IOException {
+        return DataMetaHadoopUtil.readListLong(newDataInput(longsBytes));
+    }
+
+    @Benchmark public byte[] writeListRecordBytes() throws IOException {
+        final ByteArrayDataOutput out = newDataOutput();
+        DataMetaHadoopUtil.writeCollection(records, out, IO);
+        return out.toByteArray();
+    }
+
+    @Benchmark public List<DmTesting> readListRecordBytes() throws IOException {
+        return DataMetaHadoopUtil.readList(newDataInput(recordsBytes), IO);
+    }
+
+    @Benchmark public String writeListLongJson() throws IOException {
+        final StringWriter w = new StringWriter();
+        try(final JsonGenerator out = JU.getJf().createGenerator(w)) {
+            out.writeStartObject();
+            JU.writeListLong("longs", out, longs);
+            out.writeEndObject();
+        }
+        return w.toString();
+    }
+
+    @Benchmark public List<Long> readListLongJson() throws IOException {
+        try(final JsonParser in = JU.getJf().createParser(longsJson)) {
+            toArrayStart(in);
+            return JU.readListLong(in);
+        }
+    }
+
+    @Benchmark public String writeListRecordJson() throws IOException {
+        final StringWriter w = new StringWriter();
+        try(final JsonGenerator out = JU.getJf().createGenerator(w)) {
+            out.writeStartObject();
+            JU.writeCollectionFld("records", out, records, JS);
+            out.writeEndObject();
+        }
+        return w.toString();
+    }
+
+    @Benchmark public List<DmTesting> readListRecordJson() throws IOException {
+        try(final JsonParser in = JU.getJf().createParser(recordsJson)) {
+            toArrayStart(in);
+            return JU.readList(in, JS);
+        }
+    }
+
+    /**
+     * Positions the parser on the start of the array value of the single field in the object.
+     */
+    private static void toArrayStart(final JsonParser in) throws IOException {
+        in.nextToken(); // START_OBJECT
+        in.nextToken(); // FIELD_NAME
+        in.nextToken(); // START_ARRAY
+    }
+}
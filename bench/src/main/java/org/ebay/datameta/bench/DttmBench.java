@@ -0,0 +1,77 @@
+package org.ebay.datameta.bench;
+
+import org.ebay.datameta.ser.bytes.ByteBufferDataInput;
+import org.ebay.datameta.ser.bytes.BytesDataWriter;
+import org.ebay.datameta.ser.bytes.DataMetaHadoopUtil;
+import org.ebay.datameta.ser.bytes.DttmParts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding the datetimes written by the {@link DataMetaHadoopUtil#writeDttm}: the full {@link ZonedDateTime}
+ * against the allocation-free paths, a batch of {@link #COUNT} values per op.
+ *
+ * @author Michael Bergens
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DttmBench {
+
+    private static final int COUNT = 1024;
+
+    private ByteBuffer encoded;
+    private final ByteBufferDataInput in = new ByteBufferDataInput(ByteBuffer.allocate(0));
+    private final DttmParts parts = new DttmParts();
+
+    @Setup public void setup() throws IOException {
+        final List<ZoneId> zones = new ArrayList<>();
+        for(final String id: DataMetaHadoopUtil.getAllTzIds()) zones.add(ZoneId.of(id));
+        final BytesDataWriter out = new BytesDataWriter();
+        ZonedDateTime dttm = ZonedDateTime.of(2018, 1, 1, 0, 0, 0, 0, zones.get(0));
+        for(int i = 0; i < COUNT; i++) {
+            dttm = dttm.plusSeconds(3607).withZoneSameInstant(zones.get(i % zones.size()));
+            DataMetaHadoopUtil.writeDttm(out, dttm);
+        }
+        encoded = ByteBuffer.wrap(out.toByteArray());
+    }
+
+    private ByteBufferDataInput input() {
+        return in.reset(encoded.duplicate());
+    }
+
+    @Benchmark public void readDttm(final Blackhole bh) throws IOException {
+        final ByteBufferDataInput src = input();
+        for(int i = 0; i < COUNT; i++) bh.consume(DataMetaHadoopUtil.readDttm(src));
+    }
+
+    @Benchmark public void readDttmParts(final Blackhole bh) throws IOException {
+        final ByteBufferDataInput src = input();
+        for(int i = 0; i < COUNT; i++) bh.consume(DataMetaHadoopUtil.readDttm(src, parts).getMillis());
+    }
+
+    @Benchmark public void readDttmMillis(final Blackhole bh) throws IOException {
+        final ByteBufferDataInput src = input();
+        for(int i = 0; i < COUNT; i++) bh.consume(DataMetaHadoopUtil.readDttmMillis(src));
+    }
+}
@@ -0,0 +1,146 @@
+package org.ebay.datameta.bench;
+
+import test.ebay.datameta.ser.jackson.fasterxml.gen.v3_2_14.Colors;
+import test.ebay.datameta.ser.jackson.fasterxml.gen.v3_2_14.DmTesting;
+import test.ebay.datameta.ser.jackson.fasterxml.gen.v3_2_14.TestingDm;
+
+import java.math.BigDecimal;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static java.time.ZoneOffset.UTC;
+
+/**
+ * Deterministic instances of the generated test model to feed the benchmarks with.
+ * The time zones are limited to the ones that the byte serializers support.
+ *
+ * @author Michael Bergens
+ */
+public class Fixtures {
+
+    /**
+     * Payload sizes for the benchmarks, use the names as the values of the JMH <tt>@Param</tt>.
+     */
+    public enum Payload {
+        /**
+         * No embedded list, a handful of longs: a couple of hundred bytes in the binary format.
+         */
+        SMALL(0, 3, 1),
+        /**
+         * Few kilobytes.
+         */
+        MEDIUM(8, 32, 4),
+        /**
+         * Hundreds of kilobytes, the collection helpers dominate.
+         */
+        LARGE(64, 256, 16);
+
+        private final int embCount;
+        private final int longCount;
+        private final int whenCount;
+
+        Payload(final int embCount, final int longCount, final int whenCount) {
+            this.embCount = embCount;
+            this.longCount = longCount;
+            this.whenCount = whenCount;
+        }
+    }
+
+    private static final ZoneId[] ZONES = {UTC, ZoneId.of("America/Los_Angeles"), ZoneId.of("America/New_York")};
+
+    private static final ZonedDateTime BASE_DTTM = ZonedDateTime.of(2018, 5, 13, 12, 30, 15, 123_000_000, UTC);
+
+    private Fixtures() {}
+
+    public static DmTesting dmTesting(final Payload payload) {
+        return dmTesting(new Random(payload.ordinal()), payload.toString(), payload.embCount, payload.longCount,
+            payload.whenCount);
+    }
+
+    /**
+     * A record with the given number of the embedded records, each one with the given sizes of its collections.
+     */
+    public static DmTesting dmTesting(final int embCount, final int longCount, final int whenCount) {
+        return dmTesting(new Random(embCount * 31 + longCount), embCount + "x" + longCount, embCount, longCount,
+            whenCount);
+    }
+
+    private static DmTesting dmTesting(final Random rnd, final String label, final int embCount, final int longCount,
+                                       final int whenCount) {
+        final DmTesting result = new DmTesting();
+        result.setIntVal(rnd.nextInt());
+        result.setLongVal(rnd.nextLong());
+        result.setName("\"DataMeta\" benchmark\ninstance " + label);
+        result.setEmail("someone@somewhere.com");
+        result.setCreated(BASE_DTTM);
+        result.setSalary(new BigDecimal("12345678909876543210123456789.56"));
+        result.setColor(Colors.White);
+        result.setEmbedded(testingDm(rnd, -1, longCount, whenCount));
+        if(embCount > 0) {
+            final List<TestingDm> embs = new ArrayList<>(embCount);
+            for(int ix = 0; ix < embCount; ix++) embs.add(testingDm(rnd, ix, longCount, whenCount));
+            result.setEmbs(embs);
+        }
+        result.setIsCommitted(true);
+        result.verify();
+        return result;
+    }
+
+    /**
+     * Series of distinct records of the given payload, for the collection benchmarks.
+     */
+    public static List<DmTesting> dmTestings(final Payload payload, final int count) {
+        final List<DmTesting> result = new ArrayList<>(count);
+        for(int ix = 0; ix < count; ix++) {
+            final DmTesting dmt = dmTesting(payload);
+            dmt.setIntVal(ix);
+            result.add(dmt);
+        }
+        return result;
+    }
+
+    /**
+     * Series of records of the given payload, each one with its own random content, for the benchmarks where
+     * the repetition counts, such as the compression.
+     */
+    public static List<DmTesting> randomDmTestings(final Payload payload, final int count) {
+        final List<DmTesting> result = new ArrayList<>(count);
+        for(int ix = 0; ix < count; ix++) result.add(dmTesting(new Random(ix), payload + "#" + ix, payload.embCount,
+            payload.longCount, payload.whenCount));
+        return result;
+    }
+
+    public static List<Long> longs(final int count) {
+        final Random rnd = new Random(count);
+        final List<Long> result = new ArrayList<>(count);
+        for(int ix = 0; ix < count; ix++) result.add(rnd.nextLong() >> rnd.nextInt(64));
+        return result;
+    }
+
+    private static TestingDm testingDm(final Random rnd, final int index, final int longCount, final int whenCount) {
+        final TestingDm result = new TestingDm();
+        result.setId("emb#" + index);
+        result.setColor(Colors.values()[Math.abs(index) % Colors.values().length]);
+        final Set<Long> longs = new HashSet<>(longCount * 4 / 3 + 1);
+        for(int ix = 0; ix < longCount; ix++) longs.add(rnd.nextLong() >> rnd.nextInt(64));
+        result.setLongs(longs);
+        final List<ZonedDateTime> whens = new ArrayList<>(whenCount);
+        for(int ix = 0; ix < whenCount; ix++)
+            whens.add(BASE_DTTM.plusSeconds(rnd.nextInt(1_000_000)).withZoneSameInstant(ZONES[ix % ZONES.length]));
+        result.setWhens(whens);
+        try {
+            result.setPhotoPic(new URL("https://images.example.com/thumbs/" + index + ".jpg"));
+        }
+        catch(MalformedURLException x) {
+            throw new IllegalStateException(x);
+        }
+        return result;
+    }
+}
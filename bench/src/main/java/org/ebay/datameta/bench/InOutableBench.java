@@ -0,0 +1,84 @@
+package org.ebay.datameta.bench;
+
+import org.ebay.datameta.bench.gen.DmTesting_InOutable;
+import org.ebay.datameta.ser.bytes.BytesDataIoUtil;
+import org.ebay.datameta.ser.bytes.BytesDataWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import test.ebay.datameta.ser.jackson.fasterxml.gen.v3_2_14.DmTesting;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips of a record through the {@link BytesDataIoUtil}.
+ *
+ * @author Michael Bergens
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InOutableBench {
+
+    private static final DmTesting_InOutable IO = DmTesting_InOutable.getInstance();
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public Fixtures.Payload payload;
+
+    private DmTesting value;
+    private byte[] bytes;
+    private byte[] versionedBytes;
+    private final BytesDataWriter writer = new BytesDataWriter();
+    private ByteBuffer versionedDirect;
+
+    @Setup public void setup() throws IOException {
+        value = Fixtures.dmTesting(payload);
+        bytes = BytesDataIoUtil.write(IO, value);
+        versionedBytes = BytesDataIoUtil.writeVersioned(IO, value);
+        versionedDirect = ByteBuffer.allocateDirect(versionedBytes.length);
+        versionedDirect.put(versionedBytes).flip();
+    }
+
+    @Benchmark public byte[] write() throws IOException {
+        return BytesDataIoUtil.write(IO, value);
+    }
+
+    @Benchmark public DmTesting read() throws IOException {
+        return BytesDataIoUtil.read(bytes, IO);
+    }
+
+    @Benchmark public byte[] writeVersioned() throws IOException {
+        return BytesDataIoUtil.writeVersioned(IO, value);
+    }
+
+    /**
+     * Same as {@link #writeVersioned()} but with the caller's writer and no copying.
+     */
+    @Benchmark public ByteBuffer writeVersionedReused() throws IOException {
+        return writer.writeVersioned(IO, value);
+    }
+
+    @Benchmark public DmTesting readVersioned() throws IOException {
+        return BytesDataIoUtil.readVersioned(versionedBytes, IO);
+    }
+
+    /**
+     * Same as {@link #readVersioned()} but straight out of a direct buffer, as from a socket or a mapped file.
+     */
+    @Benchmark public DmTesting readVersionedDirect() throws IOException {
+        return BytesDataIoUtil.readVersioned(versionedDirect.duplicate(), IO);
+    }
+}
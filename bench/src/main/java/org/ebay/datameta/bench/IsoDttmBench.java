@@ -0,0 +1,67 @@
+package org.ebay.datameta.bench;
+
+import org.ebay.datameta.dom.DateTimeUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static java.time.format.DateTimeFormatter.ISO_DATE_TIME;
+
+/**
+ * The ISO datetime text of the JSON serializer: the {@link DateTimeUtil} against the generic
+ * {@link java.time.format.DateTimeFormatter#ISO_DATE_TIME} it falls back to, a batch of {@link #COUNT} values per op.
+ *
+ * @author Michael Bergens
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IsoDttmBench {
+
+    private static final int COUNT = 1024;
+    private static final DateTimeUtil DTU = DateTimeUtil.getInstance();
+
+    private final ZonedDateTime[] values = new ZonedDateTime[COUNT];
+    private final String[] texts = new String[COUNT];
+
+    @Setup public void setup() {
+        final ZoneId[] zones = {DateTimeUtil.UTC_ID, ZoneId.of("America/Los_Angeles"), ZoneId.of("Europe/Paris")};
+        ZonedDateTime dttm = ZonedDateTime.of(2018, 1, 1, 0, 0, 0, 0, zones[0]);
+        for(int i = 0; i < COUNT; i++) {
+            dttm = dttm.plusSeconds(3607).plusNanos(1_000_000).withZoneSameInstant(zones[i % zones.length]);
+            values[i] = dttm;
+            texts[i] = ISO_DATE_TIME.format(dttm);
+        }
+    }
+
+    @Benchmark public void format(final Blackhole bh) {
+        for(final ZonedDateTime v: values) bh.consume(DTU.toString(v));
+    }
+
+    @Benchmark public void formatGeneric(final Blackhole bh) {
+        for(final ZonedDateTime v: values) bh.consume(ISO_DATE_TIME.format(v));
+    }
+
+    @Benchmark public void parse(final Blackhole bh) {
+        for(final String t: texts) bh.consume(DTU.parse(t));
+    }
+
+    @Benchmark public void parseGeneric(final Blackhole bh) {
+        for(final String t: texts) bh.consume(ZonedDateTime.from(ISO_DATE_TIME.parse(t)));
+    }
+}
@@ -0,0 +1,56 @@
+package org.ebay.datameta.bench;
+
+import org.ebay.datameta.ser.jackson.fasterxml.JacksonUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import test.ebay.datameta.ser.jackson.fasterxml.gen.v3_2_14.DmTesting;
+import test.ebay.datameta.ser.jackson.fasterxml.gen.v3_2_14.DmTesting_JSONable;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap per decoded {@link DmTesting} with many small collections, the typical shape of a record: {@link #EMB_COUNT}
+ * embedded records, each one with a set and a list of the given size. One op decodes one record, so with the
+ * <tt>-prof gc</tt> the <tt>gc.alloc.rate.norm</tt> is the bytes allocated per record.
+ *
+ * @author Michael Bergens
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonHeapBench {
+
+    private static final JacksonUtil JU = JacksonUtil.getInstance();
+    private static final DmTesting_JSONable JS = DmTesting_JSONable.getInstance();
+
+    /**
+     * Number of the embedded records, each one with its own collections.
+     */
+    public static final int EMB_COUNT = 16;
+
+    @Param({"0", "1", "5"})
+    public int listSize;
+
+    private byte[] json;
+
+    @Setup public void setup() throws IOException {
+        json = JU.writeObjectBytes(JS, Fixtures.dmTesting(EMB_COUNT, listSize, listSize));
+    }
+
+    @Benchmark public DmTesting readObject() throws IOException {
+        return JU.readObject(JS, json);
+    }
+}
@@ -0,0 +1,78 @@
+package org.ebay.datameta.bench;
+
+import org.ebay.datameta.ser.jackson.fasterxml.JacksonUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import test.ebay.datameta.ser.jackson.fasterxml.gen.v3_2_14.DmTesting;
+import test.ebay.datameta.ser.jackson.fasterxml.gen.v3_2_14.DmTesting_JSONable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips of a record through the {@link JacksonUtil}.
+ *
+ * @author Michael Bergens
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonableBench {
+
+    private static final JacksonUtil JU = JacksonUtil.getInstance();
+    private static final DmTesting_JSONable JS = DmTesting_JSONable.getInstance();
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public Fixtures.Payload payload;
+
+    private DmTesting value;
+    private String json;
+    private byte[] jsonBytes;
+    private ByteBuffer jsonBuffer;
+
+    @Setup public void setup() throws IOException {
+        value = Fixtures.dmTesting(payload);
+        json = JU.writeObject(JS, value);
+        jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+        jsonBuffer = ByteBuffer.allocateDirect(jsonBytes.length);
+        jsonBuffer.put(jsonBytes).flip();
+    }
+
+    @Benchmark public String writeObject() throws IOException {
+        return JU.writeObject(JS, value);
+    }
+
+    @Benchmark public DmTesting readObject() throws IOException {
+        return JU.readObject(JS, json);
+    }
+
+    /**
+     * The bytes decoded to the <tt>String</tt> first, as it used to be done with a payload that comes as bytes.
+     */
+    @Benchmark public DmTesting readObjectDecoded() throws IOException {
+        return JU.readObject(JS, new String(jsonBytes, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark public DmTesting readObjectBytes() throws IOException {
+        return JU.readObject(JS, jsonBytes);
+    }
+
+    @Benchmark public DmTesting readObjectDirectBuffer() throws IOException {
+        jsonBuffer.rewind();
+        return JU.readObject(JS, jsonBuffer);
+    }
+}
@@ -0,0 +1,79 @@
+package org.ebay.datameta.bench.gen;
+
+import org.ebay.datameta.dom.BitSet;
+import org.ebay.datameta.ser.bytes.InOutable;
+import test.ebay.datameta.ser.jackson.fasterxml.gen.v3_2_14.Colors;
+import test.ebay.datameta.ser.jackson.fasterxml.gen.v3_2_14.DmTesting;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static org.apache.hadoop.io.WritableUtils.readVInt;
+import static org.apache.hadoop.io.WritableUtils.readVLong;
+import static org.apache.hadoop.io.WritableUtils.writeVInt;
+import static org.apache.hadoop.io.WritableUtils.writeVLong;
+import static org.ebay.datameta.ser.bytes.DataMetaHadoopUtil.*;
+
+/**
+ * InOutable for the {@link DmTesting}, see {@link TestingDm_InOutable} for the details.
+ * This class is completely immutable, state-free and therefore thread-safe, implemented and used as a singleton.
+ *
+ * @author Michael Bergens
+ */
+public class DmTesting_InOutable extends InOutable<DmTesting> {
+
+    private static final int FLD_NAME = 0;
+    private static final int FLD_COLOR = 1;
+    private static final int FLD_EMBS = 2;
+    private static final int NULLABLE_COUNT = 3;
+
+    private static final DmTesting_InOutable INSTANCE = new DmTesting_InOutable();
+
+    public static DmTesting_InOutable getInstance() { return INSTANCE; }
+
+    /**
+     * Constructor is private - use {@link #getInstance()} to get an instance.
+     */
+    private DmTesting_InOutable() {}
+
+    @Override public void write(final DataOutput out, final DmTesting val) throws IOException {
+        val.verify();
+        final BitSet nullFlags = new BitSet(NULLABLE_COUNT);
+        if(val.getName() == null) nullFlags.set(FLD_NAME);
+        if(val.getColor() == null) nullFlags.set(FLD_COLOR);
+        if(val.getEmbs() == null) nullFlags.set(FLD_EMBS);
+        writeBitSet(out, nullFlags);
+
+        writeVInt(out, val.getIntVal());
+        writeVLong(out, val.getLongVal());
+        if(val.getName() != null) writeTextIfAny(out, val.getName());
+        writeTextIfAny(out, val.getEmail());
+        writeDttm(out, val.getCreated());
+        writeBigDecimal(out, val.getSalary());
+        if(val.getColor() != null) writeVInt(out, val.getColor().ordinal());
+        TestingDm_InOutable.getInstance().write(out, val.getEmbedded());
+        writeCollection(val.getEmbs(), out, TestingDm_InOutable.getInstance());
+        out.writeBoolean(val.getIsCommitted());
+    }
+
+    @Override public DmTesting read(final DataInput in, final DmTesting val) throws IOException {
+        final BitSet nullFlags = new BitSet(readLongArray(in), false);
+
+        val.setIntVal(readVInt(in));
+        val.setLongVal(readVLong(in));
+        if(!nullFlags.get(FLD_NAME)) val.setName(readText(in));
+        val.setEmail(readText(in));
+        val.setCreated(readDttm(in));
+        val.setSalary(readBigDecimal(in));
+        if(!nullFlags.get(FLD_COLOR)) val.setColor(Colors.forOrd(readVInt(in)));
+        val.setEmbedded(TestingDm_InOutable.getInstance().read(in));
+        if(!nullFlags.get(FLD_EMBS)) val.setEmbs(readList(in, TestingDm_InOutable.getInstance()));
+        val.setIsCommitted(in.readBoolean());
+        return val;
+    }
+
+    @Override public DmTesting read(final DataInput in) throws IOException {
+        return read(in, new DmTesting());
+    }
+}
@@ -0,0 +1,70 @@
+package org.ebay.datameta.bench.gen;
+
+import org.ebay.datameta.dom.BitSet;
+import org.ebay.datameta.ser.bytes.InOutable;
+import test.ebay.datameta.ser.jackson.fasterxml.gen.v3_2_14.Colors;
+import test.ebay.datameta.ser.jackson.fasterxml.gen.v3_2_14.TestingDm;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.net.URL;
+
+import static org.apache.hadoop.io.WritableUtils.readVInt;
+import static org.apache.hadoop.io.WritableUtils.writeVInt;
+import static org.ebay.datameta.ser.bytes.DataMetaHadoopUtil.*;
+
+/**
+ * InOutable for the {@link TestingDm}, laid out the same way as the DataMeta byte serializer generator does it:
+ * the null flags for the optional fields first, then the fields in the order of the model.
+ * The generated model in the JSON serializer tests does not come with the byte serializers, hence this one.
+ * This class is completely immutable, state-free and therefore thread-safe, implemented and used as a singleton.
+ *
+ * @author Michael Bergens
+ */
+public class TestingDm_InOutable extends InOutable<TestingDm> {
+
+    private static final int FLD_LONGS = 0;
+    private static final int FLD_WHENS = 1;
+    private static final int FLD_PHOTO_PIC = 2;
+    private static final int NULLABLE_COUNT = 3;
+
+    private static final TestingDm_InOutable INSTANCE = new TestingDm_InOutable();
+
+    public static TestingDm_InOutable getInstance() { return INSTANCE; }
+
+    /**
+     * Constructor is private - use {@link #getInstance()} to get an instance.
+     */
+    private TestingDm_InOutable() {}
+
+    @Override public void write(final DataOutput out, final TestingDm val) throws IOException {
+        val.verify();
+        final BitSet nullFlags = new BitSet(NULLABLE_COUNT);
+        if(val.getLongs() == null) nullFlags.set(FLD_LONGS);
+        if(val.getWhens() == null) nullFlags.set(FLD_WHENS);
+        if(val.getPhotoPic() == null) nullFlags.set(FLD_PHOTO_PIC);
+        writeBitSet(out, nullFlags);
+
+        writeTextIfAny(out, val.getId());
+        writeVInt(out, val.getColor().ordinal());
+        writeSetLong(out, val.getLongs());
+        writeListZonedDateTime(out, val.getWhens());
+        if(val.getPhotoPic() != null) writeTextIfAny(out, val.getPhotoPic().toExternalForm());
+    }
+
+    @Override public TestingDm read(final DataInput in, final TestingDm val) throws IOException {
+        final BitSet nullFlags = new BitSet(readLongArray(in), false);
+
+        val.setId(readText(in));
+        val.setColor(Colors.forOrd(readVInt(in)));
+        if(!nullFlags.get(FLD_LONGS)) val.setLongs(readSetLong(in));
+        if(!nullFlags.get(FLD_WHENS)) val.setWhens(readListZonedDateTime(in));
+        if(!nullFlags.get(FLD_PHOTO_PIC)) val.setPhotoPic(new URL(readText(in)));
+        return val;
+    }
+
+    @Override public TestingDm read(final DataInput in) throws IOException {
+        return read(in, new TestingDm());
+    }
+}
@@ -0,0 +1,38 @@
+package org.ebay.datameta.dom;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+
+/**
+ * {@link SerialDataTarget} that can take a batch of records at once, such as a file or a socket that does one
+ * write for the whole batch, and that holds resources hence needs to be flushed and closed.
+ * <p>The {@link #save(Object)} and the {@link #saveAll(Collection)}, having no <tt>throws</tt> clause, report
+ * the I/O problems with the {@link UncheckedIOException}.</p>
+ *
+ * @author Michael Bergens
+ * @param <T> the data type to save into this data target
+ * @see BufferingDataTarget
+ */
+public interface BatchDataTarget<T> extends SerialDataTarget<T>, Flushable, Closeable {
+
+    /**
+     * Saves all the records in the iteration order of the collection. The default implementation calls
+     * {@link #save(Object)} for each one, override it if the target can do better.
+     */
+    default void saveAll(final Collection<? extends T> what) {
+        for(final T v: what) save(v);
+    }
+
+    /**
+     * Pushes whatever is buffered down to the destination.
+     */
+    @Override void flush() throws IOException;
+
+    /**
+     * Flushes and releases the resources.
+     */
+    @Override void close() throws IOException;
+}
@@ -0,0 +1,122 @@
+package org.ebay.datameta.dom;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Decorator that encodes the records as they come and hands them down to the sink in batches: a batch goes
+ * when its encoded size reaches the byte limit or when its first record has been waiting for the time limit,
+ * whichever comes first. Works with any serializer, byte or JSON, through the encoder function.
+ * <p>The time limit is checked when a record is saved; if the records may stop coming for a while, call
+ * the {@link #flushIfDue()} on a timer, from the same thread or under the same lock as the rest.</p>
+ * <p>Not thread-safe.</p>
+ *
+ * @author Michael Bergens
+ * @param <T> the data type to save into this data target
+ */
+public class BufferingDataTarget<T> implements BatchDataTarget<T> {
+
+    private final ThrowingFunction<? super T, byte[], IOException> encoder;
+    private final BatchDataTarget<byte[]> sink;
+    private final long maxBytes;
+    private final long maxMillis;
+    private final Clock clock;
+
+    private final List<byte[]> pending = new ArrayList<>();
+    private long pendingBytes;
+    private long firstAt;
+
+    /**
+     * Same as the full constructor with the system clock.
+     */
+    public BufferingDataTarget(final ThrowingFunction<? super T, byte[], IOException> encoder,
+                               final BatchDataTarget<byte[]> sink, final long maxBytes, final long maxMillis) {
+        this(encoder, sink, maxBytes, maxMillis, Clock.systemUTC());
+    }
+
+    /**
+     * @param encoder serializes one record.
+     * @param sink takes the batches of the encoded records, must not hold on to the collection after
+     *             the {@link BatchDataTarget#saveAll(Collection)} returns: the collection is reused.
+     * @param maxBytes the batch goes to the sink once its encoded records are this long or longer.
+     * @param maxMillis the batch goes to the sink once its first record has been waiting that long or longer.
+     * @param clock the time source.
+     */
+    public BufferingDataTarget(final ThrowingFunction<? super T, byte[], IOException> encoder,
+                               final BatchDataTarget<byte[]> sink, final long maxBytes, final long maxMillis,
+                               final Clock clock) {
+        if(maxBytes <= 0 || maxMillis < 0) throw new IllegalArgumentException("Invalid limits: maxBytes=" + maxBytes
+            + ", maxMillis=" + maxMillis);
+        this.encoder = encoder;
+        this.sink = sink;
+        this.maxBytes = maxBytes;
+        this.maxMillis = maxMillis;
+        this.clock = clock;
+    }
+
+    @Override public void save(final T what) {
+        final byte[] encoded;
+        try {
+            encoded = encoder.apply(what);
+        }
+        catch(IOException x) {
+            throw new UncheckedIOException(x);
+        }
+        final long now = clock.millis();
+        if(pending.isEmpty()) firstAt = now;
+        pending.add(encoded);
+        pendingBytes += encoded.length;
+        if(pendingBytes >= maxBytes || now - firstAt >= maxMillis) sendPending();
+    }
+
+    /**
+     * Sends the pending records to the sink if the first of them has been waiting for the time limit or longer.
+     * @return true if sent.
+     */
+    public boolean flushIfDue() {
+        if(pending.isEmpty() || clock.millis() - firstAt < maxMillis) return false;
+        sendPending();
+        return true;
+    }
+
+    private void sendPending() {
+        if(pending.isEmpty()) return;
+        sink.saveAll(pending);
+        pending.clear();
+        pendingBytes = 0;
+    }
+
+    /**
+     * Number of the records waiting for the batch to complete.
+     */
+    public int getPendingCount() { return pending.size(); }
+
+    /**
+     * Encoded size of the records waiting for the batch to complete.
+     */
+    public long getPendingBytes() { return pendingBytes; }
+
+    /**
+     * Sends the pending records regardless of the limits and flushes the sink.
+     */
+    @Override public void flush() throws IOException {
+        sendPending();
+        sink.flush();
+    }
+
+    /**
+     * Flushes and closes the sink.
+     */
+    @Override public void close() throws IOException {
+        try {
+            sendPending();
+        }
+        finally {
+            sink.close();
+        }
+    }
+}
@@ -3,11 +3,16 @@ package org.ebay.datameta.dom;
 import static java.time.format.DateTimeFormatter.ISO_DATE_TIME;
 import static org.apache.commons.lang3.StringUtils.removeEnd;
 
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.Clock;
 import java.time.OffsetDateTime;
 import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Datetime serialization/deserialization idioms. These are purely convenience methods to save on typing
@@ -45,14 +50,36 @@ public class DateTimeUtil {
   public static DateTimeUtil getInstance() { return INSTANCE;}
 
   /**
-    * Parses the argument using {@link DateTimeFormatter#ISO_DATE_TIME}.
+   * Most zones kept by the cache of the zone IDs parsed out of the text.
+   */
+  private static final int MAX_CACHED_ZONES = 1024;
+
+  private static final Map<String, ZoneId> ZONES = new ConcurrentHashMap<>();
+
+  static {
+    ZONES.put(UTC, UTC_ID);
+  }
+
+  /**
+   * Powers of ten to scale the fraction of a second to the nanos by the number of its digits.
+   */
+  private static final int[] NANO_SCALE = {1_000_000_000, 100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000,
+    100, 10, 1};
+
+  /**
+    * Parses the argument, same as {@link DateTimeFormatter#ISO_DATE_TIME}.
+    * The common form, the one that {@link #toString(ZonedDateTime)} writes: the date and the time with optional
+    * seconds and the fraction, <tt>Z</tt> or the numeric offset, then optionally the zone ID in square brackets, is
+    * parsed by hand without the generic formatter machinery; anything else goes to the {@link DateTimeFormatter}.
     */
   public ZonedDateTime parse(final String text) {
-    return ZonedDateTime.from(ISO_DATE_TIME.parse(text));
+    final ZonedDateTime result = parseCommon(text);
+    return result != null ? result : ZonedDateTime.from(ISO_DATE_TIME.parse(text));
   }
 
   /**
-   * Serializes the {@link ZonedDateTime} argument into the ISO format, using {@link DateTimeFormatter#ISO_DATE_TIME}.
+   * Serializes the {@link ZonedDateTime} argument into the ISO format, same as {@link DateTimeFormatter#ISO_DATE_TIME}
+   * but formatted by hand for the years 0 to 9999, which is any real-life datetime.
    *
    * @param dateTime the method does not check if the argument is in UTC, leaves this to the caller
    * @return textual representation of the argument per {@link DateTimeFormatter#ISO_DATE_TIME}.
@@ -61,17 +88,172 @@ public class DateTimeUtil {
     //return removeEnd(ISO_DATE_TIME.format(dateTime), UTC_FMT);
     // removing the [UTC] ending will set the timezone id to "Z" not to "UTC", which means, the datetime comparison
     // with UTC datetime will fail.
-    return ISO_DATE_TIME.format(dateTime);
+    final String result = format(dateTime.toLocalDateTime(), dateTime.getOffset(), dateTime.getZone());
+    return result != null ? result : ISO_DATE_TIME.format(dateTime);
   }
 
   /**
-   * Serializes the {@link OffsetDateTime} argument into the ISO format, using {@link DateTimeFormatter#ISO_DATE_TIME}
+   * Serializes the {@link OffsetDateTime} argument into the ISO format, same as {@link DateTimeFormatter#ISO_DATE_TIME}
    *
    * @param dateTime the method does not check if the argument is in UTC, leaves this to the caller
    * @return textual representation of the argument per {@link DateTimeFormatter#ISO_DATE_TIME}
    */
   public String toString(final OffsetDateTime dateTime) {
-    return ISO_DATE_TIME.format(dateTime);
+    final String result = format(dateTime.toLocalDateTime(), dateTime.getOffset(), null);
+    return result != null ? result : ISO_DATE_TIME.format(dateTime);
+  }
+
+  /**
+   * Formats what the {@link DateTimeFormatter#ISO_DATE_TIME} would: the seconds always, the fraction without
+   * the trailing zeros if any, the offset with the seconds only if not zero, the region zone in brackets.
+   * @param zone null if none.
+   * @return null if the year is out of the 4 digit range, which the formatter writes with the sign.
+   */
+  private static String format(final LocalDateTime dttm, final ZoneOffset offset, final ZoneId zone) {
+    final int year = dttm.getYear();
+    if(year < 0 || year > 9999) return null;
+    final boolean region = zone != null && !(zone instanceof ZoneOffset);
+    final StringBuilder sb = new StringBuilder(region ? 64 : 35);
+    appendDigits(sb, year, 4).append('-');
+    appendDigits(sb, dttm.getMonthValue(), 2).append('-');
+    appendDigits(sb, dttm.getDayOfMonth(), 2).append('T');
+    appendDigits(sb, dttm.getHour(), 2).append(':');
+    appendDigits(sb, dttm.getMinute(), 2).append(':');
+    appendDigits(sb, dttm.getSecond(), 2);
+    int nano = dttm.getNano();
+    if(nano != 0) {
+      int digits = 9;
+      while(nano % 10 == 0) {
+        nano /= 10;
+        digits--;
+      }
+      appendDigits(sb.append('.'), nano, digits);
+    }
+    final int total = offset.getTotalSeconds();
+    if(total == 0) sb.append('Z');
+    else {
+      final int abs = Math.abs(total);
+      sb.append(total < 0 ? '-' : '+');
+      appendDigits(sb, abs / 3600, 2).append(':');
+      appendDigits(sb, abs / 60 % 60, 2);
+      if(abs % 60 != 0) appendDigits(sb.append(':'), abs % 60, 2);
+    }
+    if(region) sb.append('[').append(zone.getId()).append(']');
+    return sb.toString();
+  }
+
+  private static StringBuilder appendDigits(final StringBuilder sb, final int value, final int width) {
+    for(int scale = pow10(width - 1); scale > 0; scale /= 10) sb.append((char) ('0' + value / scale % 10));
+    return sb;
+  }
+
+  private static int pow10(final int exp) {
+    return NANO_SCALE[9 - exp];
+  }
+
+  /**
+   * Parses the common form, see the {@link #parse(String)}.
+   * @return null if the text is not in that form or the values are out of range, for the generic parser to take
+   *   it from there and to report the problem if any.
+   */
+  private static ZonedDateTime parseCommon(final String text) {
+    final int len = text.length();
+    if(len < 17 || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T' || text.charAt(13) != ':')
+      return null;
+    final int year = digits(text, 0, 4);
+    final int month = digits(text, 5, 2);
+    final int day = digits(text, 8, 2);
+    final int hour = digits(text, 11, 2);
+    final int minute = digits(text, 14, 2);
+    if((year | month | day | hour | minute) < 0) return null;
+    int pos = 16;
+    int second = 0;
+    int nano = 0;
+    if(text.charAt(pos) == ':') {
+      second = digits(text, pos + 1, 2);
+      if(second < 0) return null;
+      pos += 3;
+      if(pos < len && text.charAt(pos) == '.') {
+        final int start = ++pos;
+        while(pos < len && pos - start < 10 && isDigit(text.charAt(pos))) nano = nano * 10 + text.charAt(pos++) - '0';
+        final int count = pos - start;
+        if(count == 0 || count > 9) return null;
+        nano *= NANO_SCALE[count];
+      }
+    }
+    if(pos >= len) return null; // local datetime, no offset
+    final ZoneOffset offset;
+    final char sign = text.charAt(pos);
+    if(sign == 'Z') {
+      offset = ZoneOffset.UTC;
+      pos++;
+    }
+    else if(sign == '+' || sign == '-') {
+      if(pos + 6 > len || text.charAt(pos + 3) != ':') return null;
+      final int offHours = digits(text, pos + 1, 2);
+      final int offMinutes = digits(text, pos + 4, 2);
+      pos += 6;
+      int offSeconds = 0;
+      if(pos < len && text.charAt(pos) == ':') {
+        offSeconds = digits(text, pos + 1, 2);
+        pos += 3;
+      }
+      if((offHours | offMinutes | offSeconds) < 0 || offMinutes > 59 || offSeconds > 59) return null;
+      final int total = offHours * 3600 + offMinutes * 60 + offSeconds;
+      if(total > 18 * 3600) return null;
+      offset = ZoneOffset.ofTotalSeconds(sign == '-' ? -total : total);
+    }
+    else return null;
+
+    ZoneId zone = offset;
+    if(pos < len) {
+      if(text.charAt(pos) != '[' || text.charAt(len - 1) != ']') return null;
+      zone = zoneId(text.substring(pos + 1, len - 1));
+      if(zone == null) return null;
+    }
+    try {
+      final LocalDateTime dttm = LocalDateTime.of(year, month, day, hour, minute, second, nano);
+      return zone == offset ? ZonedDateTime.of(dttm, offset) : ZonedDateTime.ofInstant(dttm, offset, zone);
+    }
+    catch(DateTimeException x) { // out of range, let the generic parser report it
+      return null;
+    }
+  }
+
+  /**
+   * The zone for the ID, cached.
+   * @return null if the ID is not valid.
+   */
+  private static ZoneId zoneId(final String id) {
+    ZoneId result = ZONES.get(id);
+    if(result == null) {
+      try {
+        result = ZoneId.of(id);
+      }
+      catch(DateTimeException x) {
+        return null;
+      }
+      if(ZONES.size() < MAX_CACHED_ZONES) ZONES.putIfAbsent(id, result);
+    }
+    return result;
+  }
+
+  private static boolean isDigit(final char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  /**
+   * The non-negative number out of the given count of the decimal digits, -1 if there is a non-digit.
+   */
+  private static int digits(final String text, final int from, final int count) {
+    if(from + count > text.length()) return -1;
+    int result = 0;
+    for(int ix = from; ix < from + count; ix++) {
+      final char c = text.charAt(ix);
+      if(!isDigit(c)) return -1;
+      result = result * 10 + c - '0';
+    }
+    return result;
   }
 
   public ZonedDateTime now() { return ZonedDateTime.now(CLOCK); }
@@ -0,0 +1,195 @@
+package org.ebay.datameta.dom;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Set of primitive <tt>int</tt>s, open addressing with linear probing: no boxing, no entry objects, one array.
+ * The zero is kept out of the table in a flag since the zero slot means empty.
+ * <p>Not thread-safe.</p>
+ *
+ * @author Michael Bergens
+ */
+public class IntHashSet {
+
+    private static final float LOAD_FACTOR = 0.5f;
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] table;
+    private int mask;
+    private int resizeAt;
+    /**
+     * Count of the non-zero values in the table.
+     */
+    private int count;
+    private boolean hasZero;
+
+    public IntHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize how many values to fit without growing.
+     */
+    public IntHashSet(final int expectedSize) {
+        if(expectedSize < 0) throw new IllegalArgumentException("Negative size: " + expectedSize);
+        allocate(capacityFor(expectedSize));
+    }
+
+    private static int capacityFor(final int size) {
+        final long wanted = Math.max(MIN_CAPACITY, (long) Math.ceil(size / LOAD_FACTOR));
+        if(wanted > 1 << 30) throw new IllegalArgumentException("Too many values: " + size);
+        return Integer.highestOneBit((int) wanted - 1) << 1;
+    }
+
+    private void allocate(final int capacity) {
+        table = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int slot(final int value) {
+        final int h = value * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * @return true if the value was not in the set.
+     */
+    public boolean add(final int value) {
+        if(value == 0) {
+            if(hasZero) return false;
+            hasZero = true;
+            return true;
+        }
+        int ix = slot(value);
+        for(int e = table[ix]; e != 0; e = table[ix]) {
+            if(e == value) return false;
+            ix = (ix + 1) & mask;
+        }
+        table[ix] = value;
+        if(++count > resizeAt) rehash(table.length << 1);
+        return true;
+    }
+
+    public boolean contains(final int value) {
+        if(value == 0) return hasZero;
+        int ix = slot(value);
+        for(int e = table[ix]; e != 0; e = table[ix]) {
+            if(e == value) return true;
+            ix = (ix + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the value was in the set.
+     */
+    public boolean remove(final int value) {
+        if(value == 0) {
+            final boolean had = hasZero;
+            hasZero = false;
+            return had;
+        }
+        int ix = slot(value);
+        for(int e = table[ix]; e != value; e = table[ix]) {
+            if(e == 0) return false;
+            ix = (ix + 1) & mask;
+        }
+        // shift back the following entries of the probe chain so that there is no gap in it
+        int gap = ix;
+        for(ix = (ix + 1) & mask; table[ix] != 0; ix = (ix + 1) & mask) {
+            final int home = slot(table[ix]);
+            if(((ix - home) & mask) >= ((ix - gap) & mask)) {
+                table[gap] = table[ix];
+                gap = ix;
+            }
+        }
+        table[gap] = 0;
+        count--;
+        return true;
+    }
+
+    private void rehash(final int capacity) {
+        final int[] old = table;
+        allocate(capacity);
+        for(final int e: old) {
+            if(e == 0) continue;
+            int ix = slot(e);
+            while(table[ix] != 0) ix = (ix + 1) & mask;
+            table[ix] = e;
+        }
+    }
+
+    public int size() { return count + (hasZero ? 1 : 0); }
+
+    public boolean isEmpty() { return size() == 0; }
+
+    public void clear() {
+        Arrays.fill(table, 0);
+        count = 0;
+        hasZero = false;
+    }
+
+    public void forEach(final IntConsumer action) {
+        if(hasZero) action.accept(0);
+        for(final int e: table) if(e != 0) action.accept(e);
+    }
+
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int ix = hasZero ? -1 : next(0);
+
+            private int next(int from) {
+                while(from < table.length && table[from] == 0) from++;
+                return from;
+            }
+
+            @Override public boolean hasNext() { return ix < table.length; }
+
+            @Override public int nextInt() {
+                if(!hasNext()) throw new NoSuchElementException();
+                final int result = ix < 0 ? 0 : table[ix];
+                ix = next(ix + 1);
+                return result;
+            }
+        };
+    }
+
+    /**
+     * The values in no particular order.
+     */
+    public int[] toArray() {
+        final int[] result = new int[size()];
+        int ix = 0;
+        if(hasZero) result[ix++] = 0;
+        for(final int e: table) if(e != 0) result[ix++] = e;
+        return result;
+    }
+
+    @Override public boolean equals(final Object other) {
+        if(this == other) return true;
+        if(!(other instanceof IntHashSet)) return false;
+        final IntHashSet that = (IntHashSet) other;
+        if(size() != that.size() || hasZero != that.hasZero) return false;
+        for(final int e: table) if(e != 0 && !that.contains(e)) return false;
+        return true;
+    }
+
+    /**
+     * Same as the {@link java.util.Set#hashCode()} of the boxed values.
+     */
+    @Override public int hashCode() {
+        int result = 0;
+        for(final int e: table) result += Integer.hashCode(e);
+        return result;
+    }
+
+    @Override public String toString() {
+        final StringBuilder sb = new StringBuilder("[");
+        forEach(e -> sb.append(sb.length() > 1 ? ", " : "").append(e));
+        return sb.append(']').toString();
+    }
+}
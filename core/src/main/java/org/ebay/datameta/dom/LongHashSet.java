@@ -0,0 +1,195 @@
+package org.ebay.datameta.dom;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+/**
+ * Set of primitive <tt>long</tt>s, open addressing with linear probing: no boxing, no entry objects, one array.
+ * The zero is kept out of the table in a flag since the zero slot means empty.
+ * <p>Not thread-safe.</p>
+ *
+ * @author Michael Bergens
+ */
+public class LongHashSet {
+
+    private static final float LOAD_FACTOR = 0.5f;
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] table;
+    private int mask;
+    private int resizeAt;
+    /**
+     * Count of the non-zero values in the table.
+     */
+    private int count;
+    private boolean hasZero;
+
+    public LongHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize how many values to fit without growing.
+     */
+    public LongHashSet(final int expectedSize) {
+        if(expectedSize < 0) throw new IllegalArgumentException("Negative size: " + expectedSize);
+        allocate(capacityFor(expectedSize));
+    }
+
+    private static int capacityFor(final int size) {
+        final long wanted = Math.max(MIN_CAPACITY, (long) Math.ceil(size / LOAD_FACTOR));
+        if(wanted > 1 << 30) throw new IllegalArgumentException("Too many values: " + size);
+        return Integer.highestOneBit((int) wanted - 1) << 1;
+    }
+
+    private void allocate(final int capacity) {
+        table = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int slot(final long value) {
+        final long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * @return true if the value was not in the set.
+     */
+    public boolean add(final long value) {
+        if(value == 0) {
+            if(hasZero) return false;
+            hasZero = true;
+            return true;
+        }
+        int ix = slot(value);
+        for(long e = table[ix]; e != 0; e = table[ix]) {
+            if(e == value) return false;
+            ix = (ix + 1) & mask;
+        }
+        table[ix] = value;
+        if(++count > resizeAt) rehash(table.length << 1);
+        return true;
+    }
+
+    public boolean contains(final long value) {
+        if(value == 0) return hasZero;
+        int ix = slot(value);
+        for(long e = table[ix]; e != 0; e = table[ix]) {
+            if(e == value) return true;
+            ix = (ix + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the value was in the set.
+     */
+    public boolean remove(final long value) {
+        if(value == 0) {
+            final boolean had = hasZero;
+            hasZero = false;
+            return had;
+        }
+        int ix = slot(value);
+        for(long e = table[ix]; e != value; e = table[ix]) {
+            if(e == 0) return false;
+            ix = (ix + 1) & mask;
+        }
+        // shift back the following entries of the probe chain so that there is no gap in it
+        int gap = ix;
+        for(ix = (ix + 1) & mask; table[ix] != 0; ix = (ix + 1) & mask) {
+            final int home = slot(table[ix]);
+            if(((ix - home) & mask) >= ((ix - gap) & mask)) {
+                table[gap] = table[ix];
+                gap = ix;
+            }
+        }
+        table[gap] = 0;
+        count--;
+        return true;
+    }
+
+    private void rehash(final int capacity) {
+        final long[] old = table;
+        allocate(capacity);
+        for(final long e: old) {
+            if(e == 0) continue;
+            int ix = slot(e);
+            while(table[ix] != 0) ix = (ix + 1) & mask;
+            table[ix] = e;
+        }
+    }
+
+    public int size() { return count + (hasZero ? 1 : 0); }
+
+    public boolean isEmpty() { return size() == 0; }
+
+    public void clear() {
+        Arrays.fill(table, 0);
+        count = 0;
+        hasZero = false;
+    }
+
+    public void forEach(final LongConsumer action) {
+        if(hasZero) action.accept(0);
+        for(final long e: table) if(e != 0) action.accept(e);
+    }
+
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+            private int ix = hasZero ? -1 : next(0);
+
+            private int next(int from) {
+                while(from < table.length && table[from] == 0) from++;
+                return from;
+            }
+
+            @Override public boolean hasNext() { return ix < table.length; }
+
+            @Override public long nextLong() {
+                if(!hasNext()) throw new NoSuchElementException();
+                final long result = ix < 0 ? 0 : table[ix];
+                ix = next(ix + 1);
+                return result;
+            }
+        };
+    }
+
+    /**
+     * The values in no particular order.
+     */
+    public long[] toArray() {
+        final long[] result = new long[size()];
+        int ix = 0;
+        if(hasZero) result[ix++] = 0;
+        for(final long e: table) if(e != 0) result[ix++] = e;
+        return result;
+    }
+
+    @Override public boolean equals(final Object other) {
+        if(this == other) return true;
+        if(!(other instanceof LongHashSet)) return false;
+        final LongHashSet that = (LongHashSet) other;
+        if(size() != that.size() || hasZero != that.hasZero) return false;
+        for(final long e: table) if(e != 0 && !that.contains(e)) return false;
+        return true;
+    }
+
+    /**
+     * Same as the {@link java.util.Set#hashCode()} of the boxed values.
+     */
+    @Override public int hashCode() {
+        int result = 0;
+        for(final long e: table) result += Long.hashCode(e);
+        return result;
+    }
+
+    @Override public String toString() {
+        final StringBuilder sb = new StringBuilder("[");
+        forEach(e -> sb.append(sb.length() > 1 ? ", " : "").append(e));
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,65 @@
+package org.ebay.datameta.dom;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Adapts a {@link SerialDataSource} with its source to the {@link Iterator}, taking <tt>null</tt> from the
+ * {@link SerialDataSource#next(Object)} for the end of the data. The records are decoded lazily, one look-ahead
+ * on the {@link #hasNext()}.
+ * <p>For the {@link Stream}, see the {@link #stream(SerialDataSource, Object)}. Such stream can run in parallel, but
+ * the records are decoded in one thread and handed out in batches; for the sources that can split themselves,
+ * such as the memory-mapped record files, use their own {@link Spliterator}s.</p>
+ * <p>Not thread-safe, same as the sources.</p>
+ *
+ * @author Michael Bergens
+ * @param <R> the record type
+ * @param <S> the data source type
+ */
+public class SourceIterator<R, S> implements Iterator<R> {
+
+    private final SerialDataSource<R, S> decoder;
+    private final S source;
+    private R next;
+    private boolean done;
+
+    public SourceIterator(final SerialDataSource<R, S> decoder, final S source) {
+        this.decoder = decoder;
+        this.source = source;
+    }
+
+    @Override public boolean hasNext() {
+        if(next == null && !done) {
+            next = decoder.next(source);
+            done = next == null;
+        }
+        return next != null;
+    }
+
+    @Override public R next() {
+        if(!hasNext()) throw new NoSuchElementException();
+        final R result = next;
+        next = null;
+        return result;
+    }
+
+    /**
+     * Ordered {@link Spliterator} of unknown size over the source.
+     */
+    public static <R, S> Spliterator<R> spliterator(final SerialDataSource<R, S> decoder, final S source) {
+        return Spliterators.spliteratorUnknownSize(new SourceIterator<>(decoder, source),
+            Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Sequential {@link Stream} over the source, call the {@link Stream#parallel()} to make it parallel.
+     * Closing the stream does not close the source.
+     */
+    public static <R, S> Stream<R> stream(final SerialDataSource<R, S> decoder, final S source) {
+        return StreamSupport.stream(spliterator(decoder, source), false);
+    }
+}
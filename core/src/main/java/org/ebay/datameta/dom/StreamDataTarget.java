@@ -0,0 +1,88 @@
+package org.ebay.datameta.dom;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * {@link BatchDataTarget} for the encoded records, writes them into an {@link OutputStream} such as a file or
+ * a socket, delimited or length-prefixed, through a buffer that is flushed once per batch.
+ * <p>Not thread-safe.</p>
+ *
+ * @author Michael Bergens
+ * @see BufferingDataTarget
+ */
+public class StreamDataTarget implements BatchDataTarget<byte[]> {
+
+    /**
+     * Default size of the stream buffer.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final OutputStream out;
+    private final byte[] delimiter;
+    private final boolean lengthPrefixed;
+
+    private StreamDataTarget(final OutputStream out, final byte[] delimiter, final boolean lengthPrefixed) {
+        this.out = new BufferedOutputStream(out, DEFAULT_BUFFER_SIZE);
+        this.delimiter = delimiter;
+        this.lengthPrefixed = lengthPrefixed;
+    }
+
+    /**
+     * Writes each record followed by the delimiter, such as a new line for the JSON records.
+     */
+    public static StreamDataTarget delimited(final OutputStream out, final byte[] delimiter) {
+        return new StreamDataTarget(out, delimiter.clone(), false);
+    }
+
+    /**
+     * Writes each record preceded by its length as a 4 byte big endian int.
+     */
+    public static StreamDataTarget lengthPrefixed(final OutputStream out) {
+        return new StreamDataTarget(out, new byte[0], true);
+    }
+
+    private void write(final byte[] record) throws IOException {
+        if(lengthPrefixed) {
+            final int len = record.length;
+            out.write(len >>> 24);
+            out.write(len >>> 16);
+            out.write(len >>> 8);
+            out.write(len);
+        }
+        out.write(record);
+        out.write(delimiter);
+    }
+
+    /**
+     * Writes the record and flushes, same as the batch of one.
+     */
+    @Override public void save(final byte[] what) {
+        saveAll(Collections.singletonList(what));
+    }
+
+    /**
+     * Writes the records and flushes them down the stream.
+     */
+    @Override public void saveAll(final Collection<? extends byte[]> what) {
+        try {
+            for(final byte[] record: what) write(record);
+            out.flush();
+        }
+        catch(IOException x) {
+            throw new UncheckedIOException(x);
+        }
+    }
+
+    @Override public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override public void close() throws IOException {
+        out.close();
+    }
+}
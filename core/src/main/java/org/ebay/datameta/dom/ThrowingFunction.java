@@ -0,0 +1,11 @@
+package org.ebay.datameta.dom;
+
+/**
+ * Same as {@link ThrowingConsumer} but for a function: lets the lambdas that throw, such as the serializers,
+ * to be passed around as a function.
+ * @author Michael Bergens
+ */
+@FunctionalInterface
+public interface ThrowingFunction<T, R, X extends Exception> {
+    R apply(T v) throws X;
+}
@@ -1,24 +1,46 @@
 package test.ebay.datameta.dom;
 
+import org.ebay.datameta.dom.BatchDataTarget;
 import org.ebay.datameta.dom.BitSet;
+import org.ebay.datameta.dom.BufferingDataTarget;
 import org.ebay.datameta.dom.DateTimeUtil;
+import org.ebay.datameta.dom.IntHashSet;
+import org.ebay.datameta.dom.LongHashSet;
+import org.ebay.datameta.dom.StreamDataTarget;
 import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Formatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import static org.ebay.datameta.dom.CannedRegexUtil.EMAIL_KEY;
 import static org.ebay.datameta.dom.CannedRegexUtil.getCannedRegEx;
 import static org.ebay.datameta.dom.DataMetaSame.EQ;
 import static org.ebay.datameta.dom.DateTimeUtil.UTC_FMT;
+import static java.time.format.DateTimeFormatter.ISO_DATE_TIME;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * @author Michael Bergens
@@ -91,4 +113,126 @@ public class AppTest {
         assertTrue("Email check failed for \"" + email + '\"', emailPattern.matcher(email).matches());
       }
     }
+
+    private static class ManualClock extends Clock {
+        long millis;
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+
+        @Override public Clock withZone(final ZoneId zone) { throw new UnsupportedOperationException(); }
+
+        @Override public Instant instant() { return Instant.ofEpochMilli(millis); }
+    }
+
+    /**
+     * Batches must go out by the size and by the time, and everything must be out after the close.
+     */
+    @Test public void testBufferingDataTarget() throws Exception {
+        final List<Integer> batches = new ArrayList<>();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final StreamDataTarget stream = StreamDataTarget.delimited(bytes, new byte[]{'\n'});
+        final BatchDataTarget<byte[]> sink = new BatchDataTarget<byte[]>() {
+            @Override public void save(final byte[] what) { throw new AssertionError("Batches only"); }
+
+            @Override public void saveAll(final Collection<? extends byte[]> what) {
+                batches.add(what.size());
+                stream.saveAll(what);
+            }
+
+            @Override public void flush() throws java.io.IOException { stream.flush(); }
+
+            @Override public void close() throws java.io.IOException { stream.close(); }
+        };
+        final ManualClock clock = new ManualClock();
+        final StringBuilder expected = new StringBuilder();
+        try(BufferingDataTarget<String> target = new BufferingDataTarget<>(v -> v.getBytes(UTF_8), sink, 10, 1000, clock)) {
+            for(final String v: new String[]{"abc", "def", "ghij"}) { // 10 bytes: goes by the size
+                target.save(v);
+                expected.append(v).append('\n');
+            }
+            assertEquals(1, batches.size());
+            target.save("k");
+            clock.millis += 999;
+            assertEquals(false, target.flushIfDue());
+            clock.millis++;
+            target.save("l"); // goes by the time
+            assertEquals(2, batches.size());
+            target.save("m");
+            assertEquals(1, target.getPendingCount());
+            expected.append("k\nl\nm\n");
+        }
+        assertEquals(3, batches.size());
+        assertArrayEquals(expected.toString().getBytes(UTF_8), bytes.toByteArray());
+    }
+
+    /**
+     * The primitive sets must behave as the boxed ones, including the zero, the removals and the growth.
+     */
+    @Test public void testPrimitiveSets() {
+        final Random rnd = new Random(42);
+        final Set<Integer> ints = new HashSet<>();
+        final Set<Long> longs = new HashSet<>();
+        final IntHashSet intSet = new IntHashSet();
+        final LongHashSet longSet = new LongHashSet(3);
+        for(int i = 0; i < 50000; i++) {
+            final int v = rnd.nextInt(2000) - 1000;
+            final long lv = (long) v << 33 | (v & 0xF);
+            if(rnd.nextInt(3) == 0) {
+                assertEquals(ints.remove(v), intSet.remove(v));
+                assertEquals(longs.remove(lv), longSet.remove(lv));
+            }
+            else {
+                assertEquals(ints.add(v), intSet.add(v));
+                assertEquals(longs.add(lv), longSet.add(lv));
+            }
+            assertEquals(ints.size(), intSet.size());
+            assertEquals(longs.size(), longSet.size());
+        }
+        for(int v = -1000; v < 1000; v++) {
+            assertEquals(ints.contains(v), intSet.contains(v));
+            assertEquals(longs.contains((long) v << 33 | (v & 0xF)), longSet.contains((long) v << 33 | (v & 0xF)));
+        }
+        final Set<Integer> fromArray = new HashSet<>();
+        for(final int v: intSet.toArray()) fromArray.add(v);
+        assertEquals(ints, fromArray);
+        final Set<Long> fromIterator = new HashSet<>();
+        longSet.iterator().forEachRemaining((java.util.function.LongConsumer) fromIterator::add);
+        assertEquals(longs, fromIterator);
+        assertEquals(ints.hashCode(), intSet.hashCode());
+        assertEquals(longs.hashCode(), longSet.hashCode());
+    }
+
+    /**
+     * The hand-rolled ISO format and parse must agree with the {@link java.time.format.DateTimeFormatter#ISO_DATE_TIME}.
+     */
+    @Test public void testIsoDateTime() {
+        final DateTimeUtil dtu = DateTimeUtil.getInstance();
+        final ZoneId[] zones = {DateTimeUtil.UTC_ID, ZoneOffset.UTC, ZoneId.of("America/Los_Angeles"),
+            ZoneId.of("Asia/Kolkata"), ZoneOffset.ofHoursMinutesSeconds(-3, -30, -15), ZoneId.of("Europe/Paris")};
+        final int[] nanos = {0, 1, 120_000_000, 123_456_789, 999_999_999, 5_000};
+        final Random rnd = new Random(20);
+        for(int i = 0; i < 2000; i++) {
+            final ZonedDateTime dttm = ZonedDateTime.ofInstant(
+                Instant.ofEpochSecond(rnd.nextLong() % 100_000_000_000L, nanos[i % nanos.length]), zones[i % zones.length]);
+            final String expected = ISO_DATE_TIME.format(dttm);
+            final String actual = dtu.toString(dttm);
+            assertEquals(expected, actual);
+            assertEquals(expected, dtu.parse(expected), ZonedDateTime.from(ISO_DATE_TIME.parse(expected)));
+            assertEquals(ISO_DATE_TIME.format(dttm.toOffsetDateTime()), dtu.toString(dttm.toOffsetDateTime()));
+        }
+        // the forms the fast path leaves to the formatter
+        for(final String text: new String[] {"2018-05-13T12:30Z", "2018-05-13t12:30:15z", "+12018-05-13T12:30:15Z",
+            "2018-05-13T12:30:15.5+05:30[Asia/Kolkata]", "2018-05-13T12:30:15+01:00:30"})
+            assertEquals(text, ZonedDateTime.from(ISO_DATE_TIME.parse(text)), dtu.parse(text));
+        for(final String bad: new String[] {"2018-02-30T12:30:15Z", "2018-05-13T12:30:15", "2018-05-13T24:00:00Z",
+            "2018-05-13T12:30:15Z[No/Such]", "2018-05-13T12:30:15.1234567890Z"}) {
+            try {
+                dtu.parse(bad);
+                fail("Should not parse " + bad);
+            }
+            catch(DateTimeException x) {
+                L.info("Expected: {}", x.getMessage());
+            }
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package org.ebay.datameta.ser.bytes;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Compresses the data of a {@link BlockFile} block as a whole, see the {@link BlockCodecs} for the implementations.
+ * <p>The instances keep their buffers and the compressor state from one block to the next: not thread-safe,
+ * each writer and each reader needs its own; {@link #close()} releases the native memory if any.</p>
+ *
+ * @author Michael Bergens
+ */
+public interface BlockCodec extends Closeable {
+
+    /**
+     * The name written into the file header, resolved back to the codec by the {@link BlockCodecs#forName(String)}.
+     */
+    String getName();
+
+    /**
+     * Compresses the data.
+     * @return the compressed data, valid until the next call.
+     */
+    ByteBuffer compress(byte[] source, int offset, int length) throws IOException;
+
+    /**
+     * Decompresses the data into the target.
+     * @param rawLength the length of the data before the compression, the target must have the room for it.
+     */
+    void decompress(byte[] source, int offset, int length, byte[] target, int rawLength) throws IOException;
+}
@@ -0,0 +1,247 @@
+package org.ebay.datameta.ser.bytes;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.compress.CodecPool;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionInputStream;
+import org.apache.hadoop.io.compress.CompressionOutputStream;
+import org.apache.hadoop.io.compress.Compressor;
+import org.apache.hadoop.io.compress.Decompressor;
+import org.apache.hadoop.util.ReflectionUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The {@link BlockCodec}s:
+ * <ul>
+ * <li>{@link #NONE}: stored as is.</li>
+ * <li>{@link #deflate(int)}: the JDK's {@link Deflater}, no dependencies, no native libraries beyond the JDK's own.</li>
+ * <li>{@link #hadoop(CompressionCodec)}: any Hadoop codec, such as the <tt>Lz4Codec</tt>, the <tt>SnappyCodec</tt>
+ * or the <tt>DefaultCodec</tt>; named by the codec class. Note that the LZ4 and the Snappy need the Hadoop native
+ * library.</li>
+ * </ul>
+ *
+ * @author Michael Bergens
+ */
+public final class BlockCodecs {
+
+    /**
+     * The name of the {@link #NONE}.
+     */
+    public static final String NONE_NAME = "none";
+
+    /**
+     * The name of the {@link #deflate(int)}.
+     */
+    public static final String DEFLATE_NAME = "deflate";
+
+    /**
+     * No compression, stateless, can be shared.
+     */
+    public static final BlockCodec NONE = new BlockCodec() {
+        @Override public String getName() { return NONE_NAME; }
+
+        @Override public ByteBuffer compress(final byte[] source, final int offset, final int length) {
+            return ByteBuffer.wrap(source, offset, length);
+        }
+
+        @Override public void decompress(final byte[] source, final int offset, final int length, final byte[] target,
+                                         final int rawLength) throws IOException {
+            if(length != rawLength) throw new IOException("Stored length " + length + " differs from " + rawLength);
+            System.arraycopy(source, offset, target, 0, length);
+        }
+
+        @Override public void close() {}
+    };
+
+    private BlockCodecs() {}
+
+    /**
+     * The configuration for the Hadoop codecs named in the file headers, loaded once: parsing the default resources
+     * per reader would cost more than the reading of a small file.
+     */
+    private static class SharedConf {
+        private static final Configuration INSTANCE = new Configuration();
+    }
+
+    /**
+     * Same as {@link #forName(String, Configuration)} with the default configuration, shared.
+     */
+    public static BlockCodec forName(final String name) {
+        switch(name) {
+            case NONE_NAME:
+                return NONE;
+            case DEFLATE_NAME:
+                return deflate(Deflater.DEFAULT_COMPRESSION);
+            default:
+                return forName(name, SharedConf.INSTANCE);
+        }
+    }
+
+    /**
+     * The codec for the name from the file header: the {@link #NONE_NAME}, the {@link #DEFLATE_NAME} or the class
+     * name of a Hadoop codec, configured with the given configuration.
+     * The name comes from the file, so the class is checked to be a {@link CompressionCodec} before it is initialized.
+     * @throws IllegalArgumentException if there is no such class or it is not a {@link CompressionCodec}.
+     */
+    public static BlockCodec forName(final String name, final Configuration conf) {
+        switch(name) {
+            case NONE_NAME:
+                return NONE;
+            case DEFLATE_NAME:
+                return deflate(Deflater.DEFAULT_COMPRESSION);
+            default:
+                final Class<?> codecClass;
+                try {
+                    codecClass = Class.forName(name, false, conf.getClassLoader());
+                }
+                catch(ClassNotFoundException x) {
+                    throw new IllegalArgumentException("Unknown block codec " + name, x);
+                }
+                if(!CompressionCodec.class.isAssignableFrom(codecClass))
+                    throw new IllegalArgumentException("Not a block codec: " + name);
+                return hadoop(ReflectionUtils.newInstance(codecClass.asSubclass(CompressionCodec.class), conf));
+        }
+    }
+
+    /**
+     * The JDK's deflate, raw, without the zlib wrapper: the block header has the lengths already.
+     * @param level from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}.
+     */
+    public static BlockCodec deflate(final int level) {
+        return new DeflateCodec(level);
+    }
+
+    /**
+     * The Hadoop codec, its compressor and decompressor taken from the {@link CodecPool} for the life of the instance.
+     */
+    public static BlockCodec hadoop(final CompressionCodec codec) {
+        return new HadoopCodec(codec);
+    }
+
+    /**
+     * The buffer the codecs compress into, exposed without copying.
+     */
+    private static class Output extends ByteArrayOutputStream {
+        private Output() {
+            super(BlockFile.DEFAULT_BLOCK_SIZE / 2);
+        }
+
+        private ByteBuffer view() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+
+        private void ensure(final int capacity) {
+            if(buf.length < capacity) buf = Arrays.copyOf(buf, Math.max(capacity, buf.length * 2));
+        }
+
+        private byte[] array() { return buf; }
+
+        private void setSize(final int size) { count = size; }
+    }
+
+    private static class DeflateCodec implements BlockCodec {
+        private final Deflater deflater;
+        private final Inflater inflater = new Inflater(true);
+        private final Output output = new Output();
+
+        private DeflateCodec(final int level) {
+            deflater = new Deflater(level, true);
+        }
+
+        @Override public String getName() { return DEFLATE_NAME; }
+
+        @Override public ByteBuffer compress(final byte[] source, final int offset, final int length) {
+            deflater.reset();
+            deflater.setInput(source, offset, length);
+            deflater.finish();
+            // the worst case of the deflate is a little over the input, the stored blocks
+            output.ensure(length + (length >> 12) + 64);
+            int size = 0;
+            while(!deflater.finished()) {
+                if(size == output.array().length) output.ensure(size * 2);
+                size += deflater.deflate(output.array(), size, output.array().length - size);
+            }
+            output.setSize(size);
+            return output.view();
+        }
+
+        @Override public void decompress(final byte[] source, final int offset, final int length, final byte[] target,
+                                         final int rawLength) throws IOException {
+            inflater.reset();
+            inflater.setInput(source, offset, length);
+            try {
+                int size = 0;
+                while(size < rawLength) {
+                    final int n = inflater.inflate(target, size, rawLength - size);
+                    if(n == 0 && (inflater.needsInput() || inflater.finished() || inflater.needsDictionary()))
+                        throw new IOException("Deflated block ends at " + size + " of " + rawLength + " bytes");
+                    size += n;
+                }
+            }
+            catch(DataFormatException x) {
+                throw new IOException("Corrupted deflated block", x);
+            }
+        }
+
+        @Override public void close() {
+            deflater.end();
+            inflater.end();
+        }
+    }
+
+    private static class HadoopCodec implements BlockCodec {
+        private final CompressionCodec codec;
+        private final Output output = new Output();
+        private Compressor compressor;
+        private Decompressor decompressor;
+
+        private HadoopCodec(final CompressionCodec codec) {
+            this.codec = codec;
+        }
+
+        @Override public String getName() { return codec.getClass().getName(); }
+
+        /**
+         * Through the codec's streams rather than the bare compressor: the block codecs such as the LZ4 frame
+         * the data in chunks of their buffer size, which the streams take care of.
+         */
+        @Override public ByteBuffer compress(final byte[] source, final int offset, final int length) throws IOException {
+            if(compressor == null) compressor = CodecPool.getCompressor(codec);
+            else compressor.reset();
+            output.reset();
+            final CompressionOutputStream out = codec.createOutputStream(output, compressor);
+            out.write(source, offset, length);
+            out.finish();
+            return output.view();
+        }
+
+        @Override public void decompress(final byte[] source, final int offset, final int length, final byte[] target,
+                                         final int rawLength) throws IOException {
+            if(decompressor == null) decompressor = CodecPool.getDecompressor(codec);
+            else decompressor.reset();
+            final CompressionInputStream in = codec.createInputStream(
+                new ByteArrayInputStream(source, offset, length), decompressor);
+            int size = 0;
+            while(size < rawLength) {
+                final int n = in.read(target, size, rawLength - size);
+                if(n < 0) throw new IOException("Compressed block ends at " + size + " of " + rawLength + " bytes");
+                size += n;
+            }
+        }
+
+        @Override public void close() {
+            if(compressor != null) CodecPool.returnCompressor(compressor);
+            if(decompressor != null) CodecPool.returnDecompressor(decompressor);
+            compressor = null;
+            decompressor = null;
+        }
+    }
+}
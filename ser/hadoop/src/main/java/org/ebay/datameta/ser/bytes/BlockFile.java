@@ -0,0 +1,192 @@
+package org.ebay.datameta.ser.bytes;
+
+import org.apache.hadoop.io.WritableUtils;
+import org.ebay.datameta.util.jdk.SemanticVersion;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.ebay.datameta.ser.bytes.DataMetaHadoopUtil.readText;
+import static org.ebay.datameta.ser.bytes.DataMetaHadoopUtil.writeTextIfAny;
+
+/**
+ * The splittable block file format, for the files too big for one reader: unlike the {@link RecordFile}, a reader
+ * dropped at any byte offset finds the next record boundary by the sync marker, so the file can be cut into byte ranges
+ * read in parallel, by the threads or by the Hadoop mappers.
+ * <ul>
+ * <li>Header: the {@link #MAGIC}, the {@link #FORMAT_VERSION}, the {@link TzDictionary#VERSION} the datetimes were
+ * written with, the data type and the {@link SemanticVersion}
+ * of the records and the name of the {@link BlockCodec}, all as text, then the sync marker, {@link #SYNC_SIZE} random
+ * bytes unique to the file.</li>
+ * <li>Blocks, each one: the sync marker, the number of records, the length of the block's data and the length it is
+ * stored with, all three as 4 byte big endian ints, then the data compressed by the codec as a whole.
+ * The data are the records, each one the length of the payload as a 4 byte int followed by the payload written by
+ * the {@link InOutable#write(DataOutput, org.ebay.datameta.dom.DataMetaEntity)}. The version is in the header,
+ * not repeated per record.</li>
+ * </ul>
+ * The records of the same type repeat the same bytes, such as the enum ordinals, the time zone keys and the common
+ * strings, so the blocks compress well: the bigger the block, the better.
+ * A block compressed by itself is decompressed by itself, the reader that starts in the middle of the file needs
+ * nothing from the blocks before.
+ * A block belongs to the byte range where its sync marker starts: the reader of the range from <tt>start</tt>
+ * to <tt>end</tt> scans from the <tt>start</tt> to the first sync marker and reads the blocks that start
+ * before the <tt>end</tt>, the last one reaching past it; so the ranges that cover the file read every record once.
+ *
+ * @see BlockFileWriter
+ * @see BlockFileReader
+ * @author Michael Bergens
+ */
+public final class BlockFile {
+
+    /**
+     * The file starts with these, ASCII for <tt>DMBF</tt>.
+     */
+    public static final int MAGIC = 0x444D4246;
+
+    /**
+     * Current version of this format.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    /**
+     * The size of the sync marker.
+     */
+    public static final int SYNC_SIZE = 16;
+
+    /**
+     * The sync marker, the record count, the data length and the stored length.
+     */
+    public static final int BLOCK_HEADER_SIZE = SYNC_SIZE + 12;
+
+    /**
+     * Default size of the block data, the writer ends the block when it gets past it.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 256 * 1024;
+
+    private BlockFile() {}
+
+    /**
+     * The file header.
+     */
+    public static final class Header {
+        private final String dataType;
+        private final SemanticVersion version;
+        private final String codec;
+        private final int tzVersion;
+        private final byte[] sync;
+
+        /**
+         * Not compressed.
+         */
+        public Header(final String dataType, final SemanticVersion version) {
+            this(dataType, version, BlockCodecs.NONE_NAME);
+        }
+
+        /**
+         * @param codec the {@link BlockCodec#getName()}.
+         */
+        public Header(final String dataType, final SemanticVersion version, final String codec) {
+            this(dataType, version, codec, TzDictionary.VERSION, newSync());
+        }
+
+        private Header(final String dataType, final SemanticVersion version, final String codec, final int tzVersion,
+                       final byte[] sync) {
+            this.dataType = dataType;
+            this.version = version;
+            this.codec = codec;
+            this.tzVersion = tzVersion;
+            this.sync = sync;
+        }
+
+        /**
+         * The full class name of the records.
+         */
+        public String getDataType() { return dataType; }
+
+        /**
+         * The version of the records.
+         */
+        public SemanticVersion getVersion() { return version; }
+
+        /**
+         * The name of the {@link BlockCodec}.
+         */
+        public String getCodec() { return codec; }
+
+        /**
+         * The {@link TzDictionary#VERSION} the file was written with.
+         */
+        public int getTzVersion() { return tzVersion; }
+
+        /**
+         * The sync marker, a copy.
+         */
+        public byte[] getSync() { return sync.clone(); }
+
+        boolean isSync(final byte[] candidate) {
+            return Arrays.equals(sync, candidate);
+        }
+
+        /**
+         * The header length, the offset of the first block.
+         */
+        public int size() {
+            return 12 + textSize(dataType) + textSize(version.getSemanticPartsOnly()) + textSize(codec)
+                + SYNC_SIZE;
+        }
+
+        void write(final DataOutput out) throws IOException {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(tzVersion);
+            writeTextIfAny(out, dataType);
+            InOutable.writeVersion(out, version);
+            writeTextIfAny(out, codec);
+            out.write(sync);
+        }
+
+        @Override public String toString() {
+            return getClass().getSimpleName() + '{' + dataType + '#' + version + ", codec=" + codec + '}';
+        }
+    }
+
+    private static byte[] newSync() {
+        final UUID uuid = UUID.randomUUID();
+        return ByteBuffer.allocate(SYNC_SIZE).putLong(uuid.getMostSignificantBits())
+            .putLong(uuid.getLeastSignificantBits()).array();
+    }
+
+    private static int textSize(final String value) {
+        final int len = value.getBytes(StandardCharsets.UTF_8).length;
+        return WritableUtils.getVIntSize(len) + len;
+    }
+
+    /**
+     * Reads the header from the start of the file, leaving the stream at the first block.
+     * @param source the file name or other description of the source, for the error message.
+     * @throws IOException also if the file was written with a newer time zone dictionary than this one.
+     */
+    public static Header readHeader(final InputStream in, final Object source) throws IOException {
+        final DataInput din = in instanceof DataInput ? (DataInput) in : new DataInputStream(in);
+        final int magic = din.readInt();
+        if(magic != MAGIC) throw new IOException("Not a DataMeta block file: " + source);
+        final int version = din.readInt();
+        if(version != FORMAT_VERSION) throw new IOException("Unsupported DataMeta block file format version "
+            + version + " in " + source + ", supported: " + FORMAT_VERSION);
+        final int tzVersion = din.readInt();
+        TzDictionary.checkVersion(tzVersion, source);
+        final String dataType = readText(din);
+        final SemanticVersion recVersion = InOutable.readVersion(din);
+        final String codec = readText(din);
+        final byte[] sync = new byte[SYNC_SIZE];
+        din.readFully(sync);
+        return new Header(dataType, recVersion, codec, tzVersion, sync);
+    }
+}
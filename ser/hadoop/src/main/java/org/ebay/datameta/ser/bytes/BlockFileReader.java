@@ -0,0 +1,237 @@
+package org.ebay.datameta.ser.bytes;
+
+import org.apache.hadoop.conf.Configuration;
+import org.ebay.datameta.dom.DataMetaEntity;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the records of one byte range of a {@link BlockFile}: scans from the start of the range to the first sync
+ * marker, then reads the blocks that start within the range, a block at a time decompressed into a reused buffer by
+ * the {@link BlockCodec} named in the header, decoding the records from it with the {@link InOutable} through a reused
+ * {@link ByteBufferDataInput}.
+ * <p>For a local file, {@link #open(Path, long, long, InOutable)}. For any other stream, such as the Hadoop's
+ * <tt>FSDataInputStream</tt> in an <tt>InputFormat</tt>'s record reader, read the header from the start of the file,
+ * move the stream to the split start and pass its position in:</p>
+ * <pre>
+ *   final FSDataInputStream in = fs.open(split.getPath());
+ *   final BlockFile.Header header = BlockFile.readHeader(in, split.getPath());
+ *   if(split.getStart() &gt; in.getPos()) in.seek(split.getStart());
+ *   reader = new BlockFileReader&lt;&gt;(in, in.getPos(), split.getStart() + split.getLength(), header, io,
+ *       context.getConfiguration());
+ * </pre>
+ * <p>Not thread-safe: use an instance per range.</p>
+ *
+ * @author Michael Bergens
+ */
+public class BlockFileReader<T extends DataMetaEntity> implements Closeable {
+
+    private final InOutable<T> io;
+    private final BlockFile.Header header;
+    private final DataInputStream in;
+    private final long end;
+    private final BlockCodec codec;
+
+    /**
+     * Offset of the stream.
+     */
+    private long position;
+
+    private boolean synced;
+    private boolean done;
+
+    private byte[] blockData = new byte[BlockFile.DEFAULT_BLOCK_SIZE];
+    private byte[] stored = new byte[0];
+    private final ByteBufferDataInput blockIn = new ByteBufferDataInput(ByteBuffer.allocate(0));
+    private int blockRemaining;
+    private long blockStart = -1;
+    private final byte[] syncBuf = new byte[BlockFile.SYNC_SIZE];
+
+    /**
+     * Reads the range of the local file.
+     * @param start offset of the range, 0 for the start of the file.
+     * @param end offset past the range, the file size for the rest of the file.
+     */
+    public static <T extends DataMetaEntity> BlockFileReader<T> open(final Path path, final long start, final long end,
+                                                                     final InOutable<T> io) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            // no buffering for the header: the stream would read ahead of the channel position
+            final BlockFile.Header header = BlockFile.readHeader(Channels.newInputStream(channel), path);
+            if(start > channel.position()) channel.position(start);
+            return new BlockFileReader<>(Channels.newInputStream(channel), channel.position(), end, header, io);
+        }
+        catch(IOException | RuntimeException x) {
+            channel.close();
+            throw x;
+        }
+    }
+
+    /**
+     * The codec named in the header, a Hadoop one configured with the shared default configuration.
+     * @param source the stream past the header, it will be closed when this reader is closed.
+     * @param position the offset in the file the stream is at, the start of the range.
+     * @param end offset past the range, the blocks that start before it are read.
+     */
+    public BlockFileReader(final InputStream source, final long position, final long end,
+                           final BlockFile.Header header, final InOutable<T> io) {
+        this(source, position, end, header, io, BlockCodecs.forName(header.getCodec()));
+    }
+
+    /**
+     * Same as {@link #BlockFileReader(InputStream, long, long, BlockFile.Header, InOutable)}, a Hadoop codec
+     * configured with the given configuration, such as the job's.
+     */
+    public BlockFileReader(final InputStream source, final long position, final long end,
+                           final BlockFile.Header header, final InOutable<T> io, final Configuration conf) {
+        this(source, position, end, header, io, BlockCodecs.forName(header.getCodec(), conf));
+    }
+
+    private BlockFileReader(final InputStream source, final long position, final long end,
+                            final BlockFile.Header header, final InOutable<T> io, final BlockCodec codec) {
+        if(position < header.size()) throw new IllegalArgumentException("The position " + position
+            + " is within the header of the size " + header.size());
+        this.io = io;
+        this.header = header;
+        this.in = new DataInputStream(new BufferedInputStream(source, RecordFileWriter.DEFAULT_BUFFER_SIZE));
+        this.position = position;
+        this.end = end;
+        this.codec = codec;
+    }
+
+    public BlockFile.Header getHeader() { return header; }
+
+    /**
+     * Offset in the file read up to, for the progress.
+     */
+    public long getPosition() { return position; }
+
+    /**
+     * Offset of the current block, -1 before the first one.
+     */
+    public long getBlockStart() { return blockStart; }
+
+    /**
+     * The next record of the range.
+     * @return null past the last block of the range.
+     */
+    public T read() throws IOException {
+        return read(null);
+    }
+
+    /**
+     * Same as {@link #read()}, reusing the given record if not null.
+     */
+    public T read(final T reuse) throws IOException {
+        while(blockRemaining == 0) {
+            if(!nextBlock()) return null;
+        }
+        final ByteBuffer buf = blockIn.getBuffer();
+        final int len = buf.getInt();
+        if(len < 0 || len > buf.remaining()) throw corrupted("record length " + len);
+        final int recordEnd = buf.position() + len;
+        final T result = reuse == null ? io.read(blockIn) : io.read(blockIn, reuse);
+        if(buf.position() != recordEnd) throw corrupted("record of the length " + len + " read as "
+            + (buf.position() - recordEnd + len));
+        blockRemaining--;
+        return result;
+    }
+
+    private IOException corrupted(final String what) {
+        return new IOException("Corrupted block at " + blockStart + ": " + what);
+    }
+
+    /**
+     * Loads the next block of the range.
+     * @return false if there are no more.
+     */
+    private boolean nextBlock() throws IOException {
+        if(done) return false;
+        if(!(synced ? atSync() : scanToSync())) {
+            done = true;
+            return false;
+        }
+        final int count = in.readInt();
+        final int length = in.readInt();
+        final int storedLength = in.readInt();
+        if(count <= 0 || length < 0 || storedLength < 0)
+            throw corrupted("record count " + count + ", length " + length + ", stored " + storedLength);
+        if(length > blockData.length) blockData = new byte[Math.max(length, blockData.length * 2)];
+        if(codec == BlockCodecs.NONE) {
+            if(storedLength != length) throw corrupted("stored length " + storedLength + ", length " + length);
+            in.readFully(blockData, 0, length);
+        }
+        else {
+            if(storedLength > stored.length) stored = new byte[Math.max(storedLength, stored.length * 2)];
+            in.readFully(stored, 0, storedLength);
+            codec.decompress(stored, 0, storedLength, blockData, length);
+        }
+        position += 12 + storedLength;
+        blockIn.reset(ByteBuffer.wrap(blockData, 0, length));
+        blockRemaining = count;
+        return true;
+    }
+
+    /**
+     * Reads the sync marker that must be at the position, the start of the next block.
+     * @return false at the end of the file or of the range.
+     */
+    private boolean atSync() throws IOException {
+        if(position >= end) return false;
+        final int first = in.read();
+        if(first < 0) return false;
+        syncBuf[0] = (byte) first;
+        in.readFully(syncBuf, 1, syncBuf.length - 1);
+        blockStart = position;
+        position += syncBuf.length;
+        if(!header.isSync(syncBuf)) throw corrupted("no sync marker");
+        return true;
+    }
+
+    /**
+     * Scans for the first sync marker from the position: the stream is read byte by byte through the window of
+     * the marker's size, only as far as the first block of the range.
+     * @return false at the end of the file or if no block starts within the range.
+     */
+    private boolean scanToSync() throws IOException {
+        final int size = syncBuf.length;
+        int filled = 0;
+        while(true) {
+            if(filled == size) {
+                if(header.isSync(syncBuf)) break;
+                System.arraycopy(syncBuf, 1, syncBuf, 0, size - 1);
+                filled--;
+            }
+            if(position - filled >= end) return false;
+            final int b = in.read();
+            if(b < 0) return false;
+            syncBuf[filled++] = (byte) b;
+            position++;
+        }
+        blockStart = position - size;
+        synced = true;
+        return true;
+    }
+
+    @Override public void close() throws IOException {
+        try {
+            in.close();
+        }
+        finally {
+            codec.close();
+        }
+    }
+
+    @Override public String toString() {
+        return getClass().getSimpleName() + "{" + header + ", position=" + position + ", end=" + end + '}';
+    }
+}
@@ -0,0 +1,153 @@
+package org.ebay.datameta.ser.bytes;
+
+import org.ebay.datameta.dom.BatchDataTarget;
+import org.ebay.datameta.dom.DataMetaEntity;
+import org.ebay.datameta.dom.SerialDataTarget;
+import org.ebay.datameta.util.jdk.SemanticVersion;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes the {@link BlockFile} format: the records are collected into a block, which is compressed by the
+ * {@link BlockCodec} and written out with the sync marker in front when its data gets past the block size.
+ * Each record is serialized into a reused {@link BytesDataWriter}, so there is no garbage per record.
+ * <p>Not thread-safe, same as the underlying stream.</p>
+ *
+ * @author Michael Bergens
+ */
+public class BlockFileWriter<T extends DataMetaEntity> implements BatchDataTarget<T> {
+
+    private final InOutable<T> io;
+    private final BlockFile.Header header;
+    private final byte[] sync;
+    private final BlockCodec codec;
+    private final int blockSize;
+    private final DataOutputStream out;
+    private final BytesDataWriter record = new BytesDataWriter();
+    private final BytesDataWriter block;
+    private int blockCount;
+    private long count;
+
+    /**
+     * Creates the file, replacing the existing one if any, and writes the header; the blocks of the default size,
+     * not compressed.
+     */
+    public BlockFileWriter(final Path path, final InOutable<T> io, final Class<T> dataClass,
+                           final SemanticVersion version) throws IOException {
+        this(path, io, dataClass, version, BlockCodecs.NONE);
+    }
+
+    /**
+     * Creates the file, replacing the existing one if any, and writes the header; the blocks of the default size,
+     * compressed by the codec, which will be closed when this writer is closed.
+     */
+    public BlockFileWriter(final Path path, final InOutable<T> io, final Class<T> dataClass,
+                           final SemanticVersion version, final BlockCodec codec) throws IOException {
+        this(Files.newOutputStream(path), io, new BlockFile.Header(dataClass.getName(), version, codec.getName()),
+            BlockFile.DEFAULT_BLOCK_SIZE, codec);
+    }
+
+    /**
+     * Writes the header into the given stream, which will be closed when this writer is closed; the codec
+     * by the header's name.
+     * @param blockSize the data size past which the block is written out; the bigger, the less overhead for the sync
+     *                  markers and the better the compression, but the more to scan for a reader that starts
+     *                  in the middle.
+     */
+    public BlockFileWriter(final OutputStream target, final InOutable<T> io, final BlockFile.Header header,
+                           final int blockSize) throws IOException {
+        this(target, io, header, blockSize, BlockCodecs.forName(header.getCodec()));
+    }
+
+    /**
+     * Same as {@link #BlockFileWriter(OutputStream, InOutable, BlockFile.Header, int)}, with the codec configured
+     * by the caller, which must be the one named in the header; it will be closed when this writer is closed.
+     */
+    public BlockFileWriter(final OutputStream target, final InOutable<T> io, final BlockFile.Header header,
+                           final int blockSize, final BlockCodec codec) throws IOException {
+        if(blockSize <= 0) throw new IllegalArgumentException("Invalid block size " + blockSize);
+        if(!codec.getName().equals(header.getCodec())) throw new IllegalArgumentException("The codec "
+            + codec.getName() + " is not the one in the header, " + header.getCodec());
+        this.io = io;
+        this.header = header;
+        this.codec = codec;
+        sync = header.getSync();
+        this.blockSize = blockSize;
+        block = new BytesDataWriter(blockSize + BytesDataWriter.DEFAULT_CAPACITY);
+        out = new DataOutputStream(new BufferedOutputStream(target, RecordFileWriter.DEFAULT_BUFFER_SIZE));
+        header.write(out);
+    }
+
+    public BlockFile.Header getHeader() { return header; }
+
+    /**
+     * Appends the record, writes out the block if it is full.
+     */
+    public void write(final T value) throws IOException {
+        io.write(record.reset(), value);
+        block.writeInt(record.size());
+        block.write(record.getBuffer(), 0, record.size());
+        blockCount++;
+        count++;
+        if(block.size() >= blockSize) writeBlock();
+    }
+
+    private void writeBlock() throws IOException {
+        if(blockCount == 0) return;
+        final ByteBuffer stored = codec.compress(block.getBuffer(), 0, block.size());
+        out.write(sync);
+        out.writeInt(blockCount);
+        out.writeInt(block.size());
+        out.writeInt(stored.remaining());
+        out.write(stored.array(), stored.arrayOffset() + stored.position(), stored.remaining());
+        block.reset();
+        blockCount = 0;
+    }
+
+    /**
+     * Same as {@link #write(DataMetaEntity)}, with the {@link IOException} wrapped into the {@link UncheckedIOException}
+     * because the {@link SerialDataTarget} does not declare it.
+     */
+    @Override public void save(final T what) {
+        try {
+            write(what);
+        }
+        catch(IOException x) {
+            throw new UncheckedIOException(x);
+        }
+    }
+
+    /**
+     * Number of records written so far.
+     */
+    public long getCount() { return count; }
+
+    /**
+     * Ends the current block, even if it is not full, and flushes the stream.
+     */
+    @Override public void flush() throws IOException {
+        writeBlock();
+        out.flush();
+    }
+
+    @Override public void close() throws IOException {
+        try {
+            writeBlock();
+        }
+        finally {
+            try {
+                out.close();
+            }
+            finally {
+                codec.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.ebay.datameta.ser.bytes;
+
+import org.ebay.datameta.dom.DataMetaEntity;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * {@link CompactDataInput} reading straight out of a heap or a direct {@link ByteBuffer}, such as a Netty/NIO buffer
+ * or a memory-mapped file, with no intermediate <tt>byte[]</tt>. Reads the same format as {@link java.io.DataInputStream}.
+ * <p>Reads from the buffer it is given, advancing its position; the buffer must be in the default big endian order.
+ * Use {@link #reset(ByteBuffer)} to reuse an instance for the next record.</p>
+ * <p>Not thread-safe, same as the {@link ByteBuffer} itself.</p>
+ *
+ * @author Michael Bergens
+ */
+public class ByteBufferDataInput implements CompactDataInput {
+
+    private ByteBuffer buf;
+
+    /**
+     * Lazily allocated for decoding the strings out of direct buffers, grows to the longest string seen.
+     */
+    private byte[] scratch;
+
+    public ByteBufferDataInput(final ByteBuffer source) {
+        reset(source);
+    }
+
+    /**
+     * Switches this instance to read from the other buffer.
+     */
+    public ByteBufferDataInput reset(final ByteBuffer source) {
+        if(source.order() != ByteOrder.BIG_ENDIAN) throw new IllegalArgumentException(
+            "The buffer must be in the big endian order, got " + source.order());
+        buf = source;
+        return this;
+    }
+
+    /**
+     * The buffer being read, positioned at the next byte to read.
+     */
+    public ByteBuffer getBuffer() { return buf; }
+
+    /**
+     * Convenience method, decodes one record from the current position.
+     */
+    public <T extends DataMetaEntity> T read(final InOutable<T> io) throws IOException {
+        return io.read(this);
+    }
+
+    private void require(final int count) throws EOFException {
+        if(buf.remaining() < count) throw new EOFException("Need " + count + " bytes, only " + buf.remaining()
+            + " left in the buffer");
+    }
+
+    @Override public void readFully(final byte[] b) throws IOException {
+        readFully(b, 0, b.length);
+    }
+
+    @Override public void readFully(final byte[] b, final int off, final int len) throws IOException {
+        require(len);
+        buf.get(b, off, len);
+    }
+
+    @Override public int skipBytes(final int n) {
+        final int skipped = Math.max(0, Math.min(n, buf.remaining()));
+        buf.position(buf.position() + skipped);
+        return skipped;
+    }
+
+    @Override public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    @Override public byte readByte() throws IOException {
+        require(1);
+        return buf.get();
+    }
+
+    @Override public int readUnsignedByte() throws IOException {
+        return readByte() & 0xFF;
+    }
+
+    @Override public short readShort() throws IOException {
+        require(2);
+        return buf.getShort();
+    }
+
+    @Override public int readUnsignedShort() throws IOException {
+        return readShort() & 0xFFFF;
+    }
+
+    @Override public char readChar() throws IOException {
+        require(2);
+        return buf.getChar();
+    }
+
+    @Override public int readInt() throws IOException {
+        require(4);
+        return buf.getInt();
+    }
+
+    @Override public long readLong() throws IOException {
+        require(8);
+        return buf.getLong();
+    }
+
+    @Override public float readFloat() throws IOException {
+        require(4);
+        return buf.getFloat();
+    }
+
+    @Override public double readDouble() throws IOException {
+        require(8);
+        return buf.getDouble();
+    }
+
+    /**
+     * Same as {@link DataInputStream#readLine()}, deprecated there, provided here only to fulfill the contract.
+     */
+    @Override public String readLine() {
+        if(!buf.hasRemaining()) return null;
+        final StringBuilder sb = new StringBuilder();
+        while(buf.hasRemaining()) {
+            final int c = buf.get() & 0xFF;
+            if(c == '\n') break;
+            if(c == '\r') {
+                if(buf.hasRemaining() && buf.get(buf.position()) == '\n') buf.get();
+                break;
+            }
+            sb.append((char) c);
+        }
+        return sb.toString();
+    }
+
+    @Override public String readUTF() throws IOException {
+        return DataInputStream.readUTF(this);
+    }
+
+    @Override public int readVInt() throws IOException {
+        final long n = readVLong();
+        if(n > Integer.MAX_VALUE || n < Integer.MIN_VALUE) throw new IOException("Value too long to fit in integer: " + n);
+        return (int) n;
+    }
+
+    @Override public long readVLong() throws IOException {
+        final byte first = readByte();
+        if(first >= -112) return first; // single byte value
+        final boolean negative = first < -120;
+        final int len = negative ? -120 - first : -112 - first;
+        require(len);
+        long result = 0;
+        for(int ix = 0; ix < len; ix++) result = (result << 8) | (buf.get() & 0xFF);
+        return negative ? ~result : result;
+    }
+
+    @Override public String readText() throws IOException {
+        final int len = readVInt();
+        if(len < 0) throw new IOException("Negative string length: " + len);
+        require(len);
+        final String result;
+        if(buf.hasArray()) { // decode in place
+            result = new String(buf.array(), buf.arrayOffset() + buf.position(), len, UTF_8);
+            buf.position(buf.position() + len);
+        }
+        else {
+            if(scratch == null || scratch.length < len) scratch = new byte[Math.max(len, 64)];
+            buf.get(scratch, 0, len);
+            result = new String(scratch, 0, len, UTF_8);
+        }
+        return result;
+    }
+}
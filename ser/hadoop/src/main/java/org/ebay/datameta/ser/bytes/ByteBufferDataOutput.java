@@ -0,0 +1,172 @@
+package org.ebay.datameta.ser.bytes;
+
+import org.apache.hadoop.io.WritableUtils;
+import org.ebay.datameta.dom.DataMetaEntity;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * {@link CompactDataOutput} writing straight into a heap or a direct {@link ByteBuffer}, same format as
+ * {@link DataOutputStream}. The buffer does not grow: running out of room throws the {@link BufferOverflowException};
+ * for a growable target, see the {@link BytesDataWriter}.
+ * <p>Writes into the buffer it is given, advancing its position; the buffer must be in the default big endian order.</p>
+ * <p>Not thread-safe, same as the {@link ByteBuffer} itself.</p>
+ *
+ * @author Michael Bergens
+ */
+public class ByteBufferDataOutput implements CompactDataOutput {
+
+    private ByteBuffer buf;
+
+    /**
+     * For the direct buffers: the compact encodings go through this one and then bulk copied.
+     */
+    private byte[] scratch;
+
+    public ByteBufferDataOutput(final ByteBuffer target) {
+        reset(target);
+    }
+
+    /**
+     * Switches this instance to write into the other buffer.
+     */
+    public ByteBufferDataOutput reset(final ByteBuffer target) {
+        if(target.order() != ByteOrder.BIG_ENDIAN) throw new IllegalArgumentException(
+            "The buffer must be in the big endian order, got " + target.order());
+        buf = target;
+        return this;
+    }
+
+    /**
+     * The buffer being written, positioned past the last byte written.
+     */
+    public ByteBuffer getBuffer() { return buf; }
+
+    /**
+     * Convenience method, encodes one record from the current position.
+     */
+    public <T extends DataMetaEntity> void write(final InOutable<T> io, final T value) throws IOException {
+        io.write(this, value);
+    }
+
+    /**
+     * Array to encode the given number of bytes into: the heap buffer's own, or the scratch one for a direct buffer.
+     */
+    private byte[] target(final int len) {
+        if(buf.remaining() < len) throw new BufferOverflowException();
+        if(buf.hasArray()) return buf.array();
+        if(scratch == null || scratch.length < len) scratch = new byte[Math.max(len, 64)];
+        return scratch;
+    }
+
+    /**
+     * Completes the write started with the {@link #target(int)}.
+     */
+    private void commit(final byte[] target, final int len) {
+        if(target == scratch) buf.put(scratch, 0, len);
+        else buf.position(buf.position() + len);
+    }
+
+    private int start(final byte[] target) {
+        return target == scratch ? 0 : buf.arrayOffset() + buf.position();
+    }
+
+    @Override public void write(final int b) {
+        buf.put((byte) b);
+    }
+
+    @Override public void write(final byte[] b) {
+        buf.put(b);
+    }
+
+    @Override public void write(final byte[] b, final int off, final int len) {
+        buf.put(b, off, len);
+    }
+
+    @Override public void writeBoolean(final boolean v) {
+        buf.put((byte) (v ? 1 : 0));
+    }
+
+    @Override public void writeByte(final int v) {
+        buf.put((byte) v);
+    }
+
+    @Override public void writeShort(final int v) {
+        buf.putShort((short) v);
+    }
+
+    @Override public void writeChar(final int v) {
+        buf.putChar((char) v);
+    }
+
+    @Override public void writeInt(final int v) {
+        buf.putInt(v);
+    }
+
+    @Override public void writeLong(final long v) {
+        buf.putLong(v);
+    }
+
+    @Override public void writeFloat(final float v) {
+        buf.putFloat(v);
+    }
+
+    @Override public void writeDouble(final double v) {
+        buf.putDouble(v);
+    }
+
+    @Override public void writeBytes(final String s) {
+        final int len = s.length();
+        if(buf.remaining() < len) throw new BufferOverflowException();
+        for(int ix = 0; ix < len; ix++) buf.put((byte) s.charAt(ix));
+    }
+
+    @Override public void writeChars(final String s) {
+        final int len = s.length();
+        if(buf.remaining() < len * 2) throw new BufferOverflowException();
+        for(int ix = 0; ix < len; ix++) buf.putChar(s.charAt(ix));
+    }
+
+    @Override public void writeUTF(final String s) throws IOException {
+        new DataOutputStream(new ByteBufferOutputStream()).writeUTF(s);
+    }
+
+    @Override public void writeVInt(final int value) {
+        writeVLong(value);
+    }
+
+    @Override public void writeVLong(final long value) {
+        if(value >= -112 && value <= 127) { // most common case, single byte
+            buf.put((byte) value);
+            return;
+        }
+        final byte[] target = target(WritableUtils.getVIntSize(value));
+        final int start = start(target);
+        commit(target, CompactCodec.encodeVLong(value, target, start) - start);
+    }
+
+    @Override public void writeText(final String value) {
+        final int len = CompactCodec.utf8Length(value);
+        writeVInt(len);
+        final byte[] target = target(len);
+        final int start = start(target);
+        commit(target, CompactCodec.encodeUtf8(value, target, start) - start);
+    }
+
+    /**
+     * Only for the rarely used {@link #writeUTF(String)}.
+     */
+    private class ByteBufferOutputStream extends java.io.OutputStream {
+        @Override public void write(final int b) {
+            buf.put((byte) b);
+        }
+
+        @Override public void write(final byte[] b, final int off, final int len) {
+            buf.put(b, off, len);
+        }
+    }
+}
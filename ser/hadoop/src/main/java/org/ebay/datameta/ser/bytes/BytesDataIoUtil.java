@@ -1,41 +1,82 @@
 package org.ebay.datameta.ser.bytes;
 
 import org.ebay.datameta.dom.DataMetaEntity;
-
-import com.google.common.io.ByteArrayDataOutput;
+import org.ebay.datameta.dom.ThrowingFunction;
 
 import java.io.DataInput;
 import java.io.IOException;
-
-import static com.google.common.io.ByteStreams.newDataInput;
-import static com.google.common.io.ByteStreams.newDataOutput;
+import java.nio.ByteBuffer;
 
 /**
- * Read/Write to/from byte arrays
+ * Read/Write to/from byte arrays and {@link ByteBuffer}s
  * @author Michael Bergens
  */
 public class BytesDataIoUtil {
 
     private BytesDataIoUtil() { }
 
-    private static final int DEFAULT_SIZE = 16 * 1024;
+    /**
+     * A writer that grew beyond this size while serializing a huge record is not kept for the thread,
+     * so that one outlier does not pin the memory for good.
+     */
+    private static final int MAX_RETAINED_SIZE = 1024 * 1024;
+
+    private static final ThreadLocal<BytesDataWriter> WRITER = ThreadLocal.withInitial(BytesDataWriter::new);
+
+    /**
+     * Borrows this thread's writer; if it is already taken, which only happens if an {@link InOutable} calls
+     * this class recursively, returns a fresh one.
+     */
+    private static BytesDataWriter borrowWriter() {
+        final BytesDataWriter writer = WRITER.get();
+        if(writer == null) return new BytesDataWriter();
+        WRITER.set(null);
+        return writer.reset();
+    }
+
+    private static void returnWriter(final BytesDataWriter writer) {
+        WRITER.set(writer.capacity() > MAX_RETAINED_SIZE ? new BytesDataWriter() : writer);
+    }
 
     public static <T extends DataMetaEntity> T read(byte[] bytes, InOutable<T> io) throws IOException {
-        return io.read(newDataInput(bytes));
+        return io.read(new ByteBufferDataInput(ByteBuffer.wrap(bytes)));
+    }
+
+    /**
+     * Reads straight out of the buffer, heap or direct, from its position; the position is advanced past the record.
+     */
+    public static <T extends DataMetaEntity> T read(ByteBuffer bytes, InOutable<T> io) throws IOException {
+        return io.read(new ByteBufferDataInput(bytes));
     }
 
+    /**
+     * Serializes into this thread's {@link BytesDataWriter} and returns the exact size copy.
+     * To skip the copy too, keep your own {@link BytesDataWriter} and use {@link BytesDataWriter#write(InOutable, DataMetaEntity)}.
+     */
     public static <T extends DataMetaEntity> byte[] write(InOutable<T> io, T value) throws IOException {
-        final ByteArrayDataOutput bo = newDataOutput(DEFAULT_SIZE);
-        io.write(bo, value);
-        return bo.toByteArray();
+        final BytesDataWriter writer = borrowWriter();
+        try {
+            io.write(writer, value);
+            return writer.toByteArray();
+        }
+        finally {
+            returnWriter(writer);
+        }
     }
 
     /**
      * Same as {@link #read(byte[], InOutable)}, but reads the version first and discards it.
      */
     public static <T extends DataMetaEntity> T readVersioned(byte[] bytes, InOutable<T> io) throws IOException {
-        final DataInput in = newDataInput(bytes);
-        InOutable.readVersion(in);
+        return readVersioned(ByteBuffer.wrap(bytes), io);
+    }
+
+    /**
+     * Same as {@link #read(ByteBuffer, InOutable)}, but reads the version first and discards it.
+     */
+    public static <T extends DataMetaEntity> T readVersioned(ByteBuffer bytes, InOutable<T> io) throws IOException {
+        final DataInput in = new ByteBufferDataInput(bytes);
+        InOutable.skipVersion(in);
         return io.read(in);
     }
 
@@ -43,9 +84,47 @@ public class BytesDataIoUtil {
      * Same as {@link #write(InOutable, DataMetaEntity)}, but writes the version first and discards it.
      */
     public static <T extends DataMetaEntity> byte[] writeVersioned(InOutable<T> io, T value) throws IOException {
-        final ByteArrayDataOutput bo = newDataOutput(DEFAULT_SIZE);
-        InOutable.writeVersion(bo, value.getVersion());
-        io.write(bo, value);
-        return bo.toByteArray();
+        final BytesDataWriter writer = borrowWriter();
+        try {
+            InOutable.writeVersion(writer, value.getVersion());
+            io.write(writer, value);
+            return writer.toByteArray();
+        }
+        finally {
+            returnWriter(writer);
+        }
+    }
+
+    /**
+     * Writes straight into the buffer, heap or direct, from its position; the position is advanced past the record.
+     * @throws java.nio.BufferOverflowException if the record does not fit.
+     */
+    public static <T extends DataMetaEntity> void write(ByteBuffer target, InOutable<T> io, T value) throws IOException {
+        io.write(new ByteBufferDataOutput(target), value);
+    }
+
+    /**
+     * Same as {@link #write(ByteBuffer, InOutable, DataMetaEntity)}, but writes the version first.
+     */
+    public static <T extends DataMetaEntity> void writeVersioned(ByteBuffer target, InOutable<T> io, T value) throws IOException {
+        final ByteBufferDataOutput out = new ByteBufferDataOutput(target);
+        InOutable.writeVersion(out, value.getVersion());
+        io.write(out, value);
+    }
+
+    /**
+     * The {@link #write(InOutable, DataMetaEntity)} as a function, for example for the
+     * {@link org.ebay.datameta.dom.BufferingDataTarget}.
+     */
+    public static <T extends DataMetaEntity> ThrowingFunction<T, byte[], IOException> encoder(final InOutable<T> io) {
+        return v -> write(io, v);
+    }
+
+    /**
+     * The {@link #writeVersioned(InOutable, DataMetaEntity)} as a function, for example for the
+     * {@link org.ebay.datameta.dom.BufferingDataTarget}.
+     */
+    public static <T extends DataMetaEntity> ThrowingFunction<T, byte[], IOException> versionedEncoder(final InOutable<T> io) {
+        return v -> writeVersioned(io, v);
     }
 }
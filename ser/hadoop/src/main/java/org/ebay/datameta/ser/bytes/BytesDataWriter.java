@@ -0,0 +1,230 @@
+package org.ebay.datameta.ser.bytes;
+
+import org.apache.hadoop.io.WritableUtils;
+import org.ebay.datameta.dom.DataMetaEntity;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Reusable {@link CompactDataOutput} over a growable byte array, same encoding as {@link java.io.DataOutputStream}.
+ * Serialize a record, hand out the {@link #slice()} without copying, {@link #reset()} and serialize the next one:
+ * the buffer grows to the biggest record seen and then stays, so there is no garbage per record.
+ * <p>Thread-confined: not thread-safe, keep an instance per thread, for example in a {@link ThreadLocal}.</p>
+ *
+ * @author Michael Bergens
+ */
+public class BytesDataWriter implements CompactDataOutput {
+
+    /**
+     * Initial capacity for the default constructor, good for most records.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private byte[] buf;
+    private int count;
+
+    public BytesDataWriter() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public BytesDataWriter(final int initialCapacity) {
+        if(initialCapacity < 0) throw new IllegalArgumentException("Negative initial capacity: " + initialCapacity);
+        buf = new byte[initialCapacity];
+    }
+
+    /**
+     * Discards the content, keeps the buffer for reuse.
+     */
+    public BytesDataWriter reset() {
+        count = 0;
+        return this;
+    }
+
+    /**
+     * Number of bytes written since the last {@link #reset()}.
+     */
+    public int size() { return count; }
+
+    /**
+     * Current capacity of the backing buffer.
+     */
+    public int capacity() { return buf.length; }
+
+    /**
+     * The backing array, valid from 0 to the {@link #size()} until the next write or {@link #reset()}.
+     * No copying.
+     */
+    public byte[] getBuffer() { return buf; }
+
+    /**
+     * Wraps the content written so far, no copying. The result is valid until the next write or
+     * {@link #reset()}.
+     */
+    public ByteBuffer slice() {
+        return ByteBuffer.wrap(buf, 0, count).slice();
+    }
+
+    /**
+     * Copy of the content written so far, exactly {@link #size()} bytes long.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, count);
+    }
+
+    /**
+     * Writes the content written so far to the given stream.
+     */
+    public void writeTo(final OutputStream out) throws IOException {
+        out.write(buf, 0, count);
+    }
+
+    /**
+     * Resets this writer and serializes the value into it.
+     * @return the serialized value, see {@link #slice()}.
+     */
+    public <T extends DataMetaEntity> ByteBuffer write(final InOutable<T> io, final T value) throws IOException {
+        reset();
+        io.write(this, value);
+        return slice();
+    }
+
+    /**
+     * Same as {@link #write(InOutable, DataMetaEntity)}, but writes the version first.
+     */
+    public <T extends DataMetaEntity> ByteBuffer writeVersioned(final InOutable<T> io, final T value) throws IOException {
+        reset();
+        InOutable.writeVersion(this, value.getVersion());
+        io.write(this, value);
+        return slice();
+    }
+
+    private void ensureCapacity(final int extra) {
+        final int required = count + extra;
+        if(required < 0) throw new OutOfMemoryError("Buffer size overflow: " + count + " + " + extra);
+        if(required > buf.length) {
+            final int doubled = buf.length << 1;
+            buf = Arrays.copyOf(buf, doubled < 0 || doubled < required ? required : doubled);
+        }
+    }
+
+    @Override public void write(final int b) {
+        ensureCapacity(1);
+        buf[count++] = (byte) b;
+    }
+
+    @Override public void write(final byte[] b) {
+        write(b, 0, b.length);
+    }
+
+    @Override public void write(final byte[] b, final int off, final int len) {
+        ensureCapacity(len);
+        System.arraycopy(b, off, buf, count, len);
+        count += len;
+    }
+
+    @Override public void writeBoolean(final boolean v) {
+        write(v ? 1 : 0);
+    }
+
+    @Override public void writeByte(final int v) {
+        write(v);
+    }
+
+    @Override public void writeShort(final int v) {
+        ensureCapacity(2);
+        buf[count++] = (byte) (v >>> 8);
+        buf[count++] = (byte) v;
+    }
+
+    @Override public void writeChar(final int v) {
+        writeShort(v);
+    }
+
+    @Override public void writeInt(final int v) {
+        ensureCapacity(4);
+        buf[count++] = (byte) (v >>> 24);
+        buf[count++] = (byte) (v >>> 16);
+        buf[count++] = (byte) (v >>> 8);
+        buf[count++] = (byte) v;
+    }
+
+    @Override public void writeLong(final long v) {
+        ensureCapacity(8);
+        for(int shift = 56; shift >= 0; shift -= 8) buf[count++] = (byte) (v >>> shift);
+    }
+
+    @Override public void writeFloat(final float v) {
+        writeInt(Float.floatToIntBits(v));
+    }
+
+    @Override public void writeDouble(final double v) {
+        writeLong(Double.doubleToLongBits(v));
+    }
+
+    @Override public void writeBytes(final String s) {
+        final int len = s.length();
+        ensureCapacity(len);
+        for(int ix = 0; ix < len; ix++) buf[count++] = (byte) s.charAt(ix);
+    }
+
+    @Override public void writeChars(final String s) {
+        final int len = s.length();
+        ensureCapacity(len * 2);
+        for(int ix = 0; ix < len; ix++) {
+            final char c = s.charAt(ix);
+            buf[count++] = (byte) (c >>> 8);
+            buf[count++] = (byte) c;
+        }
+    }
+
+    /**
+     * Modified UTF-8, same as {@link java.io.DataOutputStream#writeUTF(String)}.
+     */
+    @Override public void writeUTF(final String s) throws IOException {
+        final int len = s.length();
+        int utfLen = 0;
+        for(int ix = 0; ix < len; ix++) {
+            final char c = s.charAt(ix);
+            utfLen += c >= 0x0001 && c <= 0x007F ? 1 : c > 0x07FF ? 3 : 2;
+        }
+        if(utfLen > 0xFFFF) throw new UTFDataFormatException("Encoded string too long: " + utfLen + " bytes");
+        ensureCapacity(utfLen + 2);
+        buf[count++] = (byte) (utfLen >>> 8);
+        buf[count++] = (byte) utfLen;
+        for(int ix = 0; ix < len; ix++) {
+            final char c = s.charAt(ix);
+            if(c >= 0x0001 && c <= 0x007F) {
+                buf[count++] = (byte) c;
+            }
+            else if(c > 0x07FF) {
+                buf[count++] = (byte) (0xE0 | ((c >> 12) & 0x0F));
+                buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[count++] = (byte) (0x80 | (c & 0x3F));
+            }
+            else {
+                buf[count++] = (byte) (0xC0 | ((c >> 6) & 0x1F));
+                buf[count++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    @Override public void writeVInt(final int value) {
+        writeVLong(value);
+    }
+
+    @Override public void writeVLong(final long value) {
+        ensureCapacity(WritableUtils.getVIntSize(value));
+        count = CompactCodec.encodeVLong(value, buf, count);
+    }
+
+    @Override public void writeText(final String value) {
+        final int len = CompactCodec.utf8Length(value);
+        ensureCapacity(WritableUtils.getVIntSize(len) + len);
+        count = CompactCodec.encodeVLong(len, buf, count);
+        count = CompactCodec.encodeUtf8(value, buf, count);
+    }
+}
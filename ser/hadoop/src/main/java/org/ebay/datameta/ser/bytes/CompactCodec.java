@@ -0,0 +1,93 @@
+package org.ebay.datameta.ser.bytes;
+
+import org.apache.hadoop.io.WritableUtils;
+
+/**
+ * Array-level encoding of the compact formats for the {@link CompactDataOutput} implementations.
+ *
+ * @author Michael Bergens
+ */
+final class CompactCodec {
+
+    /**
+     * What the JDK UTF-8 encoder writes for an unpaired surrogate, as {@link org.apache.hadoop.io.Text} does too.
+     */
+    private static final byte REPLACEMENT = '?';
+
+    private CompactCodec() {}
+
+    /**
+     * Encodes per {@link WritableUtils#writeVLong(java.io.DataOutput, long)}.
+     * @return the position past the encoded value.
+     */
+    static int encodeVLong(long value, final byte[] target, int pos) {
+        if(value >= -112 && value <= 127) {
+            target[pos++] = (byte) value;
+            return pos;
+        }
+        int lenMarker = -112;
+        if(value < 0) {
+            value = ~value;
+            lenMarker = -120;
+        }
+        final int dataLen = (Long.SIZE - Long.numberOfLeadingZeros(value) + 7) >>> 3;
+        target[pos++] = (byte) (lenMarker - dataLen);
+        for(int shift = (dataLen - 1) << 3; shift >= 0; shift -= 8) target[pos++] = (byte) (value >>> shift);
+        return pos;
+    }
+
+    /**
+     * Length of the string in UTF-8, counting unpaired surrogates as one replacement byte.
+     */
+    static int utf8Length(final String s) {
+        final int len = s.length();
+        int result = len;
+        for(int ix = 0; ix < len; ix++) {
+            final char c = s.charAt(ix);
+            if(c < 0x80) continue;
+            if(c < 0x800) result++;
+            else if(Character.isHighSurrogate(c) && ix + 1 < len && Character.isLowSurrogate(s.charAt(ix + 1))) {
+                result += 2; // 2 chars into 4 bytes
+                ix++;
+            }
+            else if(!Character.isSurrogate(c)) result += 2;
+        }
+        return result;
+    }
+
+    /**
+     * Encodes the string into UTF-8, must have {@link #utf8Length(String)} bytes of room.
+     * @return the position past the encoded string.
+     */
+    static int encodeUtf8(final String s, final byte[] target, int pos) {
+        final int len = s.length();
+        for(int ix = 0; ix < len; ix++) {
+            final char c = s.charAt(ix);
+            if(c < 0x80) {
+                target[pos++] = (byte) c;
+            }
+            else if(c < 0x800) {
+                target[pos++] = (byte) (0xC0 | (c >> 6));
+                target[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+            else if(Character.isSurrogate(c)) {
+                if(Character.isHighSurrogate(c) && ix + 1 < len && Character.isLowSurrogate(s.charAt(ix + 1))) {
+                    final int cp = Character.toCodePoint(c, s.charAt(++ix));
+                    target[pos++] = (byte) (0xF0 | (cp >> 18));
+                    target[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    target[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    target[pos++] = (byte) (0x80 | (cp & 0x3F));
+                }
+                else {
+                    target[pos++] = REPLACEMENT;
+                }
+            }
+            else {
+                target[pos++] = (byte) (0xE0 | (c >> 12));
+                target[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                target[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return pos;
+    }
+}
@@ -0,0 +1,32 @@
+package org.ebay.datameta.ser.bytes;
+
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+/**
+ * {@link DataInput} with the fast paths for the compact encodings used across the DataMeta byte serializers:
+ * VInt/VLong same as {@link WritableUtils} and the strings same as {@link Text}. The byte formats are exactly the same,
+ * only the implementation can decode them in place instead of byte by byte via a virtual call each.
+ * {@link DataMetaHadoopUtil} uses these methods whenever the input implements this interface.
+ *
+ * @author Michael Bergens
+ */
+public interface CompactDataInput extends DataInput {
+    /**
+     * Same as {@link WritableUtils#readVInt(DataInput)}.
+     */
+    int readVInt() throws IOException;
+
+    /**
+     * Same as {@link WritableUtils#readVLong(DataInput)}.
+     */
+    long readVLong() throws IOException;
+
+    /**
+     * Same as {@link Text#readString(DataInput)}.
+     */
+    String readText() throws IOException;
+}
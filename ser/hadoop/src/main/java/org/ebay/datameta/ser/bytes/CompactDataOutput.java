@@ -0,0 +1,29 @@
+package org.ebay.datameta.ser.bytes;
+
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Pair to the {@link CompactDataInput}.
+ *
+ * @author Michael Bergens
+ */
+public interface CompactDataOutput extends DataOutput {
+    /**
+     * Same as {@link WritableUtils#writeVInt(DataOutput, int)}.
+     */
+    void writeVInt(int value) throws IOException;
+
+    /**
+     * Same as {@link WritableUtils#writeVLong(DataOutput, long)}.
+     */
+    void writeVLong(long value) throws IOException;
+
+    /**
+     * Same as {@link Text#writeString(DataOutput, String)}.
+     */
+    void writeText(String value) throws IOException;
+}
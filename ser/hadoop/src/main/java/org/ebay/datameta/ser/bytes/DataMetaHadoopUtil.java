@@ -4,6 +4,8 @@ import org.apache.hadoop.io.WritableUtils;
 import org.ebay.datameta.util.jdk.Api;
 import org.ebay.datameta.dom.BitSet;
 import org.ebay.datameta.dom.DataMetaEntity;
+import org.ebay.datameta.dom.IntHashSet;
+import org.ebay.datameta.dom.LongHashSet;
 import org.apache.hadoop.io.Text;
 
 import javax.annotation.Nonnull;
@@ -13,85 +15,73 @@ import java.io.DataOutput;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
+import java.util.PrimitiveIterator;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import static java.time.Instant.ofEpochMilli;
 import static java.time.ZoneOffset.UTC; // immutable, thread-safe
 import static java.time.ZonedDateTime.ofInstant;
-import static org.apache.hadoop.io.WritableUtils.readVInt;
-import static org.apache.hadoop.io.WritableUtils.readVLong;
-import static org.apache.hadoop.io.WritableUtils.writeVInt;
-import static org.apache.hadoop.io.WritableUtils.writeVLong;
 
 public class DataMetaHadoopUtil {
 
-    private final static Map<String, Integer> TZ_ID_TO_KEY;
-    private final static String[] KEY_TO_TZ_ID;
-
-    static private int registerPair(final String zoneId, final int zoneKey, final Map<String, Integer> tzIdToKeyMap
-        , final Map<Integer, String> keyToTzIdMap, int count) {
-        count++;
-        @SuppressWarnings("unused") final ZoneId tz = ZoneId.of(zoneId); // verify that the ID is still valid
-        tzIdToKeyMap.put(zoneId, zoneKey);
-        keyToTzIdMap.put(zoneKey, zoneId);
-        return count;
-    }
-
-    static {
-        int count = 0;
-        final int initialMapSize = 100;
-        final Map<String, Integer> tzIdToKey = new HashMap<>(initialMapSize);
-        final Map<Integer, String> keyToTzId = new HashMap<>(initialMapSize);
-        count = registerPair("Z", count, tzIdToKey, keyToTzId, count);
-        count = registerPair("UTC", count, tzIdToKey, keyToTzId, count);
-        count = registerPair("GMT", count, tzIdToKey, keyToTzId, count);
-        count = registerPair("America/New_York", count, tzIdToKey, keyToTzId, count);
-        count = registerPair("America/Chicago", count, tzIdToKey, keyToTzId, count);
-        count = registerPair("America/Denver", count, tzIdToKey, keyToTzId, count);
-        count = registerPair("America/Phoenix", count, tzIdToKey, keyToTzId, count);
-        count = registerPair("America/Los_Angeles", count, tzIdToKey, keyToTzId, count);
-        count = registerPair("America/Anchorage", count, tzIdToKey, keyToTzId, count);
-        count = registerPair("Pacific/Honolulu", count, tzIdToKey, keyToTzId, count);
-/*        count = registerPair("Asia/Kolkata", count, tzIdToKey, keyToTzId, count);
-        count = registerPair("Asia/Shanghai", count, tzIdToKey, keyToTzId, count);
-        count = registerPair("Europe/London", count, tzIdToKey, keyToTzId, count);
-        count = registerPair("Europe/Paris", count, tzIdToKey, keyToTzId, count);
-        count = registerPair("Europe/Berlin", count, tzIdToKey, keyToTzId, count);
-        count = registerPair("Europe/Istanbul", count, tzIdToKey, keyToTzId, count); */
-        KEY_TO_TZ_ID = new String[count];
-        for (int i = 0; i < count; i++) {
-            final String tzId = keyToTzId.get(i);
-            if(tzId != null) KEY_TO_TZ_ID[i] = tzId;
-        }
-        TZ_ID_TO_KEY = Collections.unmodifiableMap(tzIdToKey);
-    }
+    private final static TzDictionary TZD = TzDictionary.getInstance();
 
+    /**
+     * All the zones in the {@link TzDictionary}.
+     */
     @Api @Nonnull public static Set<String> getAllTzIds() {
-        return new HashSet<>(Arrays.asList(KEY_TO_TZ_ID));
+        return TZD.getAllTzIds();
     }
 
-    private static String getTzId(final int key) {
-        return KEY_TO_TZ_ID[key];
+    /**
+     * The time zone for the key written by the {@link #writeDttm(DataOutput, ZonedDateTime)}, no lookup.
+     * @throws IllegalArgumentException if the key is unknown.
+     * @see TzDictionary#getZoneId(int)
+     */
+    public static ZoneId getZoneId(final int key) {
+        return TZD.getZoneId(key);
     }
 
-    private static int getTzKey(final String tzId) {
-        final Integer key = TZ_ID_TO_KEY.get(tzId);
-        if(key == null) throw new UnsupportedOperationException("Time Zone ID not supported: " + tzId);
-        return key;
+    /**
+     * Same as {@link WritableUtils#readVInt(DataInput)}, with the fast path for the {@link CompactDataInput}.
+     */
+    public static int readVIntFast(final DataInput in) throws IOException {
+        return in instanceof CompactDataInput ? ((CompactDataInput) in).readVInt() : WritableUtils.readVInt(in);
     }
+
+    /**
+     * Same as {@link WritableUtils#readVLong(DataInput)}, with the fast path for the {@link CompactDataInput}.
+     */
+    public static long readVLongFast(final DataInput in) throws IOException {
+        return in instanceof CompactDataInput ? ((CompactDataInput) in).readVLong() : WritableUtils.readVLong(in);
+    }
+
+    /**
+     * Same as {@link WritableUtils#writeVInt(DataOutput, int)}, with the fast path for the {@link CompactDataOutput}.
+     */
+    public static void writeVIntFast(final DataOutput out, final int value) throws IOException {
+        if(out instanceof CompactDataOutput) ((CompactDataOutput) out).writeVInt(value);
+        else WritableUtils.writeVInt(out, value);
+    }
+
+    /**
+     * Same as {@link WritableUtils#writeVLong(DataOutput, long)}, with the fast path for the {@link CompactDataOutput}.
+     */
+    public static void writeVLongFast(final DataOutput out, final long value) throws IOException {
+        if(out instanceof CompactDataOutput) ((CompactDataOutput) out).writeVLong(value);
+        else WritableUtils.writeVLong(out, value);
+    }
+
     /**
      * Safe set on the target: if the source is null, sets to an empty string, otherwise to the source.
      * @param target on which instance to set the text.
@@ -105,43 +95,78 @@ public class DataMetaHadoopUtil {
      * Pair to {@link #readText(DataInput)}, writes either the argument, or an empty string if null.
      */
     public static void writeTextIfAny(final DataOutput out, @Nullable final String source) throws IOException {
-        Text.writeString(out, source == null ? "" : source);
+        if(out instanceof CompactDataOutput) ((CompactDataOutput) out).writeText(source == null ? "" : source);
+        else Text.writeString(out, source == null ? "" : source);
     }
 
     /**
      * Simple pair to {@link #writeTextIfAny(DataOutput, String)}, simple wrapper around {@link Text#readString(DataInput)}.
      */
     public static String readText(final DataInput in) throws IOException {
-        return Text.readString(in);
+        return in instanceof CompactDataInput ? ((CompactDataInput) in).readText() : Text.readString(in);
     }
 
     public static void writeDttm(final DataOutput out, final ZonedDateTime dttm) throws IOException {
         // Text.writeString writes more compact string than WritableUtils.writeString, it uses VInt instead of VInt for length
         // for short strings such as Time Zone Id, that's marginally better (why waste even 3 bytes)
-        writeVInt(out, getTzKey(dttm.getZone().getId()));
-        writeVLong(out, dttm.toInstant().toEpochMilli()); // for 2012, the millis already occcupy 6 bytes out of 8 in a long
+        TZD.write(out, dttm.getZone());
+        writeVLongFast(out, dttm.toInstant().toEpochMilli()); // for 2012, the millis already occcupy 6 bytes out of 8 in a long
         // but this occupation will last for another 7K years; for 7K years we'd be saving 1 byte per datetime instance
         // by using VLong. After that, we'd be using all 8 bytes for another 2M years.
         // so it makes no sense bothering with VLong format, adding 1 byte for length (total 7 vs 8)
         // Java millis format overflow in some 292 million years.
     }
     public static ZonedDateTime readDttm(final DataInput in) throws IOException {
-        final String timeZoneId = getTzId(readVInt(in));
-        final long millis = readVLong(in);
-        final ZoneId tz = ZoneId.of(timeZoneId);
+        final ZoneId tz = TZD.read(in);
+        final long millis = readVLongFast(in);
         return ofInstant(ofEpochMilli(millis), tz);
     }
 
+    /**
+     * Reads what the {@link #writeDttm(DataOutput, ZonedDateTime)} wrote into the reusable holder, no allocation.
+     */
+    public static DttmParts readDttm(final DataInput in, final DttmParts target) throws IOException {
+        final int zoneKey = readVIntFast(in);
+        final ZoneId zone = zoneKey == TzDictionary.ID_KEY ? TZD.fromKey(zoneKey, in) : null;
+        return target.set(readVLongFast(in), zoneKey, zone);
+    }
+
+    /**
+     * Reads what the {@link #writeDttm(DataOutput, ZonedDateTime)} wrote, skipping the time zone: only the epoch
+     * millis, for comparing and bucketing.
+     */
+    public static long readDttmMillis(final DataInput in) throws IOException {
+        if(readVIntFast(in) == TzDictionary.ID_KEY) WritableUtils.skipFully(in, readVIntFast(in));
+        return readVLongFast(in);
+    }
+
+    /**
+     * Same as {@link #readDttmMillis(DataInput)} as an {@link Instant}.
+     */
+    public static Instant readDttmInstant(final DataInput in) throws IOException {
+        return ofEpochMilli(readDttmMillis(in));
+    }
+
+    /**
+     * Same format as {@link #readListZonedDateTime(DataInput)}, only the epoch millis.
+     */
+    public static long[] readListDttmMillis(final DataInput in) throws IOException {
+        final int size = readVIntFast(in);
+        final long[] result = new long[size];
+        for(int i = 0; i < size; i++) result[i] = readDttmMillis(in);
+        return result;
+    }
+
     /**
      * Saving with UTC saves one byte of a time zone and relieves the headache of maintaining one.
      * Since all the dates are UTC and there is no TZ key, it makes easy to sort them.
      */
     public static void writeDttmUtc(final DataOutput out, final ZonedDateTime dttm) throws IOException {
-        writeVLong(out, dttm.withZoneSameLocal(UTC).toInstant().toEpochMilli());
+        writeVLongFast(out, dttm.withZoneSameLocal(UTC).toInstant().toEpochMilli());
     }
 
     @Nonnull public static ZonedDateTime readDttmUtc(final DataInput in) throws IOException {
-        return ofInstant(ofEpochMilli(readVLong(in)), UTC);
+        return ofInstant(ofEpochMilli(readVLongFast(in)), UTC);
     }
 
     /**
@@ -150,9 +175,9 @@ public class DataMetaHadoopUtil {
     public static void writeBigDecimalBin(final DataOutput out, final BigDecimal bigDecimal) throws IOException {
         final BigInteger bi = bigDecimal.unscaledValue();
         final int scale = bigDecimal.scale();
-        writeVInt(out, scale);
+        writeVIntFast(out, scale);
         final byte[] bigIntImage = bi.toByteArray();
-        writeVInt(out, bigIntImage.length);
+        writeVIntFast(out, bigIntImage.length);
         out.write(bigIntImage);
     }
 
@@ -160,8 +185,8 @@ public class DataMetaHadoopUtil {
      * Uses the binary format -- likely to be incompatible cross-platform, use with caution if ever.
      */
     public static BigDecimal readBigDecimalBin(final DataInput in) throws IOException {
-        final int scale = readVInt(in);
-        final int len = readVInt(in);
+        final int scale = readVIntFast(in);
+        final int len = readVIntFast(in);
         final byte[] bigIntImage = new byte[len];
         in.readFully(bigIntImage);
         final BigInteger bi = new BigInteger(bigIntImage);
@@ -188,7 +213,7 @@ public class DataMetaHadoopUtil {
      * @see #readByteArray(DataInput)
      */
     public static void writeByteArray(final DataOutput out, final byte[] bytes) throws IOException {
-        writeVInt(out, bytes.length);
+        writeVIntFast(out, bytes.length);
         if(bytes.length > 0) out.write(bytes);
     }
 
@@ -196,7 +221,7 @@ public class DataMetaHadoopUtil {
      * Pair to {@link #writeByteArray(DataOutput, byte[])}.
      */
     public static byte[] readByteArray(final DataInput in) throws IOException {
-        final int len = readVInt(in);
+        final int len = readVIntFast(in);
         if(len < 1) return new byte[0];
         final byte[] result = new byte[len];
         in.readFully(result);
@@ -204,17 +229,17 @@ public class DataMetaHadoopUtil {
     }
 
     public static void writeLongArray(final DataOutput out, final long[] array) throws IOException {
-        writeVInt(out, array.length);
+        writeVIntFast(out, array.length);
         if(array.length > 0) {//noinspection ForLoopReplaceableByForEach
-            for (int ix = 0; ix < array.length; ix++) writeVLong(out, array[ix]);
+            for (int ix = 0; ix < array.length; ix++) writeVLongFast(out, array[ix]);
         }
     }
 
     public static long[] readLongArray(final DataInput in) throws IOException {
-        final int len = readVInt(in);
+        final int len = readVIntFast(in);
         if(len < 1) return new long[0];
         final long[] result = new long[len];
-        for (int ix = 0; ix < len; ix++) result[ix] = readVLong(in);
+        for (int ix = 0; ix < len; ix++) result[ix] = readVLongFast(in);
         return result;
     }
 
@@ -226,7 +251,7 @@ public class DataMetaHadoopUtil {
         if(val != null) { /* if it is null, then the nullFlags had been set, don't need to do anything
                scalar implementation goes like this:
                if(val.getEmbo() != null) Embodiment_InOutable.getInstance().write(out, val.getEmbo()); */
-           writeVInt(out, val.size());
+           writeVIntFast(out, val.size());
            for(final T e: val)  {
               io.write(out, e);
            }
@@ -235,11 +260,11 @@ public class DataMetaHadoopUtil {
 
     // Lists
     public static <T extends Enum> List<T> readListEnum(final DataInput in, final Class<T> targetClass) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final List<T> result = new ArrayList<>(size);
         final T[] enumVals = targetClass.getEnumConstants();
         for(int i = 0; i < size; i++) {
-            result.add(enumVals[readVInt(in)]);
+            result.add(enumVals[readVIntFast(in)]);
         }
         /*
         could use this snippet below (DataMetaEnum would be an Enum class generated for a DataMeta model)
@@ -250,7 +275,7 @@ public class DataMetaHadoopUtil {
     }
 
     public static <T extends DataMetaEntity> List<T> readList(final DataInput in, final InOutable<T> io) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final List<T> result = new ArrayList<>(size);
         for(int i = 0; i < size; i++) {
             result.add(io.read(in));
@@ -259,7 +284,7 @@ public class DataMetaHadoopUtil {
     }
 
     public static <T extends DataMetaEntity> Set<T> readSet(final DataInput in, final InOutable<T> io) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final Set<T> result = new HashSet<>(size * 3 /4 + 1);
         for(int i = 0; i < size; i++) {
             result.add(io.read(in));
@@ -268,7 +293,7 @@ public class DataMetaHadoopUtil {
     }
 
     public static <T extends DataMetaEntity> Deque<T> readDeque(final DataInput in, final InOutable<T> io) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final Deque<T> result = new LinkedList<>();
         for(int i = 0; i < size; i++) {
             result.add(io.read(in));
@@ -277,23 +302,23 @@ public class DataMetaHadoopUtil {
     }
     
     public static List<Integer> readListInteger(final DataInput in) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final List<Integer> result = new ArrayList<>(size);
         for(int i = 0; i < size; i++) {
-            result.add(readVInt(in));
+            result.add(readVIntFast(in));
         }
         return result;
     }
     public static List<Long> readListLong(final DataInput in) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final List<Long> result = new ArrayList<>(size);
         for(int i = 0; i < size; i++) {
-            result.add(readVLong(in));
+            result.add(readVLongFast(in));
         }
         return result;
     }
     public static List<Float> readListFloat(final DataInput in) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final List<Float> result = new ArrayList<>(size);
         for(int i = 0; i < size; i++) {
             result.add(in.readFloat());
@@ -301,7 +326,7 @@ public class DataMetaHadoopUtil {
         return result;
     }
     public static List<Double> readListDouble(final DataInput in) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final List<Double> result = new ArrayList<>(size);
         for(int i = 0; i < size; i++) {
             result.add(in.readDouble());
@@ -310,7 +335,7 @@ public class DataMetaHadoopUtil {
     }
 
     public static List<String> readListString(final DataInput in) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final List<String> result = new ArrayList<>(size);
         for(int i = 0; i < size; i++) {
             result.add(readText(in));
@@ -319,7 +344,7 @@ public class DataMetaHadoopUtil {
     }
 
     public static List<ZonedDateTime> readListZonedDateTime(final DataInput in) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final List<ZonedDateTime> result = new ArrayList<>(size);
         for(int i = 0; i < size; i++) {
             result.add(readDttm(in));
@@ -328,7 +353,7 @@ public class DataMetaHadoopUtil {
     }
     
     public static List<BigDecimal> readListBigDecimal(final DataInput in) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final List<BigDecimal> result = new ArrayList<>(size);
         for(int i = 0; i < size; i++) {
             result.add(readBigDecimal(in));
@@ -338,33 +363,33 @@ public class DataMetaHadoopUtil {
 
     public static <T extends Enum> void writeListEnum(final DataOutput out, Set<T> vals) throws IOException {
         if (vals != null) {
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for (final T v : vals) {
-                writeVInt(out, v.ordinal());
+                writeVIntFast(out, v.ordinal());
             }
         }
     }
 
     public static void writeListInteger(final DataOutput out, List<Integer> vals) throws IOException {
         if(vals != null) { 
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for(final Integer e: vals)  {
-                writeVInt(out, e);
+                writeVIntFast(out, e);
             }
         }
     }
 
     public static void writeListLong(final DataOutput out, List<Long> vals) throws IOException {
         if(vals != null) {
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for(final Long e: vals)  {
-                writeVLong(out, e);
+                writeVLongFast(out, e);
             }
         }
     }
     public static void writeListFloat(final DataOutput out, List<Float> vals) throws IOException {
         if(vals != null) {
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for(final Float e: vals)  {
                 out.writeFloat(e);
             }
@@ -372,7 +397,7 @@ public class DataMetaHadoopUtil {
     }
     public static void writeListDouble(final DataOutput out, List<Double> vals) throws IOException {
         if(vals != null) {
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for(final Double e: vals)  {
                 out.writeDouble(e);
             }
@@ -381,7 +406,7 @@ public class DataMetaHadoopUtil {
 
     public static void writeListString(final DataOutput out, List<String> vals) throws IOException {
         if(vals != null) {
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for(final String e: vals)  {
                 writeTextIfAny(out, e);
             }
@@ -389,7 +414,7 @@ public class DataMetaHadoopUtil {
     }
     public static void writeListZonedDateTime(final DataOutput out, List<ZonedDateTime> vals) throws IOException {
         if(vals != null) {
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for(final ZonedDateTime e: vals)  {
                 writeDttm(out, e);
             }
@@ -397,7 +422,7 @@ public class DataMetaHadoopUtil {
     }
     public static void writeListBigDecimal(final DataOutput out, List<BigDecimal> vals) throws IOException {
         if(vals != null) {
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for(final BigDecimal e: vals)  {
                 writeBigDecimal(out, e);
             }
@@ -406,11 +431,11 @@ public class DataMetaHadoopUtil {
 
     // Deques
     public static <T extends Enum> LinkedList<T> readLinkedListEnum(final DataInput in, final Class<T> targetClass) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final LinkedList<T> result = new LinkedList<>();
         final T[] enumVals = targetClass.getEnumConstants();
         for(int i = 0; i < size; i++) {
-            result.add(enumVals[readVInt(in)]);
+            result.add(enumVals[readVIntFast(in)]);
         }
         /*
         could use this snippet below (DataMetaEnum would be an Enum class generated for a DataMeta model)
@@ -421,23 +446,23 @@ public class DataMetaHadoopUtil {
     }
 
     public static LinkedList<Integer> readLinkedListInteger(final DataInput in) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final LinkedList<Integer> result = new LinkedList<>();
         for(int i = 0; i < size; i++) {
-            result.add(readVInt(in));
+            result.add(readVIntFast(in));
         }
         return result;
     }
     public static LinkedList<Long> readLinkedListLong(final DataInput in) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final LinkedList<Long> result = new LinkedList<>();
         for(int i = 0; i < size; i++) {
-            result.add(readVLong(in));
+            result.add(readVLongFast(in));
         }
         return result;
     }
     public static LinkedList<Float> readLinkedListFloat(final DataInput in) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final LinkedList<Float> result = new LinkedList<>();
         for(int i = 0; i < size; i++) {
             result.add(in.readFloat());
@@ -445,7 +470,7 @@ public class DataMetaHadoopUtil {
         return result;
     }
     public static LinkedList<Double> readLinkedListDouble(final DataInput in) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final LinkedList<Double> result = new LinkedList<>();
         for(int i = 0; i < size; i++) {
             result.add(in.readDouble());
@@ -454,7 +479,7 @@ public class DataMetaHadoopUtil {
     }
 
     public static LinkedList<ZonedDateTime> readLinkedListZonedDateTime(final DataInput in) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final LinkedList<ZonedDateTime> result = new LinkedList<>();
         for(int i = 0; i < size; i++) {
             result.add(readDttm(in));
@@ -463,7 +488,7 @@ public class DataMetaHadoopUtil {
     }
 
     public static LinkedList<BigDecimal> readLinkedListBigDecimal(final DataInput in) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final LinkedList<BigDecimal> result = new LinkedList<>();
         for(int i = 0; i < size; i++) {
             result.add(readBigDecimal(in));
@@ -473,32 +498,32 @@ public class DataMetaHadoopUtil {
 
     public static <T extends Enum> void writeLinkedListEnum(final DataOutput out, LinkedList<T> vals) throws IOException {
         if (vals != null) {
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for (final T v : vals) {
-                writeVInt(out, v.ordinal());
+                writeVIntFast(out, v.ordinal());
             }
         }
     }
 
     public static void writeLinkedListInteger(final DataOutput out, LinkedList<Integer> vals) throws IOException {
         if(vals != null) {
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for(final Integer e: vals)  {
-                writeVInt(out, e);
+                writeVIntFast(out, e);
             }
         }
     }
     public static void writeLinkedListLong(final DataOutput out, LinkedList<Long> vals) throws IOException {
         if(vals != null) {
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for(final Long e: vals)  {
-                writeVLong(out, e);
+                writeVLongFast(out, e);
             }
         }
     }
     public static void writeLinkedListFloat(final DataOutput out, LinkedList<Float> vals) throws IOException {
         if(vals != null) {
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for(final Float e: vals)  {
                 out.writeFloat(e);
             }
@@ -506,7 +531,7 @@ public class DataMetaHadoopUtil {
     }
     public static void writeLinkedListDouble(final DataOutput out, LinkedList<Double> vals) throws IOException {
         if(vals != null) {
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for(final Double e: vals)  {
                 out.writeDouble(e);
             }
@@ -514,7 +539,7 @@ public class DataMetaHadoopUtil {
     }
     public static void writeLinkedListZonedDateTime(final DataOutput out, LinkedList<ZonedDateTime> vals) throws IOException {
         if(vals != null) {
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for(final ZonedDateTime e: vals)  {
                 writeDttm(out, e);
             }
@@ -522,7 +547,7 @@ public class DataMetaHadoopUtil {
     }
     public static void writeLinkedListBigDecimal(final DataOutput out, LinkedList<BigDecimal> vals) throws IOException {
         if(vals != null) {
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for(final BigDecimal e: vals)  {
                 writeBigDecimal(out, e);
             }
@@ -531,35 +556,35 @@ public class DataMetaHadoopUtil {
     
     // Sets
     public static <T extends Enum<T>> Set<T> readSetEnum(final DataInput io, final Class<T> targetClass) throws IOException {
-     final int size = readVInt(io);
+     final int size = readVIntFast(io);
      final Set<T> result = new HashSet<>(size * 3 /4 +1);
         final T[] es = targetClass.getEnumConstants();
 
         for(int i = 0; i < size; i++) {
-            result.add(es[readVInt(io)]);
+            result.add(es[readVIntFast(io)]);
         }
      return result;
    }
 
     public static Set<Integer> readSetInteger(final DataInput in) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final Set<Integer> result = new HashSet<>(size * 3 /4 +1);
         for(int i = 0; i < size; i++) {
-            result.add(readVInt(in));
+            result.add(readVIntFast(in));
         }
         return result;
     }
     public static Set<Long> readSetLong(final DataInput in) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final Set<Long> result = new HashSet<>(size * 3 /4 +1);
         for(int i = 0; i < size; i++) {
-            result.add(readVLong(in));
+            result.add(readVLongFast(in));
         }
         return result;
     }
 
     public static Set<Float> readSetFloat(final DataInput in) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final Set<Float> result = new HashSet<>(size * 3 /4 +1);
         for(int i = 0; i < size; i++) {
             result.add(in.readFloat());
@@ -568,7 +593,7 @@ public class DataMetaHadoopUtil {
     }
 
     public static Set<Double> readSetDouble(final DataInput in) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final Set<Double> result = new HashSet<>(size * 3 /4 +1);
         for(int i = 0; i < size; i++) {
             result.add(in.readDouble());
@@ -577,7 +602,7 @@ public class DataMetaHadoopUtil {
     }
 
     public static Set<ZonedDateTime> readSetZonedDateTime(final DataInput in) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final Set<ZonedDateTime> result = new HashSet<>(size * 3 /4 +1);
         for(int i = 0; i < size; i++) {
             result.add(readDttm(in));
@@ -586,7 +611,7 @@ public class DataMetaHadoopUtil {
     }
 
     public static Set<BigDecimal> readSetBigDecimal(final DataInput in) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final Set<BigDecimal> result = new HashSet<>(size * 3 /4 +1);
         for(int i = 0; i < size; i++) {
             result.add(readBigDecimal(in));
@@ -595,7 +620,7 @@ public class DataMetaHadoopUtil {
     }
 
     public static Set<String> readSetString(final DataInput in) throws IOException {
-        final int size = readVInt(in);
+        final int size = readVIntFast(in);
         final Set<String> result = new HashSet<>(size * 3 /4 +1);
         for(int i = 0; i < size; i++) {
             result.add(readText(in));
@@ -605,25 +630,25 @@ public class DataMetaHadoopUtil {
 
     public static <T extends Enum> void writeSetEnum(final DataOutput out, Set<T> vals) throws IOException {
         if (vals != null) {
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for (final T v : vals) {
-                writeVInt(out, v.ordinal());
+                writeVIntFast(out, v.ordinal());
             }
         }
     }
 
     public static void writeSetInteger(final DataOutput out, Set<Integer> vals) throws IOException {
         if(vals != null) {
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for(final Integer e: vals)  {
-                writeVInt(out, e);
+                writeVIntFast(out, e);
             }
         }
     }
 
     public static void writeSetString(final DataOutput out, Set<String> vals) throws IOException {
         if(vals != null) {
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for(final String e: vals)  {
                 writeTextIfAny(out, e);
             }
@@ -632,16 +657,16 @@ public class DataMetaHadoopUtil {
 
     public static void writeSetLong(final DataOutput out, Set<Long> vals) throws IOException {
         if(vals != null) {
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for(final Long e: vals)  {
-                writeVLong(out, e);
+                writeVLongFast(out, e);
             }
         }
     }
 
     public static void writeSetFloat(final DataOutput out, Set<Float> vals) throws IOException {
         if(vals != null) {
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for(final Float e: vals)  {
                 out.writeFloat(e);
             }
@@ -649,7 +674,7 @@ public class DataMetaHadoopUtil {
     }
     public static void writeSetDouble(final DataOutput out, Set<Double> vals) throws IOException {
         if(vals != null) {
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for(final Double e: vals)  {
                 out.writeDouble(e);
             }
@@ -657,7 +682,7 @@ public class DataMetaHadoopUtil {
     }
     public static void writeSetZonedDateTime(final DataOutput out, Set<ZonedDateTime> vals) throws IOException {
         if(vals != null) {
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for(final ZonedDateTime e: vals)  {
                 writeDttm(out, e);
             }
@@ -666,10 +691,139 @@ public class DataMetaHadoopUtil {
 
     public static void writeSetBigDecimal(final DataOutput out, Set<BigDecimal> vals) throws IOException {
         if(vals != null) {
-            writeVInt(out, vals.size());
+            writeVIntFast(out, vals.size());
             for(final BigDecimal e: vals)  {
                 writeBigDecimal(out, e);
             }
         }
     }
+
+    // ************* Primitives, no boxing: same wire format as the List/Set of the boxed type, so these can read
+    // what those wrote and the other way around. The generated InOutables pick these with the "Prim" suffix.
+
+    /**
+     * Same format as {@link #readListInteger(DataInput)} and {@link #readSetInteger(DataInput)}, into an array.
+     */
+    public static int[] readListIntegerPrim(final DataInput in) throws IOException {
+        final int size = readVIntFast(in);
+        final int[] result = new int[size];
+        if(in instanceof CompactDataInput) {
+            final CompactDataInput fast = (CompactDataInput) in;
+            for(int i = 0; i < size; i++) result[i] = fast.readVInt();
+        }
+        else {
+            for(int i = 0; i < size; i++) result[i] = WritableUtils.readVInt(in);
+        }
+        return result;
+    }
+
+    /**
+     * Same format as {@link #readListLong(DataInput)} and {@link #readSetLong(DataInput)}, into an array.
+     */
+    public static long[] readListLongPrim(final DataInput in) throws IOException {
+        final int size = readVIntFast(in);
+        final long[] result = new long[size];
+        if(in instanceof CompactDataInput) {
+            final CompactDataInput fast = (CompactDataInput) in;
+            for(int i = 0; i < size; i++) result[i] = fast.readVLong();
+        }
+        else {
+            for(int i = 0; i < size; i++) result[i] = WritableUtils.readVLong(in);
+        }
+        return result;
+    }
+
+    /**
+     * Same format as {@link #readListFloat(DataInput)} and {@link #readSetFloat(DataInput)}, into an array.
+     */
+    public static float[] readListFloatPrim(final DataInput in) throws IOException {
+        final int size = readVIntFast(in);
+        final float[] result = new float[size];
+        for(int i = 0; i < size; i++) result[i] = in.readFloat();
+        return result;
+    }
+
+    /**
+     * Same format as {@link #readListDouble(DataInput)} and {@link #readSetDouble(DataInput)}, into an array.
+     */
+    public static double[] readListDoublePrim(final DataInput in) throws IOException {
+        final int size = readVIntFast(in);
+        final double[] result = new double[size];
+        for(int i = 0; i < size; i++) result[i] = in.readDouble();
+        return result;
+    }
+
+    public static void writeListIntegerPrim(final DataOutput out, final int[] vals) throws IOException {
+        if(vals != null) {
+            writeVIntFast(out, vals.length);
+            if(out instanceof CompactDataOutput) {
+                final CompactDataOutput fast = (CompactDataOutput) out;
+                for(final int e: vals) fast.writeVInt(e);
+            }
+            else {
+                for(final int e: vals) WritableUtils.writeVInt(out, e);
+            }
+        }
+    }
+
+    public static void writeListLongPrim(final DataOutput out, final long[] vals) throws IOException {
+        if(vals != null) {
+            writeVIntFast(out, vals.length);
+            if(out instanceof CompactDataOutput) {
+                final CompactDataOutput fast = (CompactDataOutput) out;
+                for(final long e: vals) fast.writeVLong(e);
+            }
+            else {
+                for(final long e: vals) WritableUtils.writeVLong(out, e);
+            }
+        }
+    }
+
+    public static void writeListFloatPrim(final DataOutput out, final float[] vals) throws IOException {
+        if(vals != null) {
+            writeVIntFast(out, vals.length);
+            for(final float e: vals) out.writeFloat(e);
+        }
+    }
+
+    public static void writeListDoublePrim(final DataOutput out, final double[] vals) throws IOException {
+        if(vals != null) {
+            writeVIntFast(out, vals.length);
+            for(final double e: vals) out.writeDouble(e);
+        }
+    }
+
+    /**
+     * Same format as {@link #readSetInteger(DataInput)}, into the primitive set.
+     */
+    public static IntHashSet readSetIntegerPrim(final DataInput in) throws IOException {
+        final int size = readVIntFast(in);
+        final IntHashSet result = new IntHashSet(size);
+        for(int i = 0; i < size; i++) result.add(readVIntFast(in));
+        return result;
+    }
+
+    /**
+     * Same format as {@link #readSetLong(DataInput)}, into the primitive set.
+     */
+    public static LongHashSet readSetLongPrim(final DataInput in) throws IOException {
+        final int size = readVIntFast(in);
+        final LongHashSet result = new LongHashSet(size);
+        for(int i = 0; i < size; i++) result.add(readVLongFast(in));
+        return result;
+    }
+
+    public static void writeSetIntegerPrim(final DataOutput out, final IntHashSet vals) throws IOException {
+        if(vals != null) {
+            writeVIntFast(out, vals.size());
+            for(final PrimitiveIterator.OfInt it = vals.iterator(); it.hasNext();) writeVIntFast(out, it.nextInt());
+        }
+    }
+
+    public static void writeSetLongPrim(final DataOutput out, final LongHashSet vals) throws IOException {
+        if(vals != null) {
+            writeVIntFast(out, vals.size());
+            for(final PrimitiveIterator.OfLong it = vals.iterator(); it.hasNext();) writeVLongFast(out, it.nextLong());
+        }
+    }
 }
@@ -0,0 +1,151 @@
+package org.ebay.datameta.ser.bytes;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.CommonConfigurationKeys;
+import org.apache.hadoop.io.serializer.Deserializer;
+import org.apache.hadoop.io.serializer.Serialization;
+import org.apache.hadoop.io.serializer.Serializer;
+import org.apache.hadoop.io.serializer.WritableSerialization;
+import org.ebay.datameta.dom.DataMetaEntity;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hadoop {@link Serialization} for the DataMeta entities: with it, the POJOs go as the MapReduce keys and values
+ * and into the SequenceFiles as they are, serialized by their {@link InOutable}s, without the {@link HdfsReadWrite}
+ * or the {@link InOutableWritable} around them.
+ * <p>Turn it on with the {@link #addTo(Configuration)}, which appends it to the <tt>io.serializations</tt>.</p>
+ * <p>The {@link InOutable} for the class is the generated one, the class named as the entity with the
+ * <tt>_InOutable</tt> suffix, its static <tt>getInstance()</tt> looked up once per class and cached; or register
+ * your own with the {@link #register(Class, InOutable)}. The deserializer reads into the record passed to it,
+ * so the framework reusing the key and the value instances does not make a record per input.</p>
+ * <p>The entity keys are not <tt>WritableComparable</tt>, so set the sort comparator, for example
+ * the {@link InOutableRawComparator} configured with the key fields.</p>
+ *
+ * @author Michael Bergens
+ */
+public class DataMetaSerialization implements Serialization<DataMetaEntity> {
+
+    /**
+     * The suffix of the generated {@link InOutable}'s class name.
+     */
+    public static final String IN_OUTABLE_SUFFIX = "_InOutable";
+
+    private static final Map<Class<?>, InOutable<?>> IN_OUTABLES = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the {@link InOutable} for the class, instead of the generated one.
+     */
+    public static <T extends DataMetaEntity> void register(final Class<T> dataClass, final InOutable<T> io) {
+        IN_OUTABLES.put(dataClass, io);
+    }
+
+    /**
+     * Appends this serialization to the <tt>io.serializations</tt> of the configuration, unless it is there already.
+     */
+    public static Configuration addTo(final Configuration conf) {
+        final Set<String> names = new LinkedHashSet<>(Arrays.asList(conf.getStrings(
+            CommonConfigurationKeys.IO_SERIALIZATIONS_KEY, WritableSerialization.class.getName())));
+        if(names.add(DataMetaSerialization.class.getName()))
+            conf.setStrings(CommonConfigurationKeys.IO_SERIALIZATIONS_KEY, names.toArray(new String[names.size()]));
+        return conf;
+    }
+
+    /**
+     * The {@link InOutable} for the class, registered or generated.
+     * @return null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends DataMetaEntity> InOutable<T> getInOutable(final Class<T> dataClass) {
+        return (InOutable<T>) IN_OUTABLES.computeIfAbsent(dataClass, DataMetaSerialization::lookup);
+    }
+
+    private static InOutable<?> lookup(final Class<?> dataClass) {
+        try {
+            final Class<?> ioClass = Class.forName(dataClass.getName() + IN_OUTABLE_SUFFIX, true,
+                dataClass.getClassLoader());
+            if(!InOutable.class.isAssignableFrom(ioClass)) return null;
+            return (InOutable<?>) ioClass.getMethod("getInstance").invoke(null);
+        }
+        catch(ClassNotFoundException | NoSuchMethodException x) {
+            return null;
+        }
+        catch(IllegalAccessException | InvocationTargetException x) {
+            throw new IllegalStateException("Could not get the InOutable for " + dataClass.getName(), x);
+        }
+    }
+
+    private static <T extends DataMetaEntity> InOutable<T> inOutable(final Class<T> dataClass) {
+        final InOutable<T> result = getInOutable(dataClass);
+        if(result == null) throw new IllegalArgumentException("No InOutable for " + dataClass.getName());
+        return result;
+    }
+
+    @Override public boolean accept(final Class<?> c) {
+        return DataMetaEntity.class.isAssignableFrom(c)
+            && IN_OUTABLES.computeIfAbsent(c, DataMetaSerialization::lookup) != null;
+    }
+
+    @Override public Serializer<DataMetaEntity> getSerializer(final Class<DataMetaEntity> c) {
+        return new EntitySerializer<>(inOutable(c));
+    }
+
+    @Override public Deserializer<DataMetaEntity> getDeserializer(final Class<DataMetaEntity> c) {
+        return new EntityDeserializer<>(inOutable(c));
+    }
+
+    private static class EntitySerializer<T extends DataMetaEntity> implements Serializer<T> {
+        private final InOutable<T> io;
+        private DataOutputStream out;
+
+        private EntitySerializer(final InOutable<T> io) {
+            this.io = io;
+        }
+
+        @Override public void open(final OutputStream out) {
+            this.out = out instanceof DataOutputStream ? (DataOutputStream) out : new DataOutputStream(out);
+        }
+
+        @Override public void serialize(final T t) throws IOException {
+            io.write(out, t);
+        }
+
+        @Override public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private static class EntityDeserializer<T extends DataMetaEntity> implements Deserializer<T> {
+        private final InOutable<T> io;
+        private DataInputStream in;
+
+        private EntityDeserializer(final InOutable<T> io) {
+            this.io = io;
+        }
+
+        @Override public void open(final InputStream in) {
+            this.in = in instanceof DataInputStream ? (DataInputStream) in : new DataInputStream(in);
+        }
+
+        /**
+         * Reads into the given record if any.
+         */
+        @Override public T deserialize(final T t) throws IOException {
+            return t == null ? io.read(in) : io.read(in, t);
+        }
+
+        @Override public void close() throws IOException {
+            in.close();
+        }
+    }
+}
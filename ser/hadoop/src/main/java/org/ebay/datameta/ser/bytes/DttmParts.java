@@ -0,0 +1,55 @@
+package org.ebay.datameta.ser.bytes;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Reusable holder for a datetime as it is written by the {@link DataMetaHadoopUtil#writeDttm(java.io.DataOutput, ZonedDateTime)}:
+ * the epoch millis and the time zone key, filled by the
+ * {@link DataMetaHadoopUtil#readDttm(java.io.DataInput, DttmParts)} with no allocation.
+ * Good for comparing and bucketing the timestamps; build the {@link ZonedDateTime} only when needed.
+ * <p>Mutable, not thread-safe.</p>
+ *
+ * @author Michael Bergens
+ */
+public class DttmParts {
+
+    private long millis;
+    private int zoneKey;
+    /**
+     * Only for the zones written by ID, see the {@link TzDictionary#ID_KEY}.
+     */
+    private ZoneId zone;
+
+    /**
+     * Milliseconds since the epoch, UTC.
+     */
+    public long getMillis() { return millis; }
+
+    /**
+     * The key of the time zone, see {@link DataMetaHadoopUtil#getZoneId(int)}; the {@link TzDictionary#ID_KEY}
+     * for a zone that is not in the dictionary.
+     */
+    public int getZoneKey() { return zoneKey; }
+
+    /**
+     * @param zone the zone if the key is the {@link TzDictionary#ID_KEY}, otherwise ignored.
+     */
+    public DttmParts set(final long millis, final int zoneKey, final ZoneId zone) {
+        this.millis = millis;
+        this.zoneKey = zoneKey;
+        this.zone = zoneKey == TzDictionary.ID_KEY ? zone : null;
+        return this;
+    }
+
+    public ZoneId getZoneId() { return zone != null ? zone : DataMetaHadoopUtil.getZoneId(zoneKey); }
+
+    public Instant toInstant() { return Instant.ofEpochMilli(millis); }
+
+    public ZonedDateTime toZonedDateTime() { return ZonedDateTime.ofInstant(toInstant(), getZoneId()); }
+
+    @Override public String toString() {
+        return getClass().getSimpleName() + "{millis=" + millis + ", zoneKey=" + zoneKey + '}';
+    }
+}
@@ -0,0 +1,43 @@
+package org.ebay.datameta.ser.bytes;
+
+/**
+ * How a field is encoded by the {@link InOutable}, for the {@link InOutableRawComparator} to walk and compare
+ * the fields on the serialized bytes.
+ *
+ * @author Michael Bergens
+ */
+public enum FieldKind {
+    /**
+     * One byte, the {@link java.io.DataOutput#writeBoolean(boolean)}: <tt>false</tt> before <tt>true</tt>.
+     */
+    BOOLEAN,
+    /**
+     * The {@link DataMetaHadoopUtil#writeVIntFast(java.io.DataOutput, int)}: the ints, also the enum ordinals.
+     */
+    VINT,
+    /**
+     * The {@link DataMetaHadoopUtil#writeVLongFast(java.io.DataOutput, long)}.
+     */
+    VLONG,
+    /**
+     * The {@link DataMetaHadoopUtil#writeTextIfAny(java.io.DataOutput, String)}: the VInt length and the UTF-8 bytes,
+     * which compared as unsigned bytes give the order of the code points.
+     */
+    TEXT,
+    /**
+     * The {@link DataMetaHadoopUtil#writeDttm(java.io.DataOutput, java.time.ZonedDateTime)}: compared by the instant,
+     * the zone is skipped.
+     */
+    DTTM,
+    /**
+     * The version written in front of the record by the
+     * {@link InOutable#writeVersion(java.io.DataOutput, org.ebay.datameta.util.jdk.SemanticVersion)}: skipped,
+     * not compared.
+     */
+    VERSION,
+    /**
+     * The bitset of the null flags that the records with the optional fields start with: skipped, not compared,
+     * therefore the fields declared for the comparison should be the required ones.
+     */
+    NULL_FLAGS
+}
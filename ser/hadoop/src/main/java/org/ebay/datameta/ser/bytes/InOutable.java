@@ -1,5 +1,6 @@
 package org.ebay.datameta.ser.bytes;
 
+import org.apache.hadoop.io.WritableUtils;
 import org.ebay.datameta.util.jdk.SemanticVersion;
 import org.ebay.datameta.dom.DataMetaEntity;
 
@@ -7,8 +8,9 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 
-import static org.apache.hadoop.io.Text.writeString;
-import static org.apache.hadoop.io.Text.readString;
+import static org.ebay.datameta.ser.bytes.DataMetaHadoopUtil.readText;
+import static org.ebay.datameta.ser.bytes.DataMetaHadoopUtil.readVIntFast;
+import static org.ebay.datameta.ser.bytes.DataMetaHadoopUtil.writeTextIfAny;
 
 /**
  * Common ancestor for serializers to/from {@link DataOutput}/{@link DataInput}.
@@ -26,11 +28,18 @@ public abstract class InOutable<T extends DataMetaEntity> {
    * Write a semantic version - semantic parts only to save space.
    */
     public static void writeVersion(DataOutput out, final SemanticVersion version) throws IOException {
-        writeString(out, version.getSemanticPartsOnly());
+        writeTextIfAny(out, version.getSemanticPartsOnly());
     }
 
     public static SemanticVersion readVersion(DataInput in) throws IOException {
-        return SemanticVersion.parse(readString(in));
+        return SemanticVersion.parse(readText(in));
+    }
+
+    /**
+     * Skips the version written by the {@link #writeVersion(DataOutput, SemanticVersion)} without parsing it.
+     */
+    public static void skipVersion(DataInput in) throws IOException {
+        WritableUtils.skipFully(in, readVIntFast(in));
     }
 
 }
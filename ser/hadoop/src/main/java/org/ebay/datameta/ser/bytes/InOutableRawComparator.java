@@ -0,0 +1,198 @@
+package org.ebay.datameta.ser.bytes;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.WritableComparable;
+import org.apache.hadoop.io.WritableComparator;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Compares the records written by an {@link InOutable} straight on the serialized bytes, without deserializing them:
+ * the leading fields of the record, the key, are declared as the {@link FieldKind}s in the order they are written,
+ * and are compared one after another; the rest of the record is ignored. The shuffle sort then does not create
+ * a single object per comparison.
+ * <p>Either subclass it with the fields, or use it as is with the fields in the configuration:</p>
+ * <pre>
+ *   job.getConfiguration().set(InOutableRawComparator.KINDS_KEY, "VLONG,TEXT");
+ *   job.setSortComparatorClass(InOutableRawComparator.class);
+ * </pre>
+ * <p>The {@link #hashKey(byte[], int, int)} hashes the same fields consistently with the comparison, for the
+ * partitioner, see the {@link InOutableWritable#hashCode()}.</p>
+ * <p>Immutable once configured, thread-safe.</p>
+ *
+ * @author Michael Bergens
+ */
+public class InOutableRawComparator extends WritableComparator {
+
+    /**
+     * The configuration key for the comma-separated names of the {@link FieldKind}s.
+     */
+    public static final String KINDS_KEY = "datameta.rawComparator.kinds";
+
+    private FieldKind[] kinds;
+
+    /**
+     * For the instantiation by Hadoop, takes the fields from the {@link #KINDS_KEY} in the configuration.
+     */
+    public InOutableRawComparator() {
+        super();
+    }
+
+    /**
+     * Compares the given fields of the records.
+     */
+    public InOutableRawComparator(final FieldKind... kinds) {
+        this(null, kinds);
+    }
+
+    /**
+     * Compares the given fields of the records of the key class, for the
+     * {@link WritableComparator#define(Class, WritableComparator)}.
+     */
+    public InOutableRawComparator(final Class<? extends WritableComparable<?>> keyClass, final FieldKind... kinds) {
+        super(keyClass, null, false);
+        if(kinds.length == 0) throw new IllegalArgumentException("No fields to compare");
+        this.kinds = kinds.clone();
+    }
+
+    /**
+     * Takes the fields from the {@link #KINDS_KEY} unless they are given to the constructor.
+     */
+    @Override public void setConf(final Configuration conf) {
+        super.setConf(conf);
+        if(kinds != null || conf == null) return;
+        final String[] names = conf.getTrimmedStrings(KINDS_KEY);
+        if(names.length == 0) throw new IllegalArgumentException("No fields to compare, set the " + KINDS_KEY);
+        final FieldKind[] parsed = new FieldKind[names.length];
+        for(int ix = 0; ix < names.length; ix++) parsed[ix] = FieldKind.valueOf(names[ix]);
+        kinds = parsed;
+    }
+
+    public FieldKind[] getKinds() { return kinds == null ? null : kinds.clone(); }
+
+    @Override public int compare(final byte[] b1, final int s1, final int l1, final byte[] b2, final int s2, final int l2) {
+        if(kinds == null) throw new IllegalStateException("No fields to compare, set the " + KINDS_KEY);
+        try {
+            int p1 = s1;
+            int p2 = s2;
+            for(final FieldKind kind: kinds) {
+                int result = 0;
+                switch(kind) {
+                    case BOOLEAN:
+                        result = Integer.compare(b1[p1++], b2[p2++]);
+                        break;
+                    case VINT:
+                    case VLONG:
+                        result = Long.compare(readVLong(b1, p1), readVLong(b2, p2));
+                        p1 += WritableUtils.decodeVIntSize(b1[p1]);
+                        p2 += WritableUtils.decodeVIntSize(b2[p2]);
+                        break;
+                    case TEXT: {
+                        final int len1 = readVInt(b1, p1);
+                        final int len2 = readVInt(b2, p2);
+                        p1 += WritableUtils.decodeVIntSize(b1[p1]);
+                        p2 += WritableUtils.decodeVIntSize(b2[p2]);
+                        result = compareBytes(b1, p1, len1, b2, p2, len2);
+                        p1 += len1;
+                        p2 += len2;
+                        break;
+                    }
+                    case DTTM:
+                        p1 = skipZone(b1, p1);
+                        p2 = skipZone(b2, p2);
+                        result = Long.compare(readVLong(b1, p1), readVLong(b2, p2));
+                        p1 += WritableUtils.decodeVIntSize(b1[p1]);
+                        p2 += WritableUtils.decodeVIntSize(b2[p2]);
+                        break;
+                    default:
+                        p1 = skip(kind, b1, p1);
+                        p2 = skip(kind, b2, p2);
+                }
+                if(result != 0) return result;
+            }
+            return 0;
+        }
+        catch(IOException x) { // same as the Hadoop's own comparators
+            throw new IllegalArgumentException(x);
+        }
+    }
+
+    /**
+     * The hash of the compared fields of the record: the records that compare equal hash the same.
+     */
+    public int hashKey(final byte[] bytes, final int start, final int length) {
+        if(kinds == null) throw new IllegalStateException("No fields to compare, set the " + KINDS_KEY);
+        try {
+            int result = 1;
+            int p = start;
+            for(final FieldKind kind: kinds) {
+                switch(kind) {
+                    case BOOLEAN:
+                        result = 31 * result + bytes[p++];
+                        break;
+                    case VINT:
+                    case VLONG:
+                        result = 31 * result + Long.hashCode(readVLong(bytes, p));
+                        p += WritableUtils.decodeVIntSize(bytes[p]);
+                        break;
+                    case TEXT: {
+                        final int len = readVInt(bytes, p);
+                        p += WritableUtils.decodeVIntSize(bytes[p]);
+                        result = 31 * result + hashBytes(bytes, p, len);
+                        p += len;
+                        break;
+                    }
+                    case DTTM:
+                        p = skipZone(bytes, p);
+                        result = 31 * result + Long.hashCode(readVLong(bytes, p));
+                        p += WritableUtils.decodeVIntSize(bytes[p]);
+                        break;
+                    default:
+                        p = skip(kind, bytes, p);
+                }
+            }
+            return result;
+        }
+        catch(IOException x) {
+            throw new IllegalArgumentException(x);
+        }
+    }
+
+    /**
+     * Skips the field that is not compared.
+     * @return the offset past the field.
+     */
+    private static int skip(final FieldKind kind, final byte[] bytes, final int offset) throws IOException {
+        switch(kind) {
+            case VERSION:
+                return skipText(bytes, offset);
+            case NULL_FLAGS: {
+                final int count = readVInt(bytes, offset);
+                int p = offset + WritableUtils.decodeVIntSize(bytes[offset]);
+                for(int ix = 0; ix < count; ix++) p += WritableUtils.decodeVIntSize(bytes[p]);
+                return p;
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported field kind " + kind);
+        }
+    }
+
+    private static int skipText(final byte[] bytes, final int offset) throws IOException {
+        return offset + WritableUtils.decodeVIntSize(bytes[offset]) + readVInt(bytes, offset);
+    }
+
+    /**
+     * Skips the zone written by the {@link TzDictionary#write(java.io.DataOutput, java.time.ZoneId)}.
+     */
+    private static int skipZone(final byte[] bytes, final int offset) throws IOException {
+        final int key = readVInt(bytes, offset);
+        final int p = offset + WritableUtils.decodeVIntSize(bytes[offset]);
+        return key == TzDictionary.ID_KEY ? skipText(bytes, p) : p;
+    }
+
+    @Override public String toString() {
+        return getClass().getSimpleName() + Arrays.toString(kinds);
+    }
+}
@@ -0,0 +1,116 @@
+package org.ebay.datameta.ser.bytes;
+
+import org.apache.hadoop.io.WritableComparable;
+import org.ebay.datameta.dom.DataMetaEntity;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Carries a record as a MapReduce key or value, serialized by its {@link InOutable}.
+ * <p>Hadoop makes the keys and the values by the class with the no-arg constructor, so subclass it per record type:</p>
+ * <pre>
+ *   public class SampleWritable extends InOutableWritable&lt;Sample&gt; {
+ *       public static final InOutableRawComparator ORDER = new InOutableRawComparator(SampleWritable.class,
+ *           FieldKind.VLONG, FieldKind.TEXT);
+ *       static { WritableComparator.define(SampleWritable.class, ORDER); }
+ *       public SampleWritable() { super(Sample_InOutable.getInstance(), ORDER); }
+ *   }
+ * </pre>
+ * <p>The {@link #readFields(DataInput)} reads into the record it holds, so the framework reusing the instance does
+ * not make a record per input; the record passed to the reducer or the mapper is overwritten by the next one.</p>
+ * <p>As a key, the raw comparator sorts the shuffle without deserializing, the {@link #compareTo(InOutableWritable)}
+ * and the {@link #hashCode()} are only the fallbacks consistent with it, they serialize the records.</p>
+ *
+ * @author Michael Bergens
+ */
+public class InOutableWritable<T extends DataMetaEntity> implements WritableComparable<InOutableWritable<T>> {
+
+    private final InOutable<T> io;
+
+    /**
+     * The order of the keys, null for a value.
+     */
+    private final InOutableRawComparator order;
+
+    private T value;
+
+    /**
+     * For a value, not comparable.
+     */
+    protected InOutableWritable(final InOutable<T> io) {
+        this(io, null);
+    }
+
+    /**
+     * For a key, ordered by the comparator.
+     */
+    protected InOutableWritable(final InOutable<T> io, final InOutableRawComparator order) {
+        this.io = io;
+        this.order = order;
+    }
+
+    public T get() { return value; }
+
+    public InOutableWritable<T> set(final T value) {
+        this.value = value;
+        return this;
+    }
+
+    @Override public void write(final DataOutput out) throws IOException {
+        if(value == null) throw new IllegalStateException("No record to write in " + getClass().getName());
+        io.write(out, value);
+    }
+
+    @Override public void readFields(final DataInput in) throws IOException {
+        value = value == null ? io.read(in) : io.read(in, value);
+    }
+
+    private byte[] bytes() {
+        try {
+            return BytesDataIoUtil.write(io, value);
+        }
+        catch(IOException x) {
+            throw new UncheckedIOException(x);
+        }
+    }
+
+    private InOutableRawComparator order() {
+        if(order == null) throw new UnsupportedOperationException(getClass().getName() + " is not a key, no order");
+        return order;
+    }
+
+    @Override public int compareTo(final InOutableWritable<T> other) {
+        final byte[] mine = bytes();
+        final byte[] theirs = other.bytes();
+        return order().compare(mine, 0, mine.length, theirs, 0, theirs.length);
+    }
+
+    /**
+     * For a key, the hash of the compared fields, for the <tt>HashPartitioner</tt> to send the equal keys to the same
+     * reducer even if the rest of the records differ; for a value, the hash of the record.
+     */
+    @Override public int hashCode() {
+        if(order == null) return value == null ? 0 : value.hashCode();
+        final byte[] bytes = bytes();
+        return order.hashKey(bytes, 0, bytes.length);
+    }
+
+    /**
+     * For a key, equal if the compared fields are, consistent with the {@link #compareTo(InOutableWritable)}.
+     */
+    @SuppressWarnings("unchecked")
+    @Override public boolean equals(final Object other) {
+        if(this == other) return true;
+        if(other == null || other.getClass() != getClass()) return false;
+        final InOutableWritable<T> that = (InOutableWritable<T>) other;
+        if(order == null) return value == null ? that.value == null : value.equals(that.value);
+        return compareTo(that) == 0;
+    }
+
+    @Override public String toString() {
+        return getClass().getSimpleName() + '{' + value + '}';
+    }
+}
@@ -0,0 +1,208 @@
+package org.ebay.datameta.ser.bytes;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static org.ebay.datameta.ser.bytes.RecordFile.HEADER_SIZE;
+import static org.ebay.datameta.ser.bytes.RecordFile.LENGTH_SIZE;
+
+/**
+ * A {@link RecordFile} mapped into memory with the {@link FileChannel#map(FileChannel.MapMode, long, long)}.
+ * <p>One mapping can not be longer than 2G, so the file is mapped in segments, each one extended by an overlap
+ * into the next one: a record that starts in a segment and ends within the overlap is read straight from that
+ * segment. Only a record longer than the overlap that crosses a segment boundary gets mapped on its own, therefore
+ * the sequential scan does not make a system call per record; the OS pages the file in as it goes.</p>
+ * <p>The payloads come out as {@link ByteBuffer}s positioned at the start of the payload and limited to its end,
+ * ready for the {@link ByteBufferDataInput}.</p>
+ * <p>Access by offset, {@link #record(long)}, {@link #recordLength(long)} and {@link #nextOffset(long)} is thread-safe.
+ * The cursor, {@link #nextRecord()} and {@link #position(long)}, is not; give each thread its own instance
+ * for sequential scans.</p>
+ * <p>Note that the JDK does not unmap the buffers on {@link #close()}, that happens when they are garbage collected.</p>
+ *
+ * @author Michael Bergens
+ */
+public class MappedRecordFile implements Closeable {
+
+    /**
+     * Default size of a segment, 1G.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+
+    /**
+     * Default overlap of the segments, 64M.
+     */
+    public static final int DEFAULT_OVERLAP = 64 << 20;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long size;
+    private final int segmentSize;
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * Cursor: the offset of the next record.
+     */
+    private long position = HEADER_SIZE;
+
+    /**
+     * Cursor's view into the current segment, reused from one record to the next.
+     */
+    private ByteBuffer view;
+    private int viewSegment = -1;
+
+    public MappedRecordFile(final Path path) throws IOException {
+        this(path, DEFAULT_SEGMENT_SIZE, DEFAULT_OVERLAP);
+    }
+
+    /**
+     * @param segmentSize the size of a segment, the segment plus the overlap must fit into 2G.
+     * @param overlap how far a segment mapping reaches into the next one.
+     */
+    public MappedRecordFile(final Path path, final int segmentSize, final int overlap) throws IOException {
+        if(segmentSize < HEADER_SIZE || overlap < LENGTH_SIZE || (long) segmentSize + overlap > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Invalid segment size " + segmentSize + " with the overlap " + overlap);
+        this.path = path;
+        this.segmentSize = segmentSize;
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            size = channel.size();
+            if(size < HEADER_SIZE) throw new IOException("Not a DataMeta record file, too short: " + path);
+            final int count = (int) ((size + segmentSize - 1) / segmentSize);
+            segments = new MappedByteBuffer[count];
+            for(int ix = 0; ix < count; ix++) {
+                final long start = (long) ix * segmentSize;
+                segments[ix] = channel.map(READ_ONLY, start, Math.min((long) segmentSize + overlap, size - start));
+            }
+            RecordFile.verifyHeader(segments[0].getInt(0), segments[0].getInt(4), segments[0].getInt(8), path);
+        }
+        catch(IOException | RuntimeException x) {
+            channel.close();
+            throw x;
+        }
+    }
+
+    /**
+     * The file size.
+     */
+    public long size() { return size; }
+
+    /**
+     * Offset of the first record.
+     */
+    public long dataStart() { return HEADER_SIZE; }
+
+    private int segmentOf(final long offset) {
+        return (int) (offset / segmentSize);
+    }
+
+    /**
+     * Length of the payload of the record at the offset.
+     */
+    public int recordLength(final long offset) throws IOException {
+        if(offset < HEADER_SIZE || offset + LENGTH_SIZE > size)
+            throw new IOException("No record at " + offset + " in " + path + " of the size " + size);
+        final int segment = segmentOf(offset);
+        // if the length does not fit in the segment, that is the last segment and the offset is past the end
+        return RecordFile.verifyLength(segments[segment].getInt((int) (offset - (long) segment * segmentSize)),
+            offset, path);
+    }
+
+    /**
+     * Offset of the record that follows the one at the given offset, equals to the {@link #size()} if there is none.
+     */
+    public long nextOffset(final long offset) throws IOException {
+        return offset + LENGTH_SIZE + recordLength(offset);
+    }
+
+    /**
+     * Walks the file, without decoding the records, to build the {@link RecordIndex} with the given stride.
+     */
+    public RecordIndex index(final int stride) throws IOException {
+        return RecordIndex.build(this, stride);
+    }
+
+    /**
+     * The payload of the record at the offset, a new view that does not affect the cursor.
+     */
+    public ByteBuffer record(final long offset) throws IOException {
+        final int len = recordLength(offset);
+        final int segment = segmentOf(offset);
+        final int start = (int) (offset - (long) segment * segmentSize) + LENGTH_SIZE;
+        final MappedByteBuffer mapped = segments[segment];
+        if(len <= mapped.limit() - start) return view(mapped.duplicate(), start, len);
+        return mapOutlier(offset, len);
+    }
+
+    /**
+     * Sequential scan: the payload of the record at the cursor, advancing the cursor to the next record.
+     * The result is valid until the next call: to avoid the garbage, the view is reused.
+     * @return null when there are no more records.
+     */
+    public ByteBuffer nextRecord() throws IOException {
+        if(position >= size) return null;
+        final int len = recordLength(position);
+        final int segment = segmentOf(position);
+        final int start = (int) (position - (long) segment * segmentSize) + LENGTH_SIZE;
+        final MappedByteBuffer mapped = segments[segment];
+        final ByteBuffer result;
+        if(len <= mapped.limit() - start) {
+            if(segment != viewSegment) {
+                view = mapped.duplicate();
+                viewSegment = segment;
+            }
+            result = view(view, start, len);
+        }
+        else {
+            result = mapOutlier(position, len);
+        }
+        position += LENGTH_SIZE + len;
+        return result;
+    }
+
+    /**
+     * The cursor: offset of the next record to return from the {@link #nextRecord()}.
+     */
+    public long position() { return position; }
+
+    /**
+     * Moves the cursor, the offset must point to a record start or to the end of the file.
+     */
+    public MappedRecordFile position(final long offset) {
+        if(offset < HEADER_SIZE || offset > size)
+            throw new IllegalArgumentException("Offset " + offset + " is out of the data range of " + path);
+        position = offset;
+        return this;
+    }
+
+    private static ByteBuffer view(final ByteBuffer buf, final int start, final int len) {
+        buf.clear();
+        buf.limit(start + len).position(start);
+        return buf;
+    }
+
+    /**
+     * Maps the record that reaches past the overlap of its segment, should be rare.
+     */
+    private ByteBuffer mapOutlier(final long offset, final int len) throws IOException {
+        final long start = offset + LENGTH_SIZE;
+        if(len > size - start) throw new IOException("Truncated record at " + offset + " in " + path
+            + ": length " + len + ", file size " + size);
+        return channel.map(READ_ONLY, start, len);
+    }
+
+    public Path getPath() { return path; }
+
+    @Override public void close() throws IOException {
+        channel.close();
+    }
+
+    @Override public String toString() {
+        return getClass().getSimpleName() + "{" + path + ", size=" + size + ", segments=" + segments.length + '}';
+    }
+}
@@ -0,0 +1,166 @@
+package org.ebay.datameta.ser.bytes;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.ebay.datameta.ser.bytes.OrderedKeyEncoder.ESCAPE;
+import static org.ebay.datameta.ser.bytes.OrderedKeyEncoder.NEGATIVE;
+import static org.ebay.datameta.ser.bytes.OrderedKeyEncoder.NULL;
+import static org.ebay.datameta.ser.bytes.OrderedKeyEncoder.PRESENT;
+import static org.ebay.datameta.ser.bytes.OrderedKeyEncoder.TERMINATOR;
+import static org.ebay.datameta.ser.bytes.OrderedKeyEncoder.ZERO;
+
+/**
+ * Reads back the fields of a key made by the {@link OrderedKeyEncoder}, in the order they were written.
+ * <p>Malformed keys throw the {@link IllegalArgumentException}.</p>
+ * <p>Reusable with the {@link #reset(byte[], int, int)}, not thread-safe.</p>
+ *
+ * @author Michael Bergens
+ */
+public class OrderedKeyDecoder {
+
+    private byte[] bytes;
+    private int position;
+    private int limit;
+
+    /**
+     * Scratch for the unescaped strings.
+     */
+    private byte[] scratch = new byte[64];
+
+    public OrderedKeyDecoder() {
+        this(new byte[0]);
+    }
+
+    public OrderedKeyDecoder(final byte[] key) {
+        this(key, 0, key.length);
+    }
+
+    public OrderedKeyDecoder(final byte[] key, final int offset, final int length) {
+        reset(key, offset, length);
+    }
+
+    /**
+     * Switches to the next key.
+     */
+    public OrderedKeyDecoder reset(final byte[] key, final int offset, final int length) {
+        bytes = key;
+        position = offset;
+        limit = offset + length;
+        return this;
+    }
+
+    /**
+     * Bytes left to read.
+     */
+    public int remaining() { return limit - position; }
+
+    private int next() {
+        if(position >= limit) throw new IllegalArgumentException("Truncated key at " + position);
+        return bytes[position++] & 0xFF;
+    }
+
+    /**
+     * Reads the marker of the object field.
+     * @return true if the value follows.
+     */
+    private boolean present() {
+        final int marker = next();
+        if(marker == PRESENT) return true;
+        if(marker == NULL) return false;
+        throw new IllegalArgumentException("Invalid null marker " + marker + " at " + (position - 1));
+    }
+
+    public int readInt() {
+        int v = 0;
+        for(int ix = 0; ix < 4; ix++) v = v << 8 | next();
+        return v ^ Integer.MIN_VALUE;
+    }
+
+    public long readLong() {
+        long v = 0;
+        for(int ix = 0; ix < 8; ix++) v = v << 8 | next();
+        return v ^ Long.MIN_VALUE;
+    }
+
+    public boolean readBoolean() {
+        return next() != 0;
+    }
+
+    public String readString() {
+        if(!present()) return null;
+        int len = 0;
+        while(true) {
+            final int b = next();
+            if(b == 0) {
+                final int escaped = next();
+                if(escaped == (TERMINATOR & 0xFF)) break;
+                if(escaped != (ESCAPE & 0xFF))
+                    throw new IllegalArgumentException("Invalid string escape " + escaped + " at " + (position - 1));
+            }
+            if(len == scratch.length) scratch = Arrays.copyOf(scratch, len << 1);
+            scratch[len++] = (byte) b;
+        }
+        return new String(scratch, 0, len, UTF_8);
+    }
+
+    /**
+     * The decimal with the trailing zeros stripped, equal to the written one by the
+     * {@link BigDecimal#compareTo(BigDecimal)}.
+     */
+    public BigDecimal readBigDecimal() {
+        if(!present()) return null;
+        final int sign = next();
+        if(sign == ZERO) return BigDecimal.ZERO;
+        final boolean negative = sign == NEGATIVE;
+        final int exponent = negative ? ~readInt() : readInt();
+        final int mask = negative ? 0xFF : 0;
+        final StringBuilder digits = new StringBuilder(16);
+        if(negative) digits.append('-');
+        for(int b = next() ^ mask; b != 0; b = next() ^ mask) {
+            final int pair = b - 1;
+            digits.append((char) ('0' + pair / 10)).append((char) ('0' + pair % 10));
+        }
+        if(digits.charAt(digits.length() - 1) == '0') digits.setLength(digits.length() - 1);
+        final int count = digits.length() - (negative ? 1 : 0);
+        return new BigDecimal(new BigInteger(digits.toString()), count - exponent);
+    }
+
+    /**
+     * The datetime in UTC.
+     */
+    public ZonedDateTime readDttm() {
+        return present() ? ZonedDateTime.ofInstant(Instant.ofEpochMilli(readLong()), ZoneOffset.UTC) : null;
+    }
+
+    /**
+     * The ordinal of the enum.
+     * @return -1 for the null.
+     */
+    public int readEnumOrdinal() {
+        if(!present()) return -1;
+        final int len = next();
+        if(len > 4) throw new IllegalArgumentException("Invalid enum ordinal length " + len + " at " + (position - 1));
+        int ordinal = 0;
+        for(int ix = 0; ix < len; ix++) ordinal = ordinal << 8 | next();
+        return ordinal;
+    }
+
+    /**
+     * The enum by its ordinal.
+     * @param values the values of the enum, such as the <tt>values()</tt>; keep them to avoid the copy per call.
+     */
+    public <E extends Enum<E>> E readEnum(final E[] values) {
+        final int ordinal = readEnumOrdinal();
+        return ordinal < 0 ? null : values[ordinal];
+    }
+
+    @Override public String toString() {
+        return getClass().getSimpleName() + "{position=" + position + ", limit=" + limit + '}';
+    }
+}
@@ -0,0 +1,206 @@
+package org.ebay.datameta.ser.bytes;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Encodes the fields into a key that sorts byte-wise, as unsigned bytes the way the <tt>memcmp</tt>,
+ * the {@link org.apache.hadoop.io.WritableComparator#compareBytes(byte[], int, int, byte[], int, int)} and the sorted
+ * stores compare, in the logical order of the values; unlike the {@link DataMetaHadoopUtil} encodings, which are
+ * compact but do not sort.
+ * <p>Each field encoding is prefix-free, so the fields appended one after another make the key of a record that sorts
+ * by the first field, then by the second and so on:</p>
+ * <pre>
+ *   final byte[] key = encoder.reset().writeLong(rec.getId()).writeString(rec.getName()).toByteArray();
+ * </pre>
+ * <p>Read the fields back in the same order with the {@link OrderedKeyDecoder}.</p>
+ * <ul>
+ * <li>The <tt>int</tt> and the <tt>long</tt>: big-endian with the sign bit flipped, 4 and 8 bytes.</li>
+ * <li>The objects, the strings, the decimals, the datetimes and the enums, start with the {@link #NULL} or
+ * the {@link #PRESENT} byte: the nulls sort first.</li>
+ * <li>The strings: the UTF-8 with the zero byte escaped as <tt>00 FF</tt>, ended with <tt>00 01</tt>; the UTF-8 bytes
+ * sort in the order of the code points, which is also the <tt>String.compareTo</tt> order outside of the surrogates.</li>
+ * <li>The decimals: the sign, then the exponent and the significant digits, two per byte, all inverted for the negatives.
+ * Sorted as the {@link BigDecimal#compareTo(BigDecimal)}: the values that differ in the scale only, such as
+ * <tt>1.5</tt> and <tt>1.50</tt>, make the same key.</li>
+ * <li>The datetimes: the instant, the epoch milliseconds as the <tt>long</tt>, same precision as the
+ * {@link DataMetaHadoopUtil#writeDttm(java.io.DataOutput, ZonedDateTime)}; the zone is not kept, read back in UTC.</li>
+ * <li>The enums: the ordinal, the length byte followed by the big-endian bytes without the leading zeros.</li>
+ * </ul>
+ * <p>Reusable, not thread-safe: keep an instance per thread.</p>
+ *
+ * @author Michael Bergens
+ */
+public class OrderedKeyEncoder {
+
+    /**
+     * Marks a null object field.
+     */
+    public static final byte NULL = 0x00;
+
+    /**
+     * Marks a present object field.
+     */
+    public static final byte PRESENT = 0x01;
+
+    /**
+     * The byte that ends a string, after the {@link #ESCAPE}.
+     */
+    static final byte TERMINATOR = 0x01;
+
+    /**
+     * The zero byte in a string is followed by this one.
+     */
+    static final byte ESCAPE = (byte) 0xFF;
+
+    /**
+     * The signs of the decimal, the byte that follows the {@link #PRESENT}.
+     */
+    static final byte NEGATIVE = 0x00, ZERO = 0x01, POSITIVE = 0x02;
+
+    private byte[] buf;
+    private int count;
+
+    public OrderedKeyEncoder() {
+        this(64);
+    }
+
+    public OrderedKeyEncoder(final int initialCapacity) {
+        buf = new byte[initialCapacity];
+    }
+
+    /**
+     * Discards the key, keeps the buffer for the next one.
+     */
+    public OrderedKeyEncoder reset() {
+        count = 0;
+        return this;
+    }
+
+    /**
+     * Length of the key.
+     */
+    public int size() { return count; }
+
+    /**
+     * The backing array, the key from 0 to the {@link #size()}, valid until the next write or {@link #reset()}.
+     */
+    public byte[] getBuffer() { return buf; }
+
+    /**
+     * The exact size copy of the key.
+     */
+    public byte[] toByteArray() { return Arrays.copyOf(buf, count); }
+
+    private void ensure(final int extra) {
+        if(count + extra > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length << 1, count + extra));
+    }
+
+    private void put(final int b) {
+        ensure(1);
+        buf[count++] = (byte) b;
+    }
+
+    /**
+     * Writes the marker for the object field.
+     * @return true if the value is present and should follow.
+     */
+    private boolean marker(final Object value) {
+        put(value == null ? NULL : PRESENT);
+        return value != null;
+    }
+
+    public OrderedKeyEncoder writeInt(final int value) {
+        ensure(4);
+        final int v = value ^ Integer.MIN_VALUE;
+        buf[count++] = (byte) (v >>> 24);
+        buf[count++] = (byte) (v >>> 16);
+        buf[count++] = (byte) (v >>> 8);
+        buf[count++] = (byte) v;
+        return this;
+    }
+
+    public OrderedKeyEncoder writeLong(final long value) {
+        ensure(8);
+        final long v = value ^ Long.MIN_VALUE;
+        for(int shift = 56; shift >= 0; shift -= 8) buf[count++] = (byte) (v >>> shift);
+        return this;
+    }
+
+    public OrderedKeyEncoder writeBoolean(final boolean value) {
+        put(value ? 1 : 0);
+        return this;
+    }
+
+    public OrderedKeyEncoder writeString(final String value) {
+        if(!marker(value)) return this;
+        final byte[] utf8 = value.getBytes(UTF_8);
+        int zeros = 0;
+        for(final byte b: utf8) if(b == 0) zeros++;
+        ensure(utf8.length + zeros + 2);
+        for(final byte b: utf8) {
+            buf[count++] = b;
+            if(b == 0) buf[count++] = ESCAPE;
+        }
+        buf[count++] = 0;
+        buf[count++] = TERMINATOR;
+        return this;
+    }
+
+    /**
+     * The value is <tt>0.D &times; 10<sup>E</sup></tt> with the significant digits <tt>D</tt> without the trailing
+     * zeros: the greater exponent <tt>E</tt> is the greater magnitude, then the digits compare as a string,
+     * a prefix sorting first. The digits are packed in pairs, the pair <tt>dd</tt> as the byte <tt>1 + dd</tt>,
+     * and ended by the zero byte. For the negatives, all but the sign are inverted to reverse the order.
+     */
+    public OrderedKeyEncoder writeBigDecimal(final BigDecimal value) {
+        if(!marker(value)) return this;
+        final int sign = value.signum();
+        if(sign == 0) {
+            put(ZERO);
+            return this;
+        }
+        final BigDecimal normal = value.stripTrailingZeros();
+        final String digits = normal.unscaledValue().abs().toString();
+        final int mask = sign < 0 ? 0xFF : 0;
+        put(sign < 0 ? NEGATIVE : POSITIVE);
+        final int exponent = digits.length() - normal.scale();
+        writeInt(sign < 0 ? ~exponent : exponent);
+        ensure(digits.length() / 2 + 2);
+        for(int ix = 0; ix < digits.length(); ix += 2) {
+            final int high = digits.charAt(ix) - '0';
+            final int low = ix + 1 < digits.length() ? digits.charAt(ix + 1) - '0' : 0;
+            buf[count++] = (byte) ((1 + high * 10 + low) ^ mask);
+        }
+        buf[count++] = (byte) mask;
+        return this;
+    }
+
+    /**
+     * The instant of the datetime, in milliseconds.
+     */
+    public OrderedKeyEncoder writeDttm(final ZonedDateTime value) {
+        if(marker(value)) writeLong(value.toInstant().toEpochMilli());
+        return this;
+    }
+
+    /**
+     * The ordinal of the enum.
+     */
+    public OrderedKeyEncoder writeEnum(final Enum<?> value) {
+        if(!marker(value)) return this;
+        final int ordinal = value.ordinal();
+        final int len = ordinal == 0 ? 0 : 4 - Integer.numberOfLeadingZeros(ordinal) / 8;
+        ensure(len + 1);
+        buf[count++] = (byte) len;
+        for(int shift = (len - 1) * 8; shift >= 0; shift -= 8) buf[count++] = (byte) (ordinal >>> shift);
+        return this;
+    }
+
+    @Override public String toString() {
+        return getClass().getSimpleName() + "{size=" + count + '}';
+    }
+}
@@ -0,0 +1,158 @@
+package org.ebay.datameta.ser.bytes;
+
+import org.ebay.datameta.dom.DataMetaEntity;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Decodes a {@link MappedRecordFile} in parallel on a {@link ForkJoinPool}: the file is cut into chunks
+ * of the given number of records at the boundaries found by the {@link RecordIndex}, then the chunks are split
+ * in halves recursively down to one chunk per task, each task decoding its records straight from the mapped
+ * memory with the {@link InOutable}, such as a generated singleton.
+ * <p>Both the ordered output, {@link #readAll(MappedRecordFile)}, and the unordered one,
+ * {@link #forEach(MappedRecordFile, Consumer)}, are supported.</p>
+ * <p>Thread-safe; one instance can serve any number of files, one after another or concurrently.</p>
+ *
+ * @author Michael Bergens
+ */
+public class ParallelRecordFileReader<T extends DataMetaEntity> implements Closeable {
+
+    /**
+     * Default chunk size, in records.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+    private final InOutable<T> io;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+    private final boolean ownPool;
+
+    /**
+     * Runs on the {@link ForkJoinPool#commonPool()} with the {@link #DEFAULT_CHUNK_SIZE}.
+     */
+    public ParallelRecordFileReader(final InOutable<T> io) {
+        this(io, DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs on its own pool with the given parallelism, shut down on {@link #close()}.
+     * @param chunkSize number of the records decoded by one task.
+     */
+    public ParallelRecordFileReader(final InOutable<T> io, final int chunkSize, final int parallelism) {
+        this(io, chunkSize, new ForkJoinPool(parallelism), true);
+    }
+
+    /**
+     * Runs on the given pool, which is left running on {@link #close()}.
+     * @param chunkSize number of the records decoded by one task.
+     */
+    public ParallelRecordFileReader(final InOutable<T> io, final int chunkSize, final ForkJoinPool pool) {
+        this(io, chunkSize, pool, false);
+    }
+
+    private ParallelRecordFileReader(final InOutable<T> io, final int chunkSize, final ForkJoinPool pool,
+                                     final boolean ownPool) {
+        if(chunkSize < 1) throw new IllegalArgumentException("Invalid chunk size " + chunkSize);
+        this.io = io;
+        this.chunkSize = chunkSize;
+        this.pool = pool;
+        this.ownPool = ownPool;
+    }
+
+    /**
+     * Decodes all the records, in the order of the file.
+     */
+    public List<T> readAll(final MappedRecordFile file) throws IOException {
+        final RecordIndex index = file.index(chunkSize);
+        if(index.count() > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Too many records for a list: "
+            + index.count() + " in " + file.getPath() + ", use the forEach");
+        final Object[] result = new Object[(int) index.count()];
+        invoke(new ChunkTask(file, index, 0, index.entries(), (ordinal, value) -> result[(int) ordinal] = value));
+        @SuppressWarnings("unchecked") final List<T> list = (List<T>) (List<?>) Arrays.asList(result);
+        return list;
+    }
+
+    /**
+     * Decodes all the records and hands them to the action from the pool's threads, in no particular order.
+     * @param action called concurrently, must be thread-safe.
+     */
+    public void forEach(final MappedRecordFile file, final Consumer<? super T> action) throws IOException {
+        final RecordIndex index = file.index(chunkSize);
+        invoke(new ChunkTask(file, index, 0, index.entries(), (ordinal, value) -> action.accept(value)));
+    }
+
+    private void invoke(final ChunkTask task) throws IOException {
+        try {
+            pool.invoke(task);
+        }
+        catch(UncheckedIOException x) {
+            throw x.getCause();
+        }
+    }
+
+    /**
+     * Shuts the pool down if this reader created it.
+     */
+    @Override public void close() {
+        if(ownPool) pool.shutdown();
+    }
+
+    @FunctionalInterface
+    private interface Sink<T> {
+        void accept(long ordinal, T value);
+    }
+
+    /**
+     * Decodes the chunks from the <tt>fromEntry</tt> inclusive to the <tt>toEntry</tt> exclusive.
+     */
+    private class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final MappedRecordFile file;
+        private final RecordIndex index;
+        private final int fromEntry;
+        private final int toEntry;
+        private final Sink<T> sink;
+
+        ChunkTask(final MappedRecordFile file, final RecordIndex index, final int fromEntry, final int toEntry,
+                  final Sink<T> sink) {
+            this.file = file;
+            this.index = index;
+            this.fromEntry = fromEntry;
+            this.toEntry = toEntry;
+            this.sink = sink;
+        }
+
+        @Override protected void compute() {
+            if(toEntry - fromEntry > 1) {
+                final int mid = (fromEntry + toEntry) >>> 1;
+                invokeAll(new ChunkTask(file, index, fromEntry, mid, sink), new ChunkTask(file, index, mid, toEntry, sink));
+                return;
+            }
+            if(toEntry == fromEntry) return;
+            try {
+                final ByteBufferDataInput in = new ByteBufferDataInput(ByteBuffer.allocate(0));
+                long offset = index.offset(fromEntry);
+                final long end = index.ordinal(toEntry);
+                for(long ordinal = index.ordinal(fromEntry); ordinal < end; ordinal++) {
+                    final ByteBuffer payload = file.record(offset);
+                    offset += RecordFile.LENGTH_SIZE + payload.remaining();
+                    in.reset(payload);
+                    InOutable.skipVersion(in);
+                    sink.accept(ordinal, io.read(in));
+                }
+            }
+            catch(IOException x) {
+                throw new UncheckedIOException(x);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.ebay.datameta.ser.bytes;
+
+import java.io.IOException;
+
+/**
+ * The length-prefixed record file format:
+ * <ul>
+ * <li>Header: the {@link #MAGIC}, the {@link #FORMAT_VERSION} and the {@link TzDictionary#VERSION} the datetimes
+ * were written with, {@link #HEADER_SIZE} bytes total.</li>
+ * <li>Records, each one: the length of the payload as a 4 byte big endian int, then the payload which is the
+ * record written by {@link InOutable#writeVersion(java.io.DataOutput, org.ebay.datameta.util.jdk.SemanticVersion)}
+ * followed by {@link InOutable#write(java.io.DataOutput, org.ebay.datameta.dom.DataMetaEntity)}, same as
+ * {@link BytesDataIoUtil#writeVersioned(InOutable, org.ebay.datameta.dom.DataMetaEntity)}.</li>
+ * </ul>
+ * The fixed size length lets the readers walk the records without decoding them.
+ *
+ * @see RecordFileWriter
+ * @see MappedRecordFile
+ * @see RecordFileReader
+ * @author Michael Bergens
+ */
+public final class RecordFile {
+
+    /**
+     * The file starts with these, ASCII for <tt>DMRF</tt>.
+     */
+    public static final int MAGIC = 0x444D5246;
+
+    /**
+     * Current version of this format.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    /**
+     * Magic, the format version and the time zone dictionary version.
+     */
+    public static final int HEADER_SIZE = 12;
+
+    /**
+     * The size of the length prefix of each record.
+     */
+    public static final int LENGTH_SIZE = 4;
+
+    private RecordFile() {}
+
+    /**
+     * Verifies the header values read from a file.
+     * @param source the file name or other description of the source, for the error message.
+     * @throws IOException also if the file was written with a newer time zone dictionary than this one.
+     */
+    static void verifyHeader(final int magic, final int version, final int tzVersion, final Object source)
+        throws IOException {
+        if(magic != MAGIC) throw new IOException("Not a DataMeta record file: " + source);
+        if(version != FORMAT_VERSION) throw new IOException("Unsupported DataMeta record file format version "
+            + version + " in " + source + ", supported: " + FORMAT_VERSION);
+        TzDictionary.checkVersion(tzVersion, source);
+    }
+
+    /**
+     * Verifies the length prefix of a record.
+     */
+    static int verifyLength(final int length, final long offset, final Object source) throws IOException {
+        if(length < 0) throw new IOException("Corrupted record length " + length + " at " + offset + " in " + source);
+        return length;
+    }
+}
@@ -0,0 +1,61 @@
+package org.ebay.datameta.ser.bytes;
+
+import org.ebay.datameta.dom.DataMetaEntity;
+import org.ebay.datameta.dom.SerialDataSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads the records out of a {@link MappedRecordFile}, decoding them with the {@link InOutable} straight from
+ * the mapped memory through a reused {@link ByteBufferDataInput}. The versions are skipped, not parsed.
+ * <p>Not thread-safe because of the reused input: use an instance per thread.</p>
+ *
+ * @author Michael Bergens
+ */
+public class RecordFileReader<T extends DataMetaEntity> implements SerialDataSource<T, MappedRecordFile> {
+
+    private final InOutable<T> io;
+    private final ByteBufferDataInput in = new ByteBufferDataInput(ByteBuffer.allocate(0));
+
+    public RecordFileReader(final InOutable<T> io) {
+        this.io = io;
+    }
+
+    /**
+     * The next record at the file's cursor.
+     * @return null when there are no more records.
+     */
+    public T read(final MappedRecordFile source) throws IOException {
+        final ByteBuffer payload = source.nextRecord();
+        return payload == null ? null : decode(payload);
+    }
+
+    /**
+     * The record at the offset, leaves the file's cursor alone.
+     */
+    public T read(final MappedRecordFile source, final long offset) throws IOException {
+        return decode(source.record(offset));
+    }
+
+    private T decode(final ByteBuffer payload) throws IOException {
+        in.reset(payload);
+        InOutable.skipVersion(in);
+        return io.read(in);
+    }
+
+    /**
+     * Same as {@link #read(MappedRecordFile)}, with the {@link IOException} wrapped into the {@link UncheckedIOException}
+     * because the {@link SerialDataSource} does not declare it.
+     * @return null when there are no more records.
+     */
+    @Override public T next(final MappedRecordFile source) {
+        try {
+            return read(source);
+        }
+        catch(IOException x) {
+            throw new UncheckedIOException(x);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.ebay.datameta.ser.bytes;
+
+import org.ebay.datameta.dom.DataMetaEntity;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link Spliterator} over a {@link MappedRecordFile} that splits at the record boundaries found in the
+ * {@link RecordIndex}, hence sized exactly and good for the parallel streams: each split decodes its own range
+ * straight from the mapped memory, lazily, with its own {@link ByteBufferDataInput}.
+ * Uses the thread-safe access by offset, the file's cursor is left alone.
+ * <p>The I/O problems come out as the {@link UncheckedIOException}.</p>
+ *
+ * @author Michael Bergens
+ */
+public class RecordFileSpliterator<T extends DataMetaEntity> implements Spliterator<T> {
+
+    /**
+     * Default stride of the index: the smallest chunk a parallel stream can get, in records.
+     */
+    public static final int DEFAULT_STRIDE = 1024;
+
+    private final MappedRecordFile file;
+    private final InOutable<T> io;
+    private final RecordIndex index;
+    private final ByteBufferDataInput in = new ByteBufferDataInput(ByteBuffer.allocate(0));
+
+    /**
+     * Offset and ordinal of the next record.
+     */
+    private long offset;
+    private long ordinal;
+
+    /**
+     * The first index entry of this split, and the first one past it.
+     */
+    private int fromEntry;
+    private final int toEntry;
+
+    /**
+     * Builds the index with the {@link #DEFAULT_STRIDE}.
+     */
+    public RecordFileSpliterator(final MappedRecordFile file, final InOutable<T> io) throws IOException {
+        this(file, io, file.index(DEFAULT_STRIDE));
+    }
+
+    public RecordFileSpliterator(final MappedRecordFile file, final InOutable<T> io, final RecordIndex index) {
+        this(file, io, index, 0, index.entries());
+    }
+
+    private RecordFileSpliterator(final MappedRecordFile file, final InOutable<T> io, final RecordIndex index,
+                                  final int fromEntry, final int toEntry) {
+        this.file = file;
+        this.io = io;
+        this.index = index;
+        this.fromEntry = fromEntry;
+        this.toEntry = toEntry;
+        offset = index.offset(fromEntry);
+        ordinal = index.ordinal(fromEntry);
+    }
+
+    /**
+     * Stream of the records in the file, building the index with the {@link #DEFAULT_STRIDE}.
+     * @param parallel true for a parallel stream.
+     */
+    public static <T extends DataMetaEntity> Stream<T> stream(final MappedRecordFile file, final InOutable<T> io,
+                                                              final boolean parallel) throws IOException {
+        return StreamSupport.stream(new RecordFileSpliterator<>(file, io), parallel);
+    }
+
+    private T decode() {
+        try {
+            final ByteBuffer payload = file.record(offset);
+            offset += RecordFile.LENGTH_SIZE + payload.remaining();
+            in.reset(payload);
+            InOutable.skipVersion(in);
+            ordinal++;
+            return io.read(in);
+        }
+        catch(IOException x) {
+            throw new UncheckedIOException(x);
+        }
+    }
+
+    @Override public boolean tryAdvance(final Consumer<? super T> action) {
+        if(ordinal >= index.ordinal(toEntry)) return false;
+        action.accept(decode());
+        return true;
+    }
+
+    @Override public void forEachRemaining(final Consumer<? super T> action) {
+        final long end = index.ordinal(toEntry);
+        while(ordinal < end) action.accept(decode());
+    }
+
+    /**
+     * Hands the first half of the remaining entries over to the new spliterator.
+     */
+    @Override public Spliterator<T> trySplit() {
+        final int mid = (fromEntry + toEntry) >>> 1;
+        if(mid <= fromEntry || ordinal >= index.ordinal(mid)) return null;
+        final RecordFileSpliterator<T> prefix = new RecordFileSpliterator<>(file, io, index, fromEntry, mid);
+        prefix.offset = offset;
+        prefix.ordinal = ordinal;
+        fromEntry = mid;
+        offset = index.offset(mid);
+        ordinal = index.ordinal(mid);
+        return prefix;
+    }
+
+    @Override public long estimateSize() {
+        return index.ordinal(toEntry) - ordinal;
+    }
+
+    @Override public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE | SIZED | SUBSIZED;
+    }
+}
@@ -0,0 +1,88 @@
+package org.ebay.datameta.ser.bytes;
+
+import org.ebay.datameta.dom.BatchDataTarget;
+import org.ebay.datameta.dom.DataMetaEntity;
+import org.ebay.datameta.dom.SerialDataTarget;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes the {@link RecordFile} format, one record after another.
+ * Each record is serialized into a reused {@link BytesDataWriter} and then copied into the buffered stream,
+ * so there is no garbage per record and the stream hits the file only when its buffer fills up.
+ * <p>Not thread-safe, same as the underlying stream.</p>
+ *
+ * @author Michael Bergens
+ */
+public class RecordFileWriter<T extends DataMetaEntity> implements BatchDataTarget<T> {
+
+    /**
+     * Default size of the stream buffer.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final InOutable<T> io;
+    private final DataOutputStream out;
+    private final BytesDataWriter writer = new BytesDataWriter();
+    private long count;
+
+    /**
+     * Creates the file, replacing the existing one if any, and writes the header.
+     */
+    public RecordFileWriter(final Path path, final InOutable<T> io) throws IOException {
+        this(Files.newOutputStream(path), io);
+    }
+
+    /**
+     * Writes the header into the given stream, which will be closed when this writer is closed.
+     */
+    public RecordFileWriter(final OutputStream target, final InOutable<T> io) throws IOException {
+        this.io = io;
+        this.out = new DataOutputStream(new BufferedOutputStream(target, DEFAULT_BUFFER_SIZE));
+        out.writeInt(RecordFile.MAGIC);
+        out.writeInt(RecordFile.FORMAT_VERSION);
+        out.writeInt(TzDictionary.VERSION);
+    }
+
+    /**
+     * Appends the record.
+     */
+    public void write(final T value) throws IOException {
+        writer.writeVersioned(io, value);
+        out.writeInt(writer.size());
+        writer.writeTo(out);
+        count++;
+    }
+
+    /**
+     * Same as {@link #write(DataMetaEntity)}, with the {@link IOException} wrapped into the {@link UncheckedIOException}
+     * because the {@link SerialDataTarget} does not declare it.
+     */
+    @Override public void save(final T what) {
+        try {
+            write(what);
+        }
+        catch(IOException x) {
+            throw new UncheckedIOException(x);
+        }
+    }
+
+    /**
+     * Number of records written so far.
+     */
+    public long getCount() { return count; }
+
+    @Override public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,72 @@
+package org.ebay.datameta.ser.bytes;
+
+import java.util.Arrays;
+
+/**
+ * Sparse index of a {@link MappedRecordFile}: the offsets of every <tt>stride</tt>-th record, so that the file
+ * can be cut into chunks at the record boundaries and the chunks sized exactly without walking the file again.
+ * Entry <tt>e</tt> covers the records from <tt>e * stride</tt> inclusive to <tt>(e + 1) * stride</tt>
+ * exclusive, the last one may have fewer.
+ * <p>Immutable, thread-safe.</p>
+ *
+ * @see MappedRecordFile#index(int)
+ * @author Michael Bergens
+ */
+public final class RecordIndex {
+
+    private final long[] offsets;
+    private final int stride;
+    private final long count;
+    private final long end;
+
+    RecordIndex(final long[] offsets, final int stride, final long count, final long end) {
+        this.offsets = offsets;
+        this.stride = stride;
+        this.count = count;
+        this.end = end;
+    }
+
+    /**
+     * Builds the index walking the length prefixes; the records are not decoded.
+     */
+    static RecordIndex build(final MappedRecordFile file, final int stride) throws java.io.IOException {
+        if(stride < 1) throw new IllegalArgumentException("Invalid stride " + stride);
+        long[] offsets = new long[16];
+        int entries = 0;
+        long count = 0;
+        final long end = file.size();
+        for(long offset = file.dataStart(); offset < end; offset = file.nextOffset(offset), count++) {
+            if(count % stride == 0) {
+                if(entries == offsets.length) offsets = Arrays.copyOf(offsets, entries << 1);
+                offsets[entries++] = offset;
+            }
+        }
+        return new RecordIndex(Arrays.copyOf(offsets, entries), stride, count, end);
+    }
+
+    /**
+     * Number of the entries.
+     */
+    public int entries() { return offsets.length; }
+
+    /**
+     * Offset of the first record of the entry; for the entry equal to the {@link #entries()}, the end of the data.
+     */
+    public long offset(final int entry) {
+        return entry == offsets.length ? end : offsets[entry];
+    }
+
+    /**
+     * Ordinal of the first record of the entry; for the entry equal to the {@link #entries()}, the {@link #count()}.
+     */
+    public long ordinal(final int entry) {
+        return Math.min((long) entry * stride, count);
+    }
+
+    public int stride() { return stride; }
+
+    /**
+     * Total number of the records.
+     */
+    public long count() { return count; }
+}
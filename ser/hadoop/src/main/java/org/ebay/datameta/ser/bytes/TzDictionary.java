@@ -0,0 +1,211 @@
+package org.ebay.datameta.ser.bytes;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.ebay.datameta.ser.bytes.DataMetaHadoopUtil.readText;
+import static org.ebay.datameta.ser.bytes.DataMetaHadoopUtil.readVIntFast;
+import static org.ebay.datameta.ser.bytes.DataMetaHadoopUtil.writeTextIfAny;
+import static org.ebay.datameta.ser.bytes.DataMetaHadoopUtil.writeVIntFast;
+
+/**
+ * The time zones for the {@link DataMetaHadoopUtil#writeDttm(DataOutput, java.time.ZonedDateTime)}: a compact key
+ * per zone, written as a VInt instead of the zone ID.
+ * <ul>
+ * <li>The keys are stable: each {@link #VERSION} of the built-in dictionary only appends the zones to the previous
+ * one, so the data written with an older version decodes with any newer one.</li>
+ * <li>More zones can be {@link #register(String, int) registered} under the keys from the {@link #CUSTOM_KEY_BASE}
+ * on, which the built-in versions will never take. The readers must register the same zones under the same keys.</li>
+ * <li>A zone that is not in the dictionary is written as the {@link #ID_KEY} followed by its ID, so any zone can be
+ * written, the dictionary only saves space.</li>
+ * </ul>
+ * <p>Decoding is an array lookup by the key. Thread-safe: the tables are replaced, copy on write, by the
+ * {@link #register(String, int)}, which should be done once at startup anyway.</p>
+ *
+ * @author Michael Bergens
+ */
+public final class TzDictionary {
+
+    /**
+     * Current version of the built-in dictionary.
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * The key that means that the zone ID follows as text.
+     */
+    public static final int ID_KEY = -1;
+
+    /**
+     * The custom zones take the keys from this one up, the built-in versions stay below it.
+     */
+    public static final int CUSTOM_KEY_BASE = 1024;
+
+    /**
+     * Keeps the key table reasonably small.
+     */
+    public static final int MAX_KEY = 65535;
+
+    /**
+     * The built-in zones by version, the keys are the positions in this sequence. Append only, never reorder.
+     */
+    private static final String[][] BUILT_IN = {
+        { // version 1, as it has always been
+            "Z", "UTC", "GMT", "America/New_York", "America/Chicago", "America/Denver", "America/Phoenix",
+            "America/Los_Angeles", "America/Anchorage", "Pacific/Honolulu"
+        },
+        { // version 2: EMEA, APAC and more of the Americas
+            "Asia/Kolkata", "Asia/Shanghai", "Europe/London", "Europe/Paris", "Europe/Berlin", "Europe/Istanbul",
+            "Europe/Amsterdam", "Europe/Dublin", "Europe/Madrid", "Europe/Rome", "Europe/Zurich", "Europe/Stockholm",
+            "Europe/Warsaw", "Europe/Moscow", "Asia/Dubai", "Asia/Jerusalem", "Africa/Johannesburg", "Africa/Cairo",
+            "Africa/Lagos", "Asia/Tokyo", "Asia/Seoul", "Asia/Hong_Kong", "Asia/Taipei", "Asia/Singapore",
+            "Asia/Kuala_Lumpur", "Asia/Bangkok", "Asia/Jakarta", "Asia/Manila", "Asia/Karachi", "Asia/Dhaka",
+            "Australia/Sydney", "Australia/Melbourne", "Australia/Perth", "Pacific/Auckland", "America/Toronto",
+            "America/Vancouver", "America/Mexico_City", "America/Sao_Paulo", "America/Argentina/Buenos_Aires",
+            "America/Bogota", "America/Lima", "America/Santiago"
+        }
+    };
+
+    private static final TzDictionary INSTANCE = new TzDictionary();
+
+    /**
+     * The shared dictionary, the one the {@link DataMetaHadoopUtil} writes and reads the datetimes with.
+     */
+    public static TzDictionary getInstance() { return INSTANCE; }
+
+    /**
+     * A separate dictionary with the built-in zones only, for the callers that write and read the zones with
+     * the {@link #write(DataOutput, ZoneId)} and the {@link #read(DataInput)} and keep their registrations apart from
+     * the shared one, such as the tests.
+     */
+    public static TzDictionary newInstance() { return new TzDictionary(); }
+
+    private volatile ZoneId[] keyToZone;
+    private volatile Map<String, Integer> idToKey;
+
+    /**
+     * The zones written by ID, resolved once.
+     */
+    private final Map<String, ZoneId> byId = new ConcurrentHashMap<>();
+
+    private TzDictionary() {
+        final Map<String, Integer> ids = new HashMap<>();
+        final ZoneId[] zones = new ZoneId[builtInCount(VERSION)];
+        int key = 0;
+        for(final String[] version: BUILT_IN) {
+            for(final String id: version) {
+                zones[key] = ZoneId.of(id); // verifies that the ID is still valid
+                ids.put(id, key++);
+            }
+        }
+        keyToZone = zones;
+        idToKey = Collections.unmodifiableMap(ids);
+    }
+
+    /**
+     * Number of the zones in the given version of the built-in dictionary.
+     */
+    public static int builtInCount(final int version) {
+        if(version < 1 || version > VERSION) throw new IllegalArgumentException("Unknown time zone dictionary version "
+            + version + ", this one is " + VERSION);
+        int result = 0;
+        for(int ix = 0; ix < version; ix++) result += BUILT_IN[ix].length;
+        return result;
+    }
+
+    /**
+     * Verifies that this dictionary can decode the data written with the given version, as stored in the headers
+     * of the {@link RecordFile} and the {@link BlockFile}.
+     * @param source the file name or other description of the source, for the error message.
+     * @throws IOException if the data was written with a newer version.
+     */
+    public static void checkVersion(final int writtenWith, final Object source) throws IOException {
+        if(writtenWith < 1) throw new IOException("Invalid time zone dictionary version " + writtenWith + " in "
+            + source);
+        if(writtenWith > VERSION) throw new IOException(source + " was written with the time zone dictionary version "
+            + writtenWith + ", this one is " + VERSION + ", upgrade");
+    }
+
+    /**
+     * Adds a zone to the dictionary; registering the same pair again is fine.
+     * @param key from the {@link #CUSTOM_KEY_BASE} to the {@link #MAX_KEY}.
+     * @throws IllegalArgumentException if the key is out of range or taken by another zone, or the zone has
+     *  another key already.
+     */
+    public synchronized void register(final String zoneId, final int key) {
+        if(key < CUSTOM_KEY_BASE || key > MAX_KEY) throw new IllegalArgumentException("Custom time zone key " + key
+            + " out of range " + CUSTOM_KEY_BASE + ".." + MAX_KEY);
+        final ZoneId zone = ZoneId.of(zoneId);
+        final Integer existing = idToKey.get(zoneId);
+        if(existing != null) {
+            if(existing == key) return;
+            throw new IllegalArgumentException("Time zone " + zoneId + " already has the key " + existing);
+        }
+        final ZoneId[] zones = keyToZone.length > key ? keyToZone.clone() : Arrays.copyOf(keyToZone, key + 1);
+        if(zones[key] != null) throw new IllegalArgumentException("Key " + key + " is taken by " + zones[key]);
+        zones[key] = zone;
+        final Map<String, Integer> ids = new HashMap<>(idToKey);
+        ids.put(zoneId, key);
+        keyToZone = zones;
+        idToKey = Collections.unmodifiableMap(ids);
+    }
+
+    /**
+     * The key of the zone, or the {@link #ID_KEY} if it is not in the dictionary.
+     */
+    public int getKey(final String zoneId) {
+        final Integer key = idToKey.get(zoneId);
+        return key == null ? ID_KEY : key;
+    }
+
+    /**
+     * The zone for the key, no lookup.
+     * @throws IllegalArgumentException if the key is unknown.
+     */
+    public ZoneId getZoneId(final int key) {
+        final ZoneId[] zones = keyToZone;
+        final ZoneId result = key >= 0 && key < zones.length ? zones[key] : null;
+        if(result == null) throw new IllegalArgumentException("Unknown time zone key: " + key);
+        return result;
+    }
+
+    /**
+     * All the zone IDs in the dictionary.
+     */
+    public Set<String> getAllTzIds() {
+        return new HashSet<>(idToKey.keySet());
+    }
+
+    /**
+     * Writes the zone's key, or the {@link #ID_KEY} with the ID if the zone is not in the dictionary.
+     */
+    public void write(final DataOutput out, final ZoneId zone) throws IOException {
+        final String id = zone.getId();
+        final int key = getKey(id);
+        writeVIntFast(out, key);
+        if(key == ID_KEY) writeTextIfAny(out, id);
+    }
+
+    /**
+     * Pair to the {@link #write(DataOutput, ZoneId)}.
+     */
+    public ZoneId read(final DataInput in) throws IOException {
+        return fromKey(readVIntFast(in), in);
+    }
+
+    /**
+     * The zone for the key that has been read already, reading the ID if it is the {@link #ID_KEY}.
+     */
+    ZoneId fromKey(final int key, final DataInput in) throws IOException {
+        return key == ID_KEY ? byId.computeIfAbsent(readText(in), ZoneId::of) : getZoneId(key);
+    }
+}
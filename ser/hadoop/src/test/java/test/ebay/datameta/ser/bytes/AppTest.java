@@ -1,12 +1,84 @@
 package test.ebay.datameta.ser.bytes;
 
+import org.ebay.datameta.ser.bytes.BlockCodec;
+import org.ebay.datameta.ser.bytes.BlockCodecs;
+import org.ebay.datameta.ser.bytes.BlockFile;
+import org.ebay.datameta.ser.bytes.BlockFileReader;
+import org.ebay.datameta.ser.bytes.BlockFileWriter;
+import org.ebay.datameta.ser.bytes.ByteBufferDataInput;
+import org.ebay.datameta.ser.bytes.ByteBufferDataOutput;
+import org.ebay.datameta.dom.DataMetaEntity;
+import org.ebay.datameta.dom.IntHashSet;
+import org.ebay.datameta.dom.LongHashSet;
+import org.ebay.datameta.dom.SourceIterator;
+import org.ebay.datameta.ser.bytes.BytesDataWriter;
+import org.ebay.datameta.ser.bytes.DataMetaSerialization;
+import org.ebay.datameta.ser.bytes.DttmParts;
+import org.ebay.datameta.ser.bytes.FieldKind;
+import org.ebay.datameta.ser.bytes.InOutable;
+import org.ebay.datameta.ser.bytes.InOutableRawComparator;
+import org.ebay.datameta.ser.bytes.InOutableWritable;
+import org.ebay.datameta.ser.bytes.MappedRecordFile;
+import org.ebay.datameta.ser.bytes.OrderedKeyDecoder;
+import org.ebay.datameta.ser.bytes.OrderedKeyEncoder;
+import org.ebay.datameta.ser.bytes.ParallelRecordFileReader;
+import org.ebay.datameta.ser.bytes.RecordFile;
+import org.ebay.datameta.ser.bytes.RecordFileReader;
+import org.ebay.datameta.ser.bytes.RecordFileSpliterator;
+import org.ebay.datameta.ser.bytes.RecordFileWriter;
+import org.ebay.datameta.ser.bytes.BytesDataIoUtil;
+import org.ebay.datameta.ser.bytes.TzDictionary;
+import org.ebay.datameta.util.jdk.SemanticVersion;
 import org.ebay.datameta.test.util.DataInOutMock;
 //import com.google.common.io.ByteArrayDataInput;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.WritableComparator;
+import org.apache.hadoop.io.compress.DefaultCodec;
+import org.apache.hadoop.io.serializer.Deserializer;
+import org.apache.hadoop.io.serializer.SerializationFactory;
+import org.apache.hadoop.io.serializer.Serializer;
+import org.apache.hadoop.util.ReflectionUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.apache.hadoop.io.Text.writeString;
+import static org.apache.hadoop.io.WritableUtils.writeVInt;
+import static org.apache.hadoop.io.WritableUtils.writeVLong;
+import static org.ebay.datameta.ser.bytes.DataMetaHadoopUtil.*;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
 /**
  * @author Michael Bergens
  */
@@ -23,5 +95,757 @@ public class AppTest {
         io.flipOutToIn();
     }
 
+    private static void writeSample(final DataOutput out) throws Exception {
+        out.writeInt(-123456);
+        out.writeLong(Long.MIN_VALUE + 17);
+        out.writeDouble(Math.PI);
+        out.writeFloat(-2.5f);
+        out.writeShort(-2);
+        out.writeChar('\u0416');
+        out.writeBoolean(true);
+        out.writeUTF("DataMeta \u0416\u0000\uFFFF");
+        writeVLong(out, 1234567890123L);
+        writeString(out, "some text \u00E9");
+        for(int i = 0; i < 5000; i++) out.write(i); // make it grow
+    }
+
+    /**
+     * The reusable writer must encode exactly like the JDK stream, and must survive the reset and the growth.
+     */
+    @Test public void testBytesDataWriter() throws Exception {
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        writeSample(new DataOutputStream(expected));
+
+        final BytesDataWriter writer = new BytesDataWriter(16);
+        for(int round = 0; round < 3; round++) {
+            writeSample(writer.reset());
+            assertArrayEquals(expected.toByteArray(), writer.toByteArray());
+            assertEquals(expected.size(), writer.slice().remaining());
+        }
+    }
+
+    private static final long[] VLONGS = {0, 1, -1, 127, 128, -112, -113, 255, 256, -256, -257, 65535, 1L << 40,
+        Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, 1234567890123L, -1234567890123L};
+
+    private static final String[] TEXTS = {"", "DataMeta", "caf\u00E9 \u0416\u4E2D", "pair \uD83D\uDE00",
+        "unpaired \uD83D tail", "\uDE00"};
+
+    /**
+     * The compact encodings through the fast paths must match the Hadoop ones byte for byte.
+     */
+    private static void writeCompactSample(final DataOutput out, final boolean viaHadoop) throws Exception {
+        for(final long v: VLONGS) {
+            if(viaHadoop) writeVLong(out, v); else writeVLongFast(out, v);
+        }
+        for(int v = -300; v < 300; v += 7) {
+            if(viaHadoop) writeVInt(out, v); else writeVIntFast(out, v);
+        }
+        for(final String t: TEXTS) {
+            if(viaHadoop) writeString(out, t); else writeTextIfAny(out, t);
+        }
+    }
+
+    private static void readCompactSample(final DataInput in) throws Exception {
+        for(final long v: VLONGS) assertEquals(v, readVLongFast(in));
+        for(int v = -300; v < 300; v += 7) assertEquals(v, readVIntFast(in));
+        for(final String t: TEXTS) {
+            if(t.contains("unpaired") || t.equals("\uDE00")) readText(in); // replaced by the encoder, can't compare
+            else assertEquals(t, readText(in));
+        }
+    }
+
+    @Test public void testCompactCodecs() throws Exception {
+        final ByteArrayOutputStream expectedStream = new ByteArrayOutputStream();
+        writeCompactSample(new DataOutputStream(expectedStream), true);
+        final byte[] expected = expectedStream.toByteArray();
+
+        final BytesDataWriter writer = new BytesDataWriter(8);
+        writeCompactSample(writer, false);
+        assertArrayEquals(expected, writer.toByteArray());
+
+        for(final ByteBuffer target: new ByteBuffer[]{ByteBuffer.allocate(expected.length),
+            ByteBuffer.allocateDirect(expected.length)}) {
+            writeCompactSample(new ByteBufferDataOutput(target), false);
+            target.flip();
+            final byte[] actual = new byte[target.remaining()];
+            target.duplicate().get(actual);
+            assertArrayEquals(expected, actual);
+            readCompactSample(new ByteBufferDataInput(target));
+            assertEquals(0, target.remaining());
+        }
+        readCompactSample(new ByteBufferDataInput(ByteBuffer.wrap(expected)));
+    }
+
+    /**
+     * Minimal record for the file tests, the generated model does not come with the byte serializers.
+     */
+    public static class Sample implements DataMetaEntity {
+        static final SemanticVersion VERSION = SemanticVersion.parse("1.2.3");
+        long id;
+        String name;
+
+        Sample(final long id, final String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override public SemanticVersion getVersion() { return VERSION; }
+    }
+
+    public static class Sample_InOutable extends InOutable<Sample> {
+        static final Sample_InOutable INSTANCE = new Sample_InOutable();
+
+        public static Sample_InOutable getInstance() { return INSTANCE; }
+
+        @Override public Sample read(final DataInput in) throws java.io.IOException {
+            return read(in, new Sample(0, null));
+        }
+
+        @Override public Sample read(final DataInput in, final Sample val) throws java.io.IOException {
+            val.id = readVLongFast(in);
+            val.name = readText(in);
+            return val;
+        }
+
+        @Override public void write(final DataOutput out, final Sample val) throws java.io.IOException {
+            writeVLongFast(out, val.id);
+            writeTextIfAny(out, val.name);
+        }
+    }
+
+    /**
+     * Some names longer than the overlap so that there are records mapped on their own.
+     */
+    private static List<Sample> samples(final int count) {
+        final List<Sample> result = new ArrayList<>(count);
+        for(int i = 0; i < count; i++) {
+            final char[] name = new char[i % 97 == 0 ? 700 + i : i % 50];
+            Arrays.fill(name, (char) ('a' + i % 26));
+            result.add(new Sample(i * 1234567L - 5000, new String(name)));
+        }
+        return result;
+    }
+
+    @Test public void testRecordFile() throws Exception {
+        final List<Sample> expected = samples(3000);
+        final Path path = Files.createTempFile("dmRecFile", ".dmrf");
+        try {
+            final List<Long> offsets = new ArrayList<>();
+            try(RecordFileWriter<Sample> writer = new RecordFileWriter<>(path, Sample_InOutable.INSTANCE)) {
+                long offset = RecordFile.HEADER_SIZE;
+                for(final Sample s: expected) {
+                    offsets.add(offset);
+                    writer.save(s);
+                    offset += RecordFile.LENGTH_SIZE + new BytesDataWriter().writeVersioned(Sample_InOutable.INSTANCE, s).remaining();
+                }
+                assertEquals(expected.size(), writer.getCount());
+            }
+            // small segments to cross the boundaries often, default ones to map the whole file at once
+            for(final MappedRecordFile file: new MappedRecordFile[]{new MappedRecordFile(path, 4096, 512),
+                new MappedRecordFile(path)}) {
+                try(MappedRecordFile f = file) {
+                    final RecordFileReader<Sample> reader = new RecordFileReader<>(Sample_InOutable.INSTANCE);
+                    for(final Sample s: expected) {
+                        final Sample actual = reader.next(f);
+                        assertEquals(s.id, actual.id);
+                        assertEquals(s.name, actual.name);
+                    }
+                    assertNull(reader.next(f));
+                    assertEquals(f.size(), f.position());
+                    for(int ix = expected.size() - 1; ix >= 0; ix -= 7) {
+                        assertEquals(expected.get(ix).name, reader.read(f, offsets.get(ix)).name);
+                        if(ix + 1 < offsets.size()) assertEquals((long) offsets.get(ix + 1), f.nextOffset(offsets.get(ix)));
+                    }
+                }
+            }
+        }
+        finally {
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * Parallel stream over the file must see every record once, and in order when collected.
+     */
+    @Test public void testRecordFileStreams() throws Exception {
+        final List<Sample> expected = samples(10000);
+        final Path path = Files.createTempFile("dmRecFile", ".dmrf");
+        try {
+            try(RecordFileWriter<Sample> writer = new RecordFileWriter<>(path, Sample_InOutable.INSTANCE)) {
+                writer.saveAll(expected);
+            }
+            try(MappedRecordFile file = new MappedRecordFile(path, 8192, 1024)) {
+                final Spliterator<Sample> split = new RecordFileSpliterator<>(file, Sample_InOutable.INSTANCE, file.index(100));
+                assertEquals(expected.size(), split.getExactSizeIfKnown());
+                final Spliterator<Sample> prefix = split.trySplit();
+                assertEquals(expected.size(), prefix.estimateSize() + split.estimateSize());
+
+                final List<Long> ids = RecordFileSpliterator.stream(file, Sample_InOutable.INSTANCE, true)
+                    .map(s -> s.id).collect(Collectors.toList());
+                assertEquals(expected.stream().map(s -> s.id).collect(Collectors.toList()), ids);
+
+                final List<String> names = SourceIterator.stream(new RecordFileReader<>(Sample_InOutable.INSTANCE), file)
+                    .map(s -> s.name).collect(Collectors.toList());
+                assertEquals(expected.stream().map(s -> s.name).collect(Collectors.toList()), names);
+            }
+        }
+        finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test public void testParallelRecordFileReader() throws Exception {
+        final List<Sample> expected = samples(20000);
+        final Path path = Files.createTempFile("dmRecFile", ".dmrf");
+        try {
+            try(RecordFileWriter<Sample> writer = new RecordFileWriter<>(path, Sample_InOutable.INSTANCE)) {
+                writer.saveAll(expected);
+            }
+            try(MappedRecordFile file = new MappedRecordFile(path);
+                ParallelRecordFileReader<Sample> reader = new ParallelRecordFileReader<>(Sample_InOutable.INSTANCE, 333, 4)) {
+                final List<Sample> actual = reader.readAll(file);
+                assertEquals(expected.size(), actual.size());
+                for(int i = 0; i < expected.size(); i++) assertEquals(expected.get(i).id, actual.get(i).id);
+
+                final AtomicLong count = new AtomicLong(), sum = new AtomicLong();
+                reader.forEach(file, s -> {
+                    count.incrementAndGet();
+                    sum.addAndGet(s.id);
+                });
+                assertEquals(expected.size(), count.get());
+                assertEquals(expected.stream().mapToLong(s -> s.id).sum(), sum.get());
+            }
+        }
+        finally {
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * The primitive codecs must read what the boxed ones wrote and the other way around.
+     */
+    @Test public void testPrimitiveCodecs() throws Exception {
+        final List<Integer> ints = Arrays.asList(0, 1, -1, 300, -70000, Integer.MAX_VALUE, Integer.MIN_VALUE);
+        final List<Long> longs = Arrays.asList(0L, 5L, -129L, 1L << 40, Long.MIN_VALUE, Long.MAX_VALUE);
+        final List<Float> floats = Arrays.asList(0f, -1.5f, Float.MAX_VALUE, Float.NaN);
+        final List<Double> doubles = Arrays.asList(0d, Math.E, -Double.MIN_VALUE, Double.NEGATIVE_INFINITY);
+
+        final ByteArrayOutputStream boxed = new ByteArrayOutputStream();
+        final DataOutputStream boxedOut = new DataOutputStream(boxed);
+        writeListInteger(boxedOut, ints);
+        writeListLong(boxedOut, longs);
+        writeListFloat(boxedOut, floats);
+        writeListDouble(boxedOut, doubles);
+        writeSetInteger(boxedOut, new java.util.HashSet<>(ints));
+        writeSetLong(boxedOut, new java.util.HashSet<>(longs));
+
+        final BytesDataWriter prim = new BytesDataWriter();
+        final IntHashSet intSet = new IntHashSet();
+        final LongHashSet longSet = new LongHashSet();
+        ints.forEach(intSet::add);
+        longs.forEach(longSet::add);
+        writeListIntegerPrim(prim, ints.stream().mapToInt(Integer::intValue).toArray());
+        writeListLongPrim(prim, longs.stream().mapToLong(Long::longValue).toArray());
+        final float[] floatArray = new float[floats.size()];
+        for(int i = 0; i < floatArray.length; i++) floatArray[i] = floats.get(i);
+        writeListFloatPrim(prim, floatArray);
+        writeListDoublePrim(prim, doubles.stream().mapToDouble(Double::doubleValue).toArray());
+        writeSetIntegerPrim(prim, intSet);
+        writeSetLongPrim(prim, longSet);
+
+        for(final byte[] bytes: new byte[][]{boxed.toByteArray(), prim.toByteArray()}) {
+            for(final DataInput in: new DataInput[]{new ByteBufferDataInput(ByteBuffer.wrap(bytes)),
+                new java.io.DataInputStream(new java.io.ByteArrayInputStream(bytes))}) {
+                assertArrayEquals(ints.stream().mapToInt(Integer::intValue).toArray(), readListIntegerPrim(in));
+                assertArrayEquals(longs.stream().mapToLong(Long::longValue).toArray(), readListLongPrim(in));
+                assertArrayEquals(floatArray, readListFloatPrim(in), 0f);
+                assertArrayEquals(doubles.stream().mapToDouble(Double::doubleValue).toArray(), readListDoublePrim(in), 0d);
+                assertEquals(intSet, readSetIntegerPrim(in));
+                assertEquals(longSet, readSetLongPrim(in));
+            }
+        }
+        final DataInput in = new ByteBufferDataInput(ByteBuffer.wrap(prim.toByteArray()));
+        assertEquals(ints, readListInteger(in));
+        assertEquals(longs, readListLong(in));
+        assertEquals(floats, readListFloat(in));
+        assertEquals(doubles, readListDouble(in));
+        assertEquals(new java.util.HashSet<>(ints), readSetInteger(in));
+        assertEquals(new java.util.HashSet<>(longs), readSetLong(in));
+    }
+
+    /**
+     * The allocation-free datetime readers must agree with the full one.
+     */
+    @Test public void testDttmParts() throws Exception {
+        final List<ZonedDateTime> dttms = new ArrayList<>();
+        for(final String zone: getAllTzIds()) {
+            dttms.add(ZonedDateTime.of(2017, 3, 12, 2, 30, 15, 123000000, ZoneId.of(zone)));
+            dttms.add(ZonedDateTime.of(1969, 12, 31, 23, 59, 59, 999000000, ZoneId.of(zone)));
+        }
+        final BytesDataWriter out = new BytesDataWriter();
+        for(final ZonedDateTime dttm: dttms) writeDttm(out, dttm);
+        writeListZonedDateTime(out, dttms);
+
+        final DataInput in = new ByteBufferDataInput(out.slice());
+        final DttmParts parts = new DttmParts();
+        for(final ZonedDateTime dttm: dttms) {
+            assertEquals(dttm, readDttm(in, parts).toZonedDateTime());
+            assertEquals(dttm.toInstant(), parts.toInstant());
+            assertEquals(dttm.getZone(), parts.getZoneId());
+        }
+        final long[] millis = readListDttmMillis(in);
+        for(int i = 0; i < dttms.size(); i++) assertEquals(dttms.get(i).toInstant().toEpochMilli(), millis[i]);
+        final DataInput again = new ByteBufferDataInput(out.slice());
+        for(final ZonedDateTime dttm: dttms) assertEquals(dttm.toInstant(), readDttmInstant(again));
+    }
+
+    /**
+     * A corrupted length near the int range must fail as a truncated record, not overflow past the bounds check.
+     */
+    @Test public void testRecordFileCorruptedLength() throws Exception {
+        final Path path = Files.createTempFile("dmRecFile", ".dmrf");
+        try {
+            try(final RecordFileWriter<Sample> writer = new RecordFileWriter<>(path, Sample_InOutable.INSTANCE)) {
+                for(final Sample s: samples(10)) writer.write(s);
+            }
+            final byte[] bytes = Files.readAllBytes(path);
+            ByteBuffer.wrap(bytes).putInt(RecordFile.HEADER_SIZE, Integer.MAX_VALUE - 2);
+            Files.write(path, bytes);
+            try(final MappedRecordFile file = new MappedRecordFile(path)) {
+                try {
+                    file.record(RecordFile.HEADER_SIZE);
+                    fail("Read the corrupted record");
+                }
+                catch(java.io.IOException x) {
+                    assertTrue(x.getMessage(), x.getMessage().startsWith("Truncated record"));
+                }
+                try {
+                    file.nextRecord();
+                    fail("Read the corrupted record");
+                }
+                catch(java.io.IOException x) {
+                    assertTrue(x.getMessage(), x.getMessage().startsWith("Truncated record"));
+                }
+            }
+        }
+        finally {
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * The files written with a newer time zone dictionary than this one must be refused on open, with the upgrade hint.
+     */
+    @Test public void testTzDictionaryVersionCheck() throws Exception {
+        final Path recordPath = Files.createTempFile("dmRecFile", ".dmrf");
+        final Path blockPath = Files.createTempFile("dmBlockFile", ".dmbf");
+        try {
+            try(final RecordFileWriter<Sample> writer = new RecordFileWriter<>(recordPath, Sample_InOutable.INSTANCE)) {
+                writer.write(new Sample(1, "one"));
+            }
+            try(final BlockFileWriter<Sample> writer = new BlockFileWriter<>(blockPath, Sample_InOutable.INSTANCE,
+                Sample.class, Sample.VERSION)) {
+                writer.write(new Sample(1, "one"));
+            }
+            try(final MappedRecordFile file = new MappedRecordFile(recordPath)) {
+                assertEquals(RecordFile.HEADER_SIZE, file.dataStart());
+            }
+            try(final java.io.InputStream in = Files.newInputStream(blockPath)) {
+                assertEquals(TzDictionary.VERSION, BlockFile.readHeader(in, blockPath).getTzVersion());
+            }
+            // the dictionary version follows the magic and the format version in both
+            for(final Path path: new Path[]{recordPath, blockPath}) {
+                final byte[] bytes = Files.readAllBytes(path);
+                ByteBuffer.wrap(bytes).putInt(8, TzDictionary.VERSION + 1);
+                Files.write(path, bytes);
+            }
+            try(final MappedRecordFile file = new MappedRecordFile(recordPath)) {
+                fail("Opened " + file);
+            }
+            catch(java.io.IOException x) {
+                assertTrue(x.getMessage(), x.getMessage().contains("upgrade"));
+            }
+            try(final java.io.InputStream in = Files.newInputStream(blockPath)) {
+                BlockFile.readHeader(in, blockPath);
+                fail("Read the header of " + blockPath);
+            }
+            catch(java.io.IOException x) {
+                assertTrue(x.getMessage(), x.getMessage().contains("upgrade"));
+            }
+        }
+        finally {
+            Files.delete(recordPath);
+            Files.delete(blockPath);
+        }
+    }
+
+    /**
+     * The keys of the first dictionary version must never change, the zones out of the dictionary must go by ID,
+     * the registered ones by their keys.
+     */
+    @Test public void testTzDictionary() throws Exception {
+        // a dictionary of its own: the registrations must not leak into the shared one the other tests use
+        final TzDictionary tzd = TzDictionary.newInstance();
+        final String[] v1 = {"Z", "UTC", "GMT", "America/New_York", "America/Chicago", "America/Denver",
+            "America/Phoenix", "America/Los_Angeles", "America/Anchorage", "Pacific/Honolulu"};
+        assertEquals(v1.length, TzDictionary.builtInCount(1));
+        for(int key = 0; key < v1.length; key++) assertEquals(key, tzd.getKey(v1[key]));
+        assertEquals(TzDictionary.ID_KEY, tzd.getKey("Asia/Kathmandu"));
+
+        tzd.register("America/Halifax", TzDictionary.CUSTOM_KEY_BASE + 1);
+        tzd.register("America/Halifax", TzDictionary.CUSTOM_KEY_BASE + 1); // same pair again is fine
+        assertEquals(TzDictionary.CUSTOM_KEY_BASE + 1, tzd.getKey("America/Halifax"));
+        assertEquals(TzDictionary.ID_KEY, TzDictionary.getInstance().getKey("America/Halifax"));
+        final List<ZonedDateTime> dttms = new ArrayList<>();
+        for(final String zone: new String[]{"UTC", "Asia/Tokyo", "Europe/London", "Asia/Kathmandu", "+05:30",
+            "America/Halifax"}) dttms.add(ZonedDateTime.of(2018, 6, 30, 12, 0, 0, 0, ZoneId.of(zone)));
+        final BytesDataWriter zones = new BytesDataWriter();
+        for(final ZonedDateTime dttm: dttms) tzd.write(zones, dttm.getZone());
+        final DataInput zonesIn = new ByteBufferDataInput(zones.slice());
+        for(final ZonedDateTime dttm: dttms) assertEquals(dttm.getZone(), tzd.read(zonesIn));
+
+        // the shared dictionary through the helpers, the Halifax goes by ID there
+        final BytesDataWriter out = new BytesDataWriter();
+        for(final ZonedDateTime dttm: dttms) writeDttm(out, dttm);
+        final DataInput in = new ByteBufferDataInput(out.slice());
+        for(final ZonedDateTime dttm: dttms) assertEquals(dttm, readDttm(in));
+        final DataInput millis = new ByteBufferDataInput(out.slice());
+        final DttmParts parts = new DttmParts();
+        for(final ZonedDateTime dttm: dttms) {
+            assertEquals(dttm.toInstant().toEpochMilli(), readDttmMillis(millis));
+        }
+        final DataInput partsIn = new ByteBufferDataInput(out.slice());
+        for(final ZonedDateTime dttm: dttms) assertEquals(dttm, readDttm(partsIn, parts).toZonedDateTime());
+    }
+
+    /**
+     * The key type as the users would declare it.
+     */
+    public static class SampleWritable extends InOutableWritable<Sample> {
+        static final InOutableRawComparator ORDER = new InOutableRawComparator(SampleWritable.class,
+            FieldKind.VLONG, FieldKind.TEXT);
+
+        static { WritableComparator.define(SampleWritable.class, ORDER); }
+
+        public SampleWritable() { super(Sample_InOutable.INSTANCE, ORDER); }
+    }
+
+    private static int naturalOrder(final Sample a, final Sample b) {
+        final int result = Long.compare(a.id, b.id);
+        return result != 0 ? result : a.name.compareTo(b.name);
+    }
+
+    /**
+     * The raw comparison must give the same order as the deserialized records, with the negative and the large ids
+     * and the multibyte names, versioned or not; the equal keys must hash the same.
+     */
+    @Test public void testRawComparator() throws Exception {
+        final Random random = new Random(42);
+        final String[] names = {"", "a", "ab", "b", "\u00e9t\u00e9", "\u0436", "\u4e2d\u6587", "z"};
+        final long[] ids = {Long.MIN_VALUE, -1_000_000_000_000L, -129, -112, -1, 0, 1, 127, 128, 65536, Long.MAX_VALUE};
+        final List<Sample> samples = new ArrayList<>();
+        for(int ix = 0; ix < 400; ix++) samples.add(new Sample(ix % 3 == 0 ? ids[random.nextInt(ids.length)]
+            : random.nextInt(2001) - 1000, names[random.nextInt(names.length)]));
+
+        // what the shuffle looks up for the key class
+        assertSame(SampleWritable.ORDER, WritableComparator.get(SampleWritable.class));
+
+        final Configuration conf = new Configuration(false);
+        conf.set(InOutableRawComparator.KINDS_KEY, "VERSION, VLONG, TEXT");
+        final InOutableRawComparator versioned = new InOutableRawComparator();
+        versioned.setConf(conf);
+
+        for(int ix = 0; ix < samples.size(); ix++) {
+            final Sample a = samples.get(ix);
+            final Sample b = samples.get(random.nextInt(samples.size()));
+            final int expected = Integer.signum(naturalOrder(a, b));
+            final byte[] ab = BytesDataIoUtil.write(Sample_InOutable.INSTANCE, a);
+            final byte[] bb = BytesDataIoUtil.write(Sample_InOutable.INSTANCE, b);
+            assertEquals(a.id + " " + a.name + " vs " + b.id + " " + b.name, expected,
+                Integer.signum(SampleWritable.ORDER.compare(ab, 0, ab.length, bb, 0, bb.length)));
+            final byte[] av = BytesDataIoUtil.writeVersioned(Sample_InOutable.INSTANCE, a);
+            final byte[] bv = BytesDataIoUtil.writeVersioned(Sample_InOutable.INSTANCE, b);
+            assertEquals(expected, Integer.signum(versioned.compare(av, 0, av.length, bv, 0, bv.length)));
+
+            final SampleWritable aw = new SampleWritable();
+            aw.set(a);
+            final SampleWritable bw = new SampleWritable();
+            bw.set(b);
+            assertEquals(expected, Integer.signum(aw.compareTo(bw)));
+            if(expected == 0) assertEquals(aw.hashCode(), bw.hashCode());
+        }
+
+        // the instant decides, the zone does not
+        final InOutableRawComparator byDttm = new InOutableRawComparator(FieldKind.DTTM, FieldKind.BOOLEAN);
+        final BytesDataWriter out = new BytesDataWriter();
+        final ZonedDateTime utc = ZonedDateTime.of(2018, 6, 30, 12, 0, 0, 0, ZoneId.of("UTC"));
+        writeDttm(out, utc);
+        out.writeBoolean(true);
+        final byte[] first = out.toByteArray();
+        writeDttm(out.reset(), utc.withZoneSameInstant(ZoneId.of("Asia/Kathmandu")));
+        out.writeBoolean(true);
+        final byte[] second = out.toByteArray();
+        writeDttm(out.reset(), utc.minusNanos(1_000_000));
+        out.writeBoolean(true);
+        final byte[] earlier = out.toByteArray();
+        assertEquals(0, byDttm.compare(first, 0, first.length, second, 0, second.length));
+        assertEquals(byDttm.hashKey(first, 0, first.length), byDttm.hashKey(second, 0, second.length));
+        assertEquals(1, Integer.signum(byDttm.compare(second, 0, second.length, earlier, 0, earlier.length)));
+    }
+
+    /**
+     * The writable must read into the record it holds.
+     */
+    @Test public void testInOutableWritable() throws Exception {
+        final SampleWritable source = new SampleWritable();
+        source.set(new Sample(-77, "seventy-seven"));
+        final BytesDataWriter out = new BytesDataWriter();
+        source.write(out);
+        source.set(new Sample(5, "five")).write(out);
+
+        final SampleWritable target = new SampleWritable();
+        final DataInput in = new ByteBufferDataInput(out.slice());
+        target.readFields(in);
+        final Sample first = target.get();
+        assertEquals(-77, first.id);
+        assertEquals("seventy-seven", first.name);
+        target.readFields(in);
+        assertSame(first, target.get());
+        assertEquals(5, first.id);
+        assertEquals("five", first.name);
+        assertEquals(source, target);
+    }
+
+    /**
+     * The entities must go through the Hadoop serialization framework as they are, the generated InOutable found
+     * by the name, the record reused on read.
+     */
+    @Test public void testDataMetaSerialization() throws Exception {
+        final Configuration conf = DataMetaSerialization.addTo(new Configuration(false));
+        DataMetaSerialization.addTo(conf);
+        assertEquals(2, conf.getStrings("io.serializations").length);
+        final SerializationFactory factory = new SerializationFactory(conf);
+        assertNull(factory.getSerialization(String.class));
+        assertFalse(new DataMetaSerialization().accept(DataMetaEntity.class));
+        assertSame(Sample_InOutable.INSTANCE, DataMetaSerialization.getInOutable(Sample.class));
+
+        final List<Sample> expected = samples(50);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final Serializer<Sample> serializer = factory.getSerializer(Sample.class);
+        serializer.open(bytes);
+        for(final Sample sample: expected) serializer.serialize(sample);
+        serializer.close();
 
+        final Deserializer<Sample> deserializer = factory.getDeserializer(Sample.class);
+        deserializer.open(new ByteArrayInputStream(bytes.toByteArray()));
+        final Sample reused = deserializer.deserialize(null);
+        assertEquals(expected.get(0).id, reused.id);
+        for(final Sample sample: expected.subList(1, expected.size())) {
+            assertSame(reused, deserializer.deserialize(reused));
+            assertEquals(sample.id, reused.id);
+            assertEquals(sample.name, reused.name);
+        }
+        deserializer.close();
+    }
+
+    /**
+     * The entities must go into a SequenceFile as the keys and the values, and come back through the reused instances.
+     */
+    @Test public void testDataMetaSerializationSequenceFile() throws Exception {
+        final Configuration conf = DataMetaSerialization.addTo(new Configuration());
+        final Path dir = Files.createTempDirectory("dmSeqFile");
+        final org.apache.hadoop.fs.Path path = new org.apache.hadoop.fs.Path(dir.toUri().toString(), "samples.seq");
+        try {
+            final List<Sample> expected = samples(200);
+            try(final SequenceFile.Writer writer = SequenceFile.createWriter(conf, SequenceFile.Writer.file(path),
+                SequenceFile.Writer.keyClass(Sample.class), SequenceFile.Writer.valueClass(Sample.class))) {
+                for(final Sample sample: expected) writer.append(sample, new Sample(-sample.id, sample.name + "!"));
+            }
+            try(final SequenceFile.Reader reader = new SequenceFile.Reader(conf, SequenceFile.Reader.file(path))) {
+                assertEquals(Sample.class, reader.getKeyClass());
+                assertEquals(Sample.class, reader.getValueClass());
+                final Sample key = new Sample(0, null);
+                final Sample value = new Sample(0, null);
+                int count = 0;
+                for(Object next = reader.next(key); next != null; next = reader.next(key), count++) {
+                    assertSame(key, next);
+                    assertSame(value, reader.getCurrentValue(value));
+                    final Sample sample = expected.get(count);
+                    assertEquals(sample.id, key.id);
+                    assertEquals(sample.name, key.name);
+                    assertEquals(-sample.id, value.id);
+                    assertEquals(sample.name + "!", value.name);
+                }
+                assertEquals(expected.size(), count);
+            }
+        }
+        finally {
+            FileSystem.getLocal(conf).delete(new org.apache.hadoop.fs.Path(dir.toUri().toString()), true);
+        }
+    }
+
+    private static int compareKeys(final byte[] a, final byte[] b) {
+        return Integer.signum(WritableComparator.compareBytes(a, 0, a.length, b, 0, b.length));
+    }
+
+    private static <T extends Comparable<T>> int compareNullsFirst(final T a, final T b) {
+        if(a == null) return b == null ? 0 : -1;
+        return b == null ? 1 : Integer.signum(a.compareTo(b));
+    }
+
+    /**
+     * The unsigned byte order of the keys must be the logical order of the fields, each field must read back.
+     */
+    @Test public void testOrderedKeys() throws Exception {
+        final Random random = new Random(7);
+        final String[] strings = {null, "", "\u0000", "a", "a\u0000", "a\u0000b", "ab", "b", "\u00e9", "\u4e2d",
+            "\ud83d\ude00"};
+        final BigDecimal[] decimals = {null, new BigDecimal("-1000"), new BigDecimal("-12.5"), new BigDecimal("-12.45"),
+            new BigDecimal("-1"), new BigDecimal("-0.001"), BigDecimal.ZERO, new BigDecimal("0.00"),
+            new BigDecimal("0.0012"), new BigDecimal("0.1"), new BigDecimal("0.10"), new BigDecimal("0.105"),
+            BigDecimal.ONE, new BigDecimal("1.5"), new BigDecimal("9.99"), BigDecimal.TEN, new BigDecimal("10.01"),
+            new BigDecimal("123456789012345678901234567890.5"), new BigDecimal("1E+40")};
+        final long[] longs = {Long.MIN_VALUE, -65536, -1, 0, 1, 255, 256, Long.MAX_VALUE};
+        final TimeUnit[] units = TimeUnit.values();
+        final ZonedDateTime base = ZonedDateTime.of(2018, 6, 30, 12, 0, 0, 0, ZoneId.of("America/Chicago"));
+        final OrderedKeyEncoder encoder = new OrderedKeyEncoder(4);
+
+        for(int ix = 0; ix < 2000; ix++) {
+            final long l1 = longs[random.nextInt(longs.length)], l2 = longs[random.nextInt(longs.length)];
+            final int i1 = random.nextInt(), i2 = random.nextInt();
+            final String s1 = strings[random.nextInt(strings.length)], s2 = strings[random.nextInt(strings.length)];
+            final BigDecimal d1 = decimals[random.nextInt(decimals.length)],
+                d2 = decimals[random.nextInt(decimals.length)];
+            final ZonedDateTime t1 = base.plusHours(random.nextInt(5) - 2).withZoneSameInstant(ZoneId.of("Asia/Tokyo")),
+                t2 = base.plusHours(random.nextInt(5) - 2);
+            final TimeUnit e1 = random.nextInt(8) == 0 ? null : units[random.nextInt(units.length)],
+                e2 = units[random.nextInt(units.length)];
+
+            assertEquals(Long.compare(l1, l2), compareKeys(encoder.reset().writeLong(l1).toByteArray(),
+                encoder.reset().writeLong(l2).toByteArray()));
+            assertEquals(Integer.compare(i1, i2), compareKeys(encoder.reset().writeInt(i1).toByteArray(),
+                encoder.reset().writeInt(i2).toByteArray()));
+            assertEquals(s1 + " vs " + s2, compareNullsFirst(s1, s2), compareKeys(
+                encoder.reset().writeString(s1).toByteArray(), encoder.reset().writeString(s2).toByteArray()));
+            assertEquals(d1 + " vs " + d2, compareNullsFirst(d1, d2), compareKeys(
+                encoder.reset().writeBigDecimal(d1).toByteArray(), encoder.reset().writeBigDecimal(d2).toByteArray()));
+            assertEquals(Integer.signum(t1.toInstant().compareTo(t2.toInstant())), compareKeys(
+                encoder.reset().writeDttm(t1).toByteArray(), encoder.reset().writeDttm(t2).toByteArray()));
+            assertEquals(compareNullsFirst(e1, e2), compareKeys(encoder.reset().writeEnum(e1).toByteArray(),
+                encoder.reset().writeEnum(e2).toByteArray()));
+
+            // composite: the string decides unless equal, then the long
+            final int expected = s1 == null ? (s2 == null ? Long.compare(l1, l2) : -1) : s2 == null ? 1
+                : s1.equals(s2) ? Long.compare(l1, l2) : Integer.signum(s1.compareTo(s2));
+            final byte[] k1 = encoder.reset().writeString(s1).writeLong(l1).writeBigDecimal(d1).writeDttm(t1)
+                .writeEnum(e1).writeInt(i1).writeBoolean(ix % 2 == 0).toByteArray();
+            assertEquals(expected, compareKeys(k1, encoder.reset().writeString(s2).writeLong(l2).writeBigDecimal(d1)
+                .writeDttm(t1).writeEnum(e1).writeInt(i1).writeBoolean(ix % 2 == 0).toByteArray()));
+
+            final OrderedKeyDecoder decoder = new OrderedKeyDecoder(k1);
+            assertEquals(s1, decoder.readString());
+            assertEquals(l1, decoder.readLong());
+            final BigDecimal d = decoder.readBigDecimal();
+            if(d1 == null) assertNull(d);
+            else assertEquals(0, d1.compareTo(d));
+            assertEquals(t1.toInstant(), decoder.readDttm().toInstant());
+            assertEquals(e1, decoder.readEnum(units));
+            assertEquals(i1, decoder.readInt());
+            assertEquals(ix % 2 == 0, decoder.readBoolean());
+            assertEquals(0, decoder.remaining());
+        }
+    }
+
+    private static List<Sample> readBlockRange(final Path path, final long start, final long end) {
+        final List<Sample> result = new ArrayList<>();
+        try(final BlockFileReader<Sample> reader = BlockFileReader.open(path, start, end, Sample_InOutable.INSTANCE)) {
+            for(Sample s = reader.read(); s != null; s = reader.read()) result.add(s);
+        }
+        catch(java.io.IOException x) {
+            throw new java.io.UncheckedIOException(x);
+        }
+        return result;
+    }
+
+    /**
+     * The byte ranges cut anywhere, read in parallel, must read every record once, in order, with every codec;
+     * the compressed files must come out smaller.
+     */
+    @Test public void testBlockFile() throws Exception {
+        final List<Sample> expected = samples(3000);
+        long plainSize = 0;
+        for(final BlockCodec codec: new BlockCodec[]{BlockCodecs.NONE, BlockCodecs.deflate(1),
+            BlockCodecs.hadoop(ReflectionUtils.newInstance(DefaultCodec.class, new Configuration()))}) {
+            final Path path = Files.createTempFile("dmBlockFile", ".dmbf");
+            try {
+                try(final BlockFileWriter<Sample> writer = new BlockFileWriter<>(Files.newOutputStream(path),
+                    Sample_InOutable.INSTANCE, new BlockFile.Header(Sample.class.getName(), Sample.VERSION,
+                    codec.getName()), 2000, codec)) {
+                    for(final Sample s: expected) writer.write(s);
+                    assertEquals(expected.size(), writer.getCount());
+                }
+                final long size = Files.size(path);
+                try(final java.io.InputStream in = Files.newInputStream(path)) {
+                    final BlockFile.Header header = BlockFile.readHeader(in, path);
+                    assertEquals(Sample.class.getName(), header.getDataType());
+                    assertEquals(Sample.VERSION, header.getVersion());
+                    assertEquals(codec.getName(), header.getCodec());
+                }
+                if(codec == BlockCodecs.NONE) plainSize = size;
+                else assertTrue(codec.getName() + ": " + size + " vs " + plainSize, size * 2 < plainSize);
+
+                final Random random = new Random(11);
+                for(final int splits: new int[]{1, 2, 7, 64, 500}) {
+                    final long[] cuts = new long[splits + 1];
+                    for(int ix = 1; ix < splits; ix++) cuts[ix] = (long) (random.nextDouble() * size);
+                    cuts[splits] = size;
+                    Arrays.sort(cuts);
+                    final List<Sample> actual = IntStream.range(0, splits).parallel()
+                        .mapToObj(ix -> readBlockRange(path, cuts[ix], cuts[ix + 1]))
+                        .flatMap(List::stream).collect(Collectors.toList());
+                    assertEquals(expected.size(), actual.size());
+                    for(int ix = 0; ix < expected.size(); ix++) {
+                        assertEquals(expected.get(ix).id, actual.get(ix).id);
+                        assertEquals(expected.get(ix).name, actual.get(ix).name);
+                    }
+                }
+            }
+            finally {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static final AtomicBoolean NOT_A_CODEC_INITIALIZED = new AtomicBoolean();
+
+    /**
+     * Any class named in a file header, its static initializer must not run.
+     */
+    public static class NotACodec {
+        static { NOT_A_CODEC_INITIALIZED.set(true); }
+    }
+
+    /**
+     * The codec name from the file must not initialize the classes that are not codecs.
+     */
+    @Test public void testBlockCodecForName() throws Exception {
+        assertSame(BlockCodecs.NONE, BlockCodecs.forName(BlockCodecs.NONE_NAME));
+        try(final BlockCodec codec = BlockCodecs.forName(DefaultCodec.class.getName())) {
+            assertEquals(DefaultCodec.class.getName(), codec.getName());
+        }
+        try {
+            BlockCodecs.forName(NotACodec.class.getName());
+            fail("Took a non-codec for a codec");
+        }
+        catch(IllegalArgumentException x) {
+            assertFalse(NOT_A_CODEC_INITIALIZED.get());
+        }
+        try {
+            BlockCodecs.forName("no.such.Codec", new Configuration(false));
+            fail("Found a missing codec");
+        }
+        catch(IllegalArgumentException x) {
+            L.info("Expected: {}", x.getMessage());
+        }
+    }
 }
@@ -0,0 +1,124 @@
+package org.ebay.datameta.ser.jackson.fasterxml;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import static org.ebay.datameta.ser.jackson.fasterxml.JacksonUtil.DT_KEY;
+import static org.ebay.datameta.ser.jackson.fasterxml.JacksonUtil.VER_KEY;
+
+/**
+ * The field names of a record, numbered in the order they are written, for the {@link Jsonable}s that would rather
+ * not look the names up as <tt>String</tt>s for every field:
+ * <ul>
+ * <li>On write, the names are {@link SerializableString}s, quoted and encoded once, see {@link #write(JsonGenerator, int)}.</li>
+ * <li>On read, the {@link #nextField(JsonParser, int)} first checks for the field that follows the previous one with
+ * the {@link JsonParser#nextFieldName(SerializableString)}, which for the byte parsers compares the raw bytes without
+ * making the <tt>String</tt>. The records written by the same {@link Jsonable} come with the fields in that order,
+ * so the fast path nearly always hits; otherwise the name is looked up in the table.</li>
+ * </ul>
+ * The reading loop then switches on the <tt>int</tt>:
+ * <pre>
+ *   for(int f = FIELDS.nextField(in, FieldNames.NONE); f != FieldNames.END; f = FIELDS.nextField(in, f)) {
+ *     switch(f) {
+ *       case 0: target.setId(in.getText()); break;
+ *       ...
+ *       default:
+ *         if(!ignoreUnknown) throw new IllegalArgumentException("Unhandled field " + in.getCurrentName());
+ *         in.skipChildren();
+ *     }
+ *   }
+ * </pre>
+ * The envelope fields, {@link JacksonUtil#VER_KEY} and {@link JacksonUtil#DT_KEY}, are skipped.
+ * <p>Immutable and thread-safe, make one per {@link Jsonable} with the {@link Jsonable#fieldNames(String...)}.</p>
+ *
+ * @author Michael Bergens
+ */
+public final class FieldNames {
+
+  /**
+   * Pass it to the {@link #nextField(JsonParser, int)} for the first field of the object.
+   */
+  public static final int NONE = -1;
+
+  /**
+   * The {@link #nextField(JsonParser, int)} got to the end of the object.
+   */
+  public static final int END = -2;
+
+  /**
+   * The {@link #nextField(JsonParser, int)} got to a field that is not in the table.
+   */
+  public static final int UNKNOWN = -3;
+
+  private final SerializedString[] names;
+  private final Map<String, Integer> indexes;
+
+  public FieldNames(final String... names) {
+    this.names = new SerializedString[names.length];
+    indexes = new HashMap<>(names.length * 4 / 3 + 1);
+    for(int ix = 0; ix < names.length; ix++) {
+      this.names[ix] = new SerializedString(names[ix]);
+      if(indexes.put(names[ix], ix) != null) throw new IllegalArgumentException("Duplicate field name " + names[ix]);
+    }
+  }
+
+  public int size() { return names.length; }
+
+  /**
+   * The name of the field as the {@link SerializableString}.
+   */
+  public SerializableString name(final int index) { return names[index]; }
+
+  /**
+   * Writes the name of the field, the value should follow.
+   */
+  public void write(final JsonGenerator out, final int index) throws IOException {
+    out.writeFieldName(names[index]);
+  }
+
+  /**
+   * The index of the name, looked up in the table.
+   * @return {@link #UNKNOWN} if there is no such name.
+   */
+  public int indexOf(final String name) {
+    final Integer result = indexes.get(name);
+    return result == null ? UNKNOWN : result;
+  }
+
+  /**
+   * Advances the parser to the value of the next field, skipping the envelope.
+   * The parser should be positioned before the object, on its start or on the value of the previous field;
+   * a value that is an object or an array must have been read through or skipped.
+   * @param previous the result of the previous call, {@link #NONE} for the first field; the field that follows
+   *                 this one is checked first.
+   * @return the index of the field, {@link #UNKNOWN} for a name that is not in the table or {@link #END} past the end
+   * of the object.
+   */
+  public int nextField(final JsonParser in, final int previous) throws IOException {
+    final int expected = previous >= NONE && previous + 1 < names.length ? previous + 1 : NONE;
+    while(true) {
+      if(expected == NONE) in.nextToken();
+      else if(in.nextFieldName(names[expected])) {
+        in.nextToken();
+        return expected;
+      }
+      final JsonToken t = in.currentToken();
+      if(t == JsonToken.FIELD_NAME) {
+        final String name = in.getCurrentName();
+        in.nextToken();
+        final int index = indexOf(name);
+        if(index != UNKNOWN || !(VER_KEY.equals(name) || DT_KEY.equals(name))) return index;
+      }
+      else if(t == JsonToken.END_OBJECT) return END;
+      else if(t != JsonToken.START_OBJECT || previous != NONE)
+        throw new IllegalArgumentException("Expected a field name, got " + t + " at " + in.getCurrentLocation());
+    }
+  }
+}
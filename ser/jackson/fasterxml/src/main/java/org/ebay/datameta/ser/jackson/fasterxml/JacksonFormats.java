@@ -0,0 +1,39 @@
+package org.ebay.datameta.ser.jackson.fasterxml;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * The {@link JacksonUtil} instances for the Jackson binary formats, for compact and faster to parse payloads
+ * between the services that both use the same {@link Jsonable}s. The records keep the envelope,
+ * {@link JacksonUtil#VER_KEY} and {@link JacksonUtil#DT_KEY}, so the {@link JsonableDispatcher} and the
+ * {@link VerAndDataType} work on the parsers of these formats as well.
+ * <p>The format modules are optional dependencies: add <tt>jackson-dataformat-smile</tt> or
+ * <tt>jackson-dataformat-cbor</tt> to use the respective format. Each instance is created on the first use,
+ * hence a missing module only matters for the format that is asked for.</p>
+ *
+ * @author Michael Bergens
+ */
+public final class JacksonFormats {
+
+  private JacksonFormats() {}
+
+  private static class SmileHolder {
+    private static final JacksonUtil INSTANCE = JacksonUtil.withFactory(new SmileFactory());
+  }
+
+  private static class CborHolder {
+    private static final JacksonUtil INSTANCE = JacksonUtil.withFactory(new CBORFactory());
+  }
+
+  /**
+   * The <a href="https://github.com/FasterXML/smile-format-specification">Smile</a> format: binary JSON with
+   * the back references to the repeated field names and short strings.
+   */
+  public static JacksonUtil smile() { return SmileHolder.INSTANCE; }
+
+  /**
+   * The <a href="https://tools.ietf.org/html/rfc7049">CBOR</a> format, RFC 7049.
+   */
+  public static JacksonUtil cbor() { return CborHolder.INSTANCE; }
+}
@@ -1,29 +1,48 @@
 package org.ebay.datameta.ser.jackson.fasterxml;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
+import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedOutputStream;
 import static com.fasterxml.jackson.core.JsonToken.END_ARRAY;
 import static com.fasterxml.jackson.core.JsonToken.END_OBJECT;
+import static com.fasterxml.jackson.core.JsonToken.START_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_NULL;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_NUMBER_INT;
 import static org.apache.commons.lang3.ArrayUtils.toObject;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.ebay.datameta.dom.BitSet;
 import org.ebay.datameta.dom.DataMetaEntity;
 import org.ebay.datameta.dom.DateTimeUtil;
+import org.ebay.datameta.dom.SourceIterator;
+import org.ebay.datameta.dom.ThrowingFunction;
 
 
 /** Jackson Utilities for FasterXML: provide methods similar to the Byte Array Serializers, can be used also
@@ -40,7 +59,17 @@ public class JacksonUtil {
 
   private final static DateTimeUtil DTU = DateTimeUtil.getInstance();
 
-  private final JsonFactory jf = new JsonFactory();
+  private final JsonFactory jf;
+
+  /**
+   * Whether the factory is the textual JSON one, the binary formats write a header per document.
+   */
+  private final boolean textual;
+
+  /**
+   * See {@link #writeObjectBytes(Jsonable, DataMetaEntity)}.
+   */
+  private final ThreadLocal<PooledGenerator> pooledGenerator;
 
   /**
    * The JSON key for the version of the record, namely {@link DataMetaEntity#getVersion()}.
@@ -53,26 +82,196 @@ public class JacksonUtil {
    */
   public final static String DT_KEY = "*dt*";
 
-  private JacksonUtil() {}
+  private JacksonUtil() {
+    this(new JsonFactory());
+  }
+
+  private JacksonUtil(final JsonFactory jf) {
+    this.jf = jf;
+    textual = JsonFactory.FORMAT_NAME_JSON.equals(jf.getFormatName());
+    pooledGenerator = ThreadLocal.withInitial(() -> new PooledGenerator(jf));
+  }
+
+  /**
+   * An instance that writes and reads the records, same envelope, with the given factory, such as the binary
+   * <tt>SmileFactory</tt> or <tt>CBORFactory</tt>, see the {@link JacksonFormats}. The {@link Jsonable}s work
+   * with any factory unchanged. The binary formats can only go to and from the bytes: the overloads that take
+   * a <tt>String</tt> or a {@link Writer} throw the {@link UnsupportedOperationException} for those.
+   * <p>Each call makes a new instance: keep it.</p>
+   */
+  public static JacksonUtil withFactory(final JsonFactory jf) {
+    return new JacksonUtil(jf);
+  }
 
   public JsonFactory getJf() { return jf; }
 
-  public <T extends DataMetaEntity> String writeObject(final Jsonable<T> out,
-                                                       final T v) throws IOException {
-    final StringWriter w = new StringWriter(8000);
-    final JsonGenerator generator = jf.createGenerator(w);
+  /**
+   * Writes the record with the envelope: the {@link #VER_KEY} and the {@link #DT_KEY} first, then the fields.
+   */
+  private <T extends DataMetaEntity> void writeEnvelope(final JsonGenerator generator, final Jsonable<T> out,
+                                                        final T v) throws IOException {
     generator.writeStartObject();
     generator.writeStringField(VER_KEY, v.getVersion().toString());
     generator.writeStringField(DT_KEY, v.getClass().getName());
     out.write(generator, v);
+    generator.writeEndObject();
+  }
+
+  /**
+   * Convenience wrapper, for the bytes see {@link #writeObjectBytes(Jsonable, DataMetaEntity)} and the streaming
+   * overloads that skip the <tt>String</tt>.
+   */
+  public <T extends DataMetaEntity> String writeObject(final Jsonable<T> out,
+                                                       final T v) throws IOException {
+    final StringWriter w = new StringWriter(8000);
+    final JsonGenerator generator = jf.createGenerator(w);
+    writeEnvelope(generator, out, v);
     generator.close();
     return w.toString();
   }
 
+  /**
+   * Writes the record as UTF-8 straight into the stream, which is flushed but not closed.
+   */
+  public <T extends DataMetaEntity> void writeObject(final Jsonable<T> out, final T v,
+                                                     final OutputStream target) throws IOException {
+    final JsonGenerator generator = jf.createGenerator(target, JsonEncoding.UTF8);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    writeEnvelope(generator, out, v);
+    generator.close();
+  }
+
+  /**
+   * Writes the record straight into the writer, which is flushed but not closed.
+   */
+  public <T extends DataMetaEntity> void writeObject(final Jsonable<T> out, final T v,
+                                                     final Writer target) throws IOException {
+    final JsonGenerator generator = jf.createGenerator(target);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    writeEnvelope(generator, out, v);
+    generator.close();
+  }
+
+  /**
+   * Writes the record as UTF-8 into the buffer from its position, advancing it.
+   * @throws java.nio.BufferOverflowException if the record does not fit.
+   */
+  public <T extends DataMetaEntity> void writeObject(final Jsonable<T> out, final T v,
+                                                     final ByteBuffer target) throws IOException {
+    writeObject(out, v, new ByteBufferBackedOutputStream(target));
+  }
+
+  /**
+   * Writes the record as UTF-8 through this thread's generator, which stays open and writes into a reused buffer,
+   * and returns the exact size copy. A binary format gets a new generator per record.
+   */
+  public <T extends DataMetaEntity> byte[] writeObjectBytes(final Jsonable<T> out, final T v) throws IOException {
+    if(!textual) { // the binary formats need a header per document, which only a new generator writes
+      final ByteArrayBuilder buffer = new ByteArrayBuilder();
+      try(final JsonGenerator generator = jf.createGenerator(buffer, JsonEncoding.UTF8)) {
+        writeEnvelope(generator, out, v);
+      }
+      return buffer.toByteArray();
+    }
+    PooledGenerator pooled = pooledGenerator.get();
+    if(pooled == null) pooled = new PooledGenerator(jf); // recursive call, the thread's one is busy
+    pooledGenerator.set(null);
+    try {
+      writeEnvelope(pooled.generator, out, v);
+      pooled.generator.flush();
+      final byte[] result = pooled.buffer.toByteArray();
+      pooled.buffer.reset();
+      pooledGenerator.set(pooled);
+      return result;
+    }
+    finally {
+      // failed half way: the generator is in an unknown state, the thread gets a new one
+      if(pooledGenerator.get() == null) pooledGenerator.set(new PooledGenerator(jf));
+    }
+  }
+
+  /**
+   * A generator kept open for one thread with its output buffer: the generator writes one root object after
+   * another into the buffer, which is drained after each.
+   */
+  private static class PooledGenerator {
+    private final ByteArrayBuilder buffer = new ByteArrayBuilder();
+    private final JsonGenerator generator;
+
+    PooledGenerator(final JsonFactory jf) {
+      try {
+        generator = jf.createGenerator(buffer, JsonEncoding.UTF8);
+      }
+      catch(IOException x) { // writing into the memory, should never happen
+        throw new UncheckedIOException(x);
+      }
+      generator.setRootValueSeparator(null);
+    }
+  }
+
+  /**
+   * Convenience wrapper; if the JSON comes as bytes, use the overloads that take them, the UTF-8 parser reads
+   * them directly without decoding them into a <tt>String</tt> first.
+   */
   public <T extends DataMetaEntity> T readObject(Jsonable<T> in, final String source) throws IOException {
     return in.read(jf.createParser(source));
   }
 
+  /**
+   * Reads the record from the UTF-8 bytes.
+   */
+  public <T extends DataMetaEntity> T readObject(final Jsonable<T> in, final byte[] source) throws IOException {
+    return readObject(in, source, 0, source.length);
+  }
+
+  /**
+   * Reads the record from the UTF-8 bytes in the given range of the array.
+   */
+  public <T extends DataMetaEntity> T readObject(final Jsonable<T> in, final byte[] source, final int offset,
+                                                 final int length) throws IOException {
+    try(final JsonParser parser = jf.createParser(source, offset, length)) {
+      return in.read(parser);
+    }
+  }
+
+  /**
+   * Reads the record from the UTF-8 stream, which is not closed. The parser reads ahead in blocks, therefore
+   * the stream may be consumed past the end of the record.
+   */
+  public <T extends DataMetaEntity> T readObject(final Jsonable<T> in, final InputStream source) throws IOException {
+    try(final JsonParser parser = jf.createParser(source)) {
+      parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+      return in.read(parser);
+    }
+  }
+
+  /**
+   * Reads the record from the UTF-8 bytes in the buffer, heap or direct, from its position; the position is advanced
+   * past the record. A heap buffer is parsed in place, a direct one is streamed.
+   */
+  public <T extends DataMetaEntity> T readObject(final Jsonable<T> in, final ByteBuffer source) throws IOException {
+    final int start = source.position();
+    final JsonParser parser = source.hasArray()
+      ? jf.createParser(source.array(), source.arrayOffset() + start, source.remaining())
+      : jf.createParser(new ByteBufferBackedInputStream(source.duplicate()));
+    try {
+      final T result = in.read(parser);
+      source.position(start + (int) parser.getCurrentLocation().getByteOffset());
+      return result;
+    }
+    finally {
+      parser.close();
+    }
+  }
+
+  /**
+   * The {@link #writeObjectBytes(Jsonable, DataMetaEntity)} as a function, for example for the
+   * {@link org.ebay.datameta.dom.BufferingDataTarget}.
+   */
+  public <T extends DataMetaEntity> ThrowingFunction<T, byte[], IOException> encoder(final Jsonable<T> js) {
+    return v -> writeObjectBytes(js, v);
+  }
+
   public void writeTextFldIfAny(final String fieldName, final JsonGenerator out, final String source) throws IOException {
     out.writeStringField(fieldName, source);
   } 
@@ -83,7 +282,22 @@ public class JacksonUtil {
     out.writeStringField(fieldName, DTU.toString(source));
   }
 
+  /**
+   * Writes the datetime as the number of the milliseconds since the epoch: shorter and faster both ways than the ISO
+   * text, but the zone and the sub-millisecond part are lost; the {@link #readDttm(JsonParser)} reads it in UTC.
+   */
+  public void writeDttmMillisFld(final String fieldName, final JsonGenerator out,
+                                 final ZonedDateTime source) throws IOException {
+    out.writeNumberField(fieldName, source.toInstant().toEpochMilli());
+  }
+
+  /**
+   * Reads either form, the ISO text or the epoch milliseconds written by the
+   * {@link #writeDttmMillisFld(String, JsonGenerator, ZonedDateTime)}.
+   */
   public ZonedDateTime readDttm(final JsonParser in) throws IOException {
+    if(in.currentToken() == VALUE_NUMBER_INT)
+      return ZonedDateTime.ofInstant(Instant.ofEpochMilli(in.getLongValue()), DateTimeUtil.UTC_ID);
     return DTU.parse(in.getText());
   }
 
@@ -94,50 +308,154 @@ public class JacksonUtil {
 
   public BigDecimal readBigDecimal(final JsonParser in) throws IOException { return in.getDecimalValue(); }
 
+  /**
+   * Writes the bytes as an array of numbers, for the compact base64 form see the
+   * {@link #writeByteArrayBinFld(String, JsonGenerator, byte[])}.
+   */
   public void writeByteArrayFld(final String fieldName, final JsonGenerator out,
-                                final Byte[] source) throws IOException {// FIXME -- need to test it with bytes > 0x7F
-    out.writeArrayFieldStart(fieldName);
+                                final Byte[] source) throws IOException {
+    writeArrayFieldStart(out, fieldName, source.length);
     for(final byte b: source) out.writeNumber(b);
     out.writeEndArray();
   }
 
+  /**
+   * Writes the bytes as an array of numbers, for the compact base64 form see the
+   * {@link #writeByteArrayBinFld(String, JsonGenerator, byte[])}.
+   */
   public void writeByteArrayFld(final String fieldName, final JsonGenerator out,
-                                final byte[] source) throws IOException {// FIXME -- need to test it with bytes > 0x7F
-    out.writeArrayFieldStart(fieldName);
+                                final byte[] source) throws IOException {
+    writeArrayFieldStart(out, fieldName, source.length);
     for(final byte b: source) out.writeNumber(b);
     out.writeEndArray();
   }
 
-  public Byte[] readByteArray(final JsonParser in) throws IOException {// FIXME -- need to test it with bytes > 0x7F
-    final ArrayList<Byte> accumulator = new ArrayList<>(4096);
-    while(in.nextToken() != END_ARRAY) accumulator.add(in.getByteValue());
-    accumulator.trimToSize();
-    return accumulator.toArray(new Byte[accumulator.size()]);
+  /**
+   * Writes the bytes as a base64 string, about 1.4 chars a byte versus up to 5 for the array of numbers.
+   * All the byte array readers accept both forms.
+   */
+  public void writeByteArrayBinFld(final String fieldName, final JsonGenerator out,
+                                   final byte[] source) throws IOException {
+    out.writeBinaryField(fieldName, source);
   }
 
-  public byte[] readByteArrayPrim(final JsonParser in) throws IOException {// FIXME -- need to test it with bytes > 0x7F
-    final List<Byte> accumulator = new ArrayList<>(4096);
-    while(in.nextToken() != END_ARRAY) accumulator.add(in.getByteValue());
-    final byte[] retVal = new byte[accumulator.size()];
-    for (int ix = 0; ix < accumulator.size(); ix++) retVal[ix] = accumulator.get(ix);
-    return retVal;
+  /**
+   * Reads either form, the array of numbers or the base64 string.
+   */
+  public Byte[] readByteArray(final JsonParser in) throws IOException {
+    final byte[] result = readByteArrayPrim(in);
+    return result == null ? null : toObject(result);
+  }
+
+  /**
+   * Reads either form, the array of numbers or the base64 string.
+   * @throws JsonParseException if the parser is on neither, or on no token at all.
+   */
+  public byte[] readByteArrayPrim(final JsonParser in) throws IOException {
+    switch(currentToken(in, "a byte array")) {
+      case VALUE_NULL:
+        return null;
+      case VALUE_STRING:
+      case VALUE_EMBEDDED_OBJECT:
+        return in.getBinaryValue();
+      case START_ARRAY:
+        byte[] accumulator = new byte[16];
+        int size = 0;
+        while(in.nextToken() != END_ARRAY) {
+          if(size == accumulator.length) accumulator = Arrays.copyOf(accumulator, size << 1);
+          accumulator[size++] = in.getByteValue();
+        }
+        return size == accumulator.length ? accumulator : Arrays.copyOf(accumulator, size);
+      default:
+        throw unexpected(in, "a byte array");
+    }
   }
 
   public void writeLongArrayFld(final String fieldName, final JsonGenerator out, final Long[] source) throws IOException {
-    out.writeArrayFieldStart(fieldName);
+    writeArrayFieldStart(out, fieldName, source.length);
     for(final Long v: source) out.writeNumber(v);
     out.writeEndArray();
   }
 
+  public void writeLongArrayFld(final String fieldName, final JsonGenerator out, final long[] source) throws IOException {
+    out.writeFieldName(fieldName);
+    out.writeArray(source, 0, source.length);
+  }
+
   public Long[] readLongArray(final JsonParser in) throws IOException {
-    final ArrayList<Long> accumulator = new ArrayList<>(4096);
-    while(in.nextToken() != END_ARRAY) accumulator.add(in.getLongValue());
-    accumulator.trimToSize();
-    return accumulator.toArray(new Long[accumulator.size()]);
+    final long[] result = readLongArrayPrim(in);
+    return result == null ? null : toObject(result);
+  }
+
+  public long[] readLongArrayPrim(final JsonParser in) throws IOException {
+    final JsonToken t = currentToken(in, "a long array");
+    if(t == VALUE_NULL) return null;
+    if(t != START_ARRAY) throw unexpected(in, "a long array");
+    long[] accumulator = new long[16];
+    int size = 0;
+    while(in.nextToken() != END_ARRAY) {
+      if(size == accumulator.length) accumulator = Arrays.copyOf(accumulator, size << 1);
+      accumulator[size++] = in.getLongValue();
+    }
+    return size == accumulator.length ? accumulator : Arrays.copyOf(accumulator, size);
   }
 
+  /**
+   * Writes the bitset as the array of its words, for the compact base64 form see the
+   * {@link #writeBitSetBinFld(String, JsonGenerator, BitSet)}.
+   */
   public void writeBitSetFld(final String fieldName, final JsonGenerator out, final BitSet source) throws IOException {
-    writeLongArrayFld(fieldName, out, toObject(source.getTrimmedImage()));
+    writeLongArrayFld(fieldName, out, source.getTrimmedImage());
+  }
+
+  /**
+   * Writes the bitset as the base64 string of its {@link BitSet#toByteArray()}, the sparse bitsets come out
+   * much shorter than the array of words. The {@link #readBitSet(JsonParser)} accepts both forms.
+   */
+  public void writeBitSetBinFld(final String fieldName, final JsonGenerator out, final BitSet source) throws IOException {
+    out.writeBinaryField(fieldName, source.toByteArray());
+  }
+
+  /**
+   * Reads either form, the array of the words or the base64 string of the bytes.
+   * @throws JsonParseException if the parser is on neither, or on no token at all.
+   */
+  public BitSet readBitSet(final JsonParser in) throws IOException {
+    switch(currentToken(in, "a bitset")) {
+      case VALUE_NULL:
+        return null;
+      case VALUE_STRING:
+      case VALUE_EMBEDDED_OBJECT:
+        return BitSet.valueOf(in.getBinaryValue());
+      case START_ARRAY:
+        return new BitSet(readLongArrayPrim(in), false);
+      default:
+        throw unexpected(in, "a bitset");
+    }
+  }
+
+  /**
+   * The token the parser is on, for the readers that switch on it.
+   * @throws JsonParseException if there is none, such as past the end of the input.
+   */
+  private static JsonToken currentToken(final JsonParser in, final String expected) throws JsonParseException {
+    final JsonToken result = in.currentToken();
+    if(result == null) throw unexpected(in, expected);
+    return result;
+  }
+
+  private static JsonParseException unexpected(final JsonParser in, final String expected) {
+    return new JsonParseException(in, "Expected " + expected + ", got " + in.currentToken());
+  }
+
+  /**
+   * Starts the array field with the size hint: JSON has no use for it, but the binary formats such as CBOR write
+   * the length up front instead of the end marker.
+   */
+  private static void writeArrayFieldStart(final JsonGenerator out, final String fieldName,
+                                           final int size) throws IOException {
+    out.writeFieldName(fieldName);
+    out.writeStartArray(size);
   }
 
   public <T extends DataMetaEntity> void writeCollection(final JsonGenerator out, final Collection<T> source,
@@ -154,6 +472,29 @@ public class JacksonUtil {
     }
   }
 
+  /**
+   * Writes the records as they come out of the iterator, without collecting them first. To push the records one at
+   * a time instead, see the {@link JsonArrayTarget}.
+   */
+  public <T extends DataMetaEntity> void writeCollection(final JsonGenerator out, final Iterator<? extends T> source,
+                                                         final Jsonable<T> js) throws IOException {
+    out.writeStartArray();
+    while(source.hasNext()) {
+      out.writeStartObject();
+      js.write(out, source.next());
+      out.writeEndObject();
+    }
+    out.writeEndArray();
+  }
+
+  /**
+   * Writes the records as they come out of the stream, which is consumed, without collecting them first.
+   */
+  public <T extends DataMetaEntity> void writeCollection(final JsonGenerator out, final Stream<? extends T> source,
+                                                         final Jsonable<T> js) throws IOException {
+    writeCollection(out, source.iterator(), js);
+  }
+
   public <T extends DataMetaEntity> void writeCollectionFld(final String fieldName, final JsonGenerator out,
                                                             final Collection<T> source,
                                                             final Jsonable<T> js) throws IOException {
@@ -165,14 +506,29 @@ public class JacksonUtil {
   }
 
   public <T extends DataMetaEntity> List<T> readList(final JsonParser in, final Jsonable<T> js) throws IOException {
-    final ArrayList<T> accumulator = new ArrayList<>(4096);
+    final ArrayList<T> accumulator = new ArrayList<>();
     while(in.nextToken() != END_ARRAY) accumulator.add(js.read(in));
-    accumulator.trimToSize();
     return accumulator;
   }
 
+  /**
+   * Same records as the {@link #readList(JsonParser, Jsonable)}, but decoded one at a time as the iterator advances,
+   * so an array of any length takes the same memory. The parser is advanced along, it should stay with the iterator
+   * until the end of the array.
+   */
+  public <T extends DataMetaEntity> Iterator<T> iterateList(final JsonParser in, final Jsonable<T> js) {
+    return new SourceIterator<>(new JsonArraySource<>(js), in);
+  }
+
+  /**
+   * The {@link #iterateList(JsonParser, Jsonable)} as the lazy sequential {@link Stream}.
+   */
+  public <T extends DataMetaEntity> Stream<T> streamList(final JsonParser in, final Jsonable<T> js) {
+    return JsonArraySource.stream(js, in);
+  }
+
   public <T extends DataMetaEntity> Set<T> readSet(final JsonParser in, final Jsonable<T> js) throws IOException {
-    final Set<T> accumulator = new HashSet<>(4096);
+    final Set<T> accumulator = new HashSet<>();
     while(in.nextToken() != END_ARRAY) accumulator.add(js.read(in));
     return accumulator;
   }
@@ -186,113 +542,105 @@ public class JacksonUtil {
     // ************* Lists:
 
     public <T extends Enum<T>> List<T> readListEnum(final JsonParser in, final Class<T> targetClass) throws IOException {
-        final ArrayList<T> accumulator = new ArrayList<>(4096);
+        final ArrayList<T> accumulator = new ArrayList<>();
         while(in.nextToken() != END_ARRAY) accumulator.add(T.valueOf(targetClass, in.getText()));
-        accumulator.trimToSize();
         return accumulator;
     }
 
   public <T extends DataMetaEntity> List<Integer> readListInteger(final JsonParser in) throws IOException {
-    final ArrayList<Integer> accumulator = new ArrayList<>(4096);
+    final ArrayList<Integer> accumulator = new ArrayList<>();
     while(in.nextToken() != END_ARRAY) accumulator.add(in.getIntValue());
-    accumulator.trimToSize();
     return accumulator;
   }
 
   public List<Long> readListLong(final JsonParser in) throws IOException {
-    final ArrayList<Long> accumulator = new ArrayList<>(4096);
+    final ArrayList<Long> accumulator = new ArrayList<>();
     while(in.nextToken() != END_ARRAY) accumulator.add(in.getLongValue());
-    accumulator.trimToSize();
     return accumulator;
   }
   
   public List<Float> readListFloat(final JsonParser in) throws IOException {
-    final ArrayList<Float> accumulator = new ArrayList<>(4096);
+    final ArrayList<Float> accumulator = new ArrayList<>();
     while(in.nextToken() != END_ARRAY) accumulator.add(in.getFloatValue());
-    accumulator.trimToSize();
     return accumulator;
   }
   
   public List<Double> readListDouble(final JsonParser in) throws IOException {
-    final ArrayList<Double> accumulator = new ArrayList<>(4096);
+    final ArrayList<Double> accumulator = new ArrayList<>();
     while(in.nextToken() != END_ARRAY) accumulator.add(in.getDoubleValue());
-    accumulator.trimToSize();
     return accumulator;
   }
 
   public <T extends DataMetaEntity>List<String> readListString(final JsonParser in) throws IOException {
     final ArrayList<String> accumulator = new java.util.ArrayList<>();
     while(in.nextToken() != END_ARRAY) accumulator.add(in.getText());
-    accumulator.trimToSize();
     return accumulator;
   }
 
   public <T extends DataMetaEntity> List<ZonedDateTime> readListZonedDateTime(final JsonParser in) throws IOException {
     final ArrayList<ZonedDateTime> accumulator = new java.util.ArrayList<>();
     while (in.nextToken() != END_ARRAY) accumulator.add(readDttm(in));
-    accumulator.trimToSize();
     return accumulator;
   }
 
   public <T extends DataMetaEntity> List<BigDecimal> readListBigDecimal(final JsonParser in) throws IOException {
     final ArrayList<BigDecimal> accumulator = new java.util.ArrayList<>();
     while(in.nextToken() != END_ARRAY) accumulator.add(readBigDecimal(in));
-    accumulator.trimToSize();
     return accumulator;
   }
 
     public <T extends Enum<T>> void writeListEnum(final String fieldName, final JsonGenerator out,
                                                         final List<T> source) throws IOException {
-        out.writeArrayFieldStart(fieldName);
+        writeArrayFieldStart(out, fieldName, source.size());
         for (final T i : source) out.writeString(i.name());
         out.writeEndArray();
     }
 
   public <T extends DataMetaEntity> void writeListInteger(final String fieldName, final JsonGenerator out,
                                                           final List<Integer> source) throws IOException {
-    out.writeArrayFieldStart(fieldName);
+    writeArrayFieldStart(out, fieldName, source.size());
     for(final Integer i: source) out.writeNumber(i);
     out.writeEndArray();
   }
 
   public <T extends DataMetaEntity> void writeListLong(final String fieldName, final JsonGenerator out,
                                                        final List<Long> source) throws IOException {
-    out.writeArrayFieldStart(fieldName);
+    writeArrayFieldStart(out, fieldName, source.size());
     for(final Long v: source) out.writeNumber(v);
     out.writeEndArray();
   }
 
   public <T extends DataMetaEntity> void writeListFloat(final String fieldName, final JsonGenerator out,
                                                         final List<Float> source) throws IOException {
-    out.writeArrayFieldStart(fieldName);
+    writeArrayFieldStart(out, fieldName, source.size());
     for (final Float f : source) out.writeNumber(f);
     out.writeEndArray();
   }
   
   public <T extends DataMetaEntity> void writeListDouble(final String fieldName, final JsonGenerator out,
                                                          final List<Double> source) throws IOException {
-    out.writeArrayFieldStart(fieldName);
+    writeArrayFieldStart(out, fieldName, source.size());
     for(final Double d: source) out.writeNumber(d);
     out.writeEndArray();
   }
   
   public <T extends DataMetaEntity> void writeListString(final String fieldName, final JsonGenerator out,
                                                          final List<String> source) throws IOException {
-    out.writeArrayFieldStart(fieldName);
+    writeArrayFieldStart(out, fieldName, source.size());
     for(final String s: source) out.writeString(s);
     out.writeEndArray();
   }
   
   public <T extends DataMetaEntity> void writeListZonedDateTime(final String fieldName, final JsonGenerator out,
                                                                 final List<ZonedDateTime> source) throws IOException {
-    out.writeArrayFieldStart(fieldName);
+    writeArrayFieldStart(out, fieldName, source.size());
     for(final ZonedDateTime d: source) out.writeString(DateTimeUtil.getInstance().toString(d));
     out.writeEndArray();
   }
 
   public <T extends DataMetaEntity> void writeListBigDecimal(final String fieldName, final JsonGenerator out,
                                                              final List<BigDecimal> source) throws IOException {
-    out.writeArrayFieldStart(fieldName);
+    writeArrayFieldStart(out, fieldName, source.size());
     for(final BigDecimal n: source) out.writeNumber(n);
     out.writeEndArray();
   }
@@ -349,56 +697,56 @@ public class JacksonUtil {
 
     public <T extends Enum<T>> void writeLinkedListEnum(final String fieldName, final JsonGenerator out,
                                                              final LinkedList<T> source) throws IOException {
-        out.writeArrayFieldStart(fieldName);
+        writeArrayFieldStart(out, fieldName, source.size());
         for (final T i : source) out.writeString(i.name());
         out.writeEndArray();
     }
 
   public <T extends DataMetaEntity> void writeLinkedListInteger(final String fieldName, final JsonGenerator out,
                                          final java.util.LinkedList<Integer> source) throws IOException {
-    out.writeArrayFieldStart(fieldName);
+    writeArrayFieldStart(out, fieldName, source.size());
     for(final Integer i: source) out.writeNumber(i);
     out.writeEndArray();
   }
 
   public <T extends DataMetaEntity> void writeLinkedListLong(final String fieldName, final JsonGenerator out,
                                          final java.util.LinkedList<Long> source) throws IOException {
-    out.writeArrayFieldStart(fieldName);
+    writeArrayFieldStart(out, fieldName, source.size());
     for(final Long v: source) out.writeNumber(v);
     out.writeEndArray();
   }
 
   public <T extends DataMetaEntity> void writeLinkedListFloat(final String fieldName, final JsonGenerator out,
                                          final java.util.LinkedList<Float> source) throws IOException {
-    out.writeArrayFieldStart(fieldName);
+    writeArrayFieldStart(out, fieldName, source.size());
     for(final Float f: source) out.writeNumber(f);
     out.writeEndArray();
   }
 
   public <T extends DataMetaEntity> void writeLinkedListDouble(final String fieldName, final JsonGenerator out,
                                          final java.util.LinkedList<Double> source) throws IOException {
-    out.writeArrayFieldStart(fieldName);
+    writeArrayFieldStart(out, fieldName, source.size());
     for(final Double d: source) out.writeNumber(d);
     out.writeEndArray();
   }
 
   public <T extends DataMetaEntity> void writeLinkedListString(final String fieldName, final JsonGenerator out,
                                                                final LinkedList<String> source) throws IOException {
-    out.writeArrayFieldStart(fieldName);
+    writeArrayFieldStart(out, fieldName, source.size());
     for(final String s: source) out.writeString(s);
     out.writeEndArray();
   }
 
   public <T extends DataMetaEntity> void writeLinkedListZonedDateTime(final String fieldName, final JsonGenerator out,
                                          final LinkedList<ZonedDateTime> source) throws IOException {
-    out.writeArrayFieldStart(fieldName);
+    writeArrayFieldStart(out, fieldName, source.size());
     for(final ZonedDateTime d: source) out.writeString(DateTimeUtil.getInstance().toString(d));
     out.writeEndArray();
   }
 
   public <T extends DataMetaEntity> void writeLinkedListBigDecimal(final String fieldName, final JsonGenerator out,
                                          final LinkedList<BigDecimal> source) throws IOException {
-    out.writeArrayFieldStart(fieldName);
+    writeArrayFieldStart(out, fieldName, source.size());
     for(final BigDecimal n: source) out.writeNumber(n);
     out.writeEndArray();
   }
@@ -455,7 +803,7 @@ public class JacksonUtil {
 
     public <T extends Enum<T>> void writeSetEnum(final String fieldName, final JsonGenerator out,
                                                              final Set<T> source) throws IOException {
-        out.writeArrayFieldStart(fieldName);
+        writeArrayFieldStart(out, fieldName, source.size());
         for (final T i : source) out.writeString(i.name());
         out.writeEndArray();
     }
@@ -463,49 +811,49 @@ public class JacksonUtil {
   public <T extends DataMetaEntity> void writeSetInteger(final String fieldName, final JsonGenerator out,
                                                          final Set<Integer> source) throws IOException {
 
-    out.writeArrayFieldStart(fieldName);
+    writeArrayFieldStart(out, fieldName, source.size());
     for (final Integer i : source) out.writeNumber(i);
     out.writeEndArray();
   }
 
   public <T extends DataMetaEntity> void writeSetLong(final String fieldName, final JsonGenerator out,
                                                       final Set<Long> source) throws IOException {
-    out.writeArrayFieldStart(fieldName);
+    writeArrayFieldStart(out, fieldName, source.size());
     for(final Long v: source) out.writeNumber(v);
     out.writeEndArray();
   }
 
   public <T extends DataMetaEntity> void writeSetFloat(final String fieldName, final JsonGenerator out,
                                                        final Set<Float> source) throws IOException {
-    out.writeArrayFieldStart(fieldName);
+    writeArrayFieldStart(out, fieldName, source.size());
     for(final Float f: source) out.writeNumber(f);
     out.writeEndArray();
   }
 
   public <T extends DataMetaEntity> void writeSetDouble(final String fieldName, final JsonGenerator out,
                                                         final Set<Double> source) throws IOException {
-    out.writeArrayFieldStart(fieldName);
+    writeArrayFieldStart(out, fieldName, source.size());
     for(final Double d: source) out.writeNumber(d);
     out.writeEndArray();
   }
 
   public <T extends DataMetaEntity> void writeSetString(final String fieldName, final JsonGenerator out,
                                                         final Set<String> source) throws IOException {
-    out.writeArrayFieldStart(fieldName);
+    writeArrayFieldStart(out, fieldName, source.size());
     for(final String s: source) out.writeString(s);
     out.writeEndArray();
   }
 
   public <T extends DataMetaEntity> void writeSetZonedDateTime(final String fieldName, final JsonGenerator out,
                                                                final Set<ZonedDateTime> source) throws IOException {
-    out.writeArrayFieldStart(fieldName);
+    writeArrayFieldStart(out, fieldName, source.size());
     for(final ZonedDateTime d: source) out.writeString(DateTimeUtil.getInstance().toString(d));
     out.writeEndArray();
   }
 
   public <T extends DataMetaEntity> void writeSetBigDecimal(final String fieldName, final JsonGenerator out,
                                                             final Set<BigDecimal> source) throws IOException {
-    out.writeArrayFieldStart(fieldName);
+    writeArrayFieldStart(out, fieldName, source.size());
     for(final BigDecimal n: source) out.writeNumber(n);
     out.writeEndArray();
   }
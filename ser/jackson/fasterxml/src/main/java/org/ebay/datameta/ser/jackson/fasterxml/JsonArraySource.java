@@ -0,0 +1,67 @@
+package org.ebay.datameta.ser.jackson.fasterxml;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.ebay.datameta.dom.DataMetaEntity;
+import org.ebay.datameta.dom.SerialDataSource;
+import org.ebay.datameta.dom.SourceIterator;
+
+import static com.fasterxml.jackson.core.JsonToken.END_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.START_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
+
+/**
+ * Reads the records one by one out of a JSON array of objects, such as a file with a huge array, without
+ * loading the whole array: the parser is advanced one record at a time.
+ * The parser may be positioned before the array, on the array start or after a record.
+ * <p>For the {@link java.util.Iterator} and the {@link Stream}, see the {@link SourceIterator} and
+ * the {@link #stream(Jsonable, JsonParser)}.</p>
+ * <p>State-free, thread-safe as long as each parser is used by one thread.</p>
+ *
+ * @author Michael Bergens
+ */
+public class JsonArraySource<T extends DataMetaEntity> implements SerialDataSource<T, JsonParser> {
+
+  private final Jsonable<T> js;
+
+  public JsonArraySource(final Jsonable<T> js) {
+    this.js = js;
+  }
+
+  /**
+   * The next record of the array.
+   * @return null past the end of the array or of the input.
+   */
+  public T read(final JsonParser source) throws IOException {
+    JsonToken t = source.nextToken();
+    if(t == START_ARRAY) t = source.nextToken();
+    if(t == null || t == END_ARRAY) return null;
+    if(t != START_OBJECT) throw new IllegalArgumentException("Expected an object in the array, got " + t + " at "
+        + source.getCurrentLocation());
+    return js.read(source);
+  }
+
+  /**
+   * Same as {@link #read(JsonParser)}, with the {@link IOException} wrapped into the {@link UncheckedIOException}
+   * because the {@link SerialDataSource} does not declare it.
+   */
+  @Override public T next(final JsonParser source) {
+    try {
+      return read(source);
+    }
+    catch(IOException x) {
+      throw new UncheckedIOException(x);
+    }
+  }
+
+  /**
+   * Lazy stream of the records in the array, see the {@link SourceIterator#stream(SerialDataSource, Object)}.
+   */
+  public static <T extends DataMetaEntity> Stream<T> stream(final Jsonable<T> js, final JsonParser source) {
+    return SourceIterator.stream(new JsonArraySource<>(js), source);
+  }
+}
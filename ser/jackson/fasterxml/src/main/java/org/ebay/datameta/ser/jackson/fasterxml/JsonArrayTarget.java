@@ -0,0 +1,86 @@
+package org.ebay.datameta.ser.jackson.fasterxml;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.ebay.datameta.dom.BatchDataTarget;
+import org.ebay.datameta.dom.DataMetaEntity;
+
+/**
+ * Writes the records pushed one at a time as a JSON array, the counterpart of the {@link JsonArraySource}:
+ * each record goes straight into the generator, nothing is kept, so an export of any length takes the same memory.
+ * The array is started on construction and ended on {@link #close()}; the generator is closed too if the array
+ * is the root value, otherwise, as a field of an object, the generator is left to the caller.
+ * <p>Not thread-safe, same as the generator.</p>
+ *
+ * @author Michael Bergens
+ */
+public class JsonArrayTarget<T extends DataMetaEntity> implements BatchDataTarget<T> {
+
+  private final Jsonable<T> js;
+  private final JsonGenerator out;
+  private long count;
+  private boolean closed;
+
+  /**
+   * Starts the array: the generator should be where a value can go, at the root or right after a field name.
+   */
+  public JsonArrayTarget(final Jsonable<T> js, final JsonGenerator out) throws IOException {
+    this.js = js;
+    this.out = out;
+    out.writeStartArray();
+  }
+
+  /**
+   * Starts the array as the value of the field of the object that the generator is in.
+   */
+  public JsonArrayTarget(final Jsonable<T> js, final JsonGenerator out, final String fieldName) throws IOException {
+    this.js = js;
+    this.out = out;
+    out.writeArrayFieldStart(fieldName);
+  }
+
+  /**
+   * Appends the record.
+   */
+  public void write(final T value) throws IOException {
+    out.writeStartObject();
+    js.write(out, value);
+    out.writeEndObject();
+    count++;
+  }
+
+  /**
+   * Same as {@link #write(DataMetaEntity)}, with the {@link IOException} wrapped into the {@link UncheckedIOException}
+   * because the {@link org.ebay.datameta.dom.SerialDataTarget} does not declare it.
+   */
+  @Override public void save(final T what) {
+    try {
+      write(what);
+    }
+    catch(IOException x) {
+      throw new UncheckedIOException(x);
+    }
+  }
+
+  /**
+   * Number of records written so far.
+   */
+  public long getCount() { return count; }
+
+  @Override public void flush() throws IOException {
+    out.flush();
+  }
+
+  /**
+   * Ends the array, closes the generator if the array is the root value, flushes it otherwise.
+   */
+  @Override public void close() throws IOException {
+    if(closed) return;
+    closed = true;
+    out.writeEndArray();
+    if(out.getOutputContext().inRoot()) out.close();
+    else out.flush();
+  }
+}
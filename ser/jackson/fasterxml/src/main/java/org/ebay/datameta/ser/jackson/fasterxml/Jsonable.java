@@ -53,5 +53,14 @@ public abstract class Jsonable<T extends DataMetaEntity> {
    */
   public T read(final JsonParser source) throws IOException {return read (source, true);}
 
+  /**
+   * The table of the field names for the implementations that write the names pre-encoded and dispatch on
+   * the field index instead of the name on read, see the {@link FieldNames}.
+   * @param names in the order the fields are written.
+   */
+  protected static FieldNames fieldNames(final String... names) {
+    return new FieldNames(names);
+  }
+
 }
 
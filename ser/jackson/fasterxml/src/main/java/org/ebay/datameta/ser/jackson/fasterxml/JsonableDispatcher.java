@@ -0,0 +1,182 @@
+package org.ebay.datameta.ser.jackson.fasterxml;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.ebay.datameta.dom.DataMetaEntity;
+import org.ebay.datameta.dom.SerialDataSource;
+import org.ebay.datameta.util.jdk.SemanticVersion;
+
+import static com.fasterxml.jackson.core.JsonToken.FIELD_NAME;
+import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
+import static org.ebay.datameta.ser.jackson.fasterxml.JacksonUtil.DT_KEY;
+import static org.ebay.datameta.ser.jackson.fasterxml.JacksonUtil.VER_KEY;
+
+/**
+ * Reads the records of different types written with the envelope by the
+ * {@link JacksonUtil#writeObject(Jsonable, DataMetaEntity)} in one pass: the envelope, the {@link JacksonUtil#VER_KEY}
+ * and the {@link JacksonUtil#DT_KEY} that the writer puts first, picks the {@link Jsonable} registered for them and
+ * lets it parse the rest of the same object. Unlike the {@link VerAndDataType#fromJson(String)} followed by
+ * the {@link JacksonUtil#readObject(Jsonable, String)}, the JSON is parsed once and no classes are loaded.
+ * <p>The {@link Jsonable}s are registered by the data type, the full class name, and optionally by the version for the
+ * cases when the older versions of the same type still come in; the version is matched as a string, not parsed.
+ * A version that is not registered falls back to the {@link Jsonable} registered for the type without a version.</p>
+ * <p>Thread-safe, the registration can go on while reading.</p>
+ *
+ * @author Michael Bergens
+ */
+public class JsonableDispatcher implements SerialDataSource<DataMetaEntity, JsonParser> {
+
+  /**
+   * The {@link Jsonable}s for one data type.
+   */
+  private static class Entry {
+    private volatile Jsonable<?> anyVersion;
+    private final Map<String, Jsonable<?>> byVersion = new ConcurrentHashMap<>();
+  }
+
+  private final Map<String, Entry> byDataType = new ConcurrentHashMap<>();
+
+  /**
+   * For the parsers of the convenience overloads.
+   */
+  private final JacksonUtil ju;
+
+  /**
+   * Reads the JSON.
+   */
+  public JsonableDispatcher() {
+    this(JacksonUtil.getInstance());
+  }
+
+  /**
+   * Reads the format of the given instance, such as one of the {@link JacksonFormats}.
+   */
+  public JsonableDispatcher(final JacksonUtil ju) {
+    this.ju = ju;
+  }
+
+  private Entry entry(final String dataType) {
+    return byDataType.computeIfAbsent(dataType, k -> new Entry());
+  }
+
+  /**
+   * Registers the {@link Jsonable} for any version of the class that has no {@link Jsonable} for its version.
+   */
+  public <T extends DataMetaEntity> JsonableDispatcher register(final Class<T> dataClass, final Jsonable<T> js) {
+    return register(dataClass.getName(), js);
+  }
+
+  /**
+   * Registers the {@link Jsonable} for the given version of the class.
+   */
+  public <T extends DataMetaEntity> JsonableDispatcher register(final Class<T> dataClass, final SemanticVersion version,
+                                                                final Jsonable<T> js) {
+    return register(dataClass.getName(), version, js);
+  }
+
+  /**
+   * Registers the {@link Jsonable} for any version of the data type, for the types that are not on the classpath
+   * under the written name.
+   */
+  public JsonableDispatcher register(final String dataType, final Jsonable<?> js) {
+    entry(dataType).anyVersion = js;
+    return this;
+  }
+
+  /**
+   * Registers the {@link Jsonable} for the given version of the data type.
+   */
+  public JsonableDispatcher register(final String dataType, final SemanticVersion version, final Jsonable<?> js) {
+    // the writer puts the version as its toString, match it as such
+    entry(dataType).byVersion.put(version.toString(), js);
+    return this;
+  }
+
+  /**
+   * The {@link Jsonable} for the data type and the version as written into the envelope.
+   * @return null if none is registered.
+   */
+  public Jsonable<?> getJsonable(final String dataType, final String version) {
+    final Entry entry = byDataType.get(dataType);
+    if(entry == null) return null;
+    final Jsonable<?> js = version == null ? null : entry.byVersion.get(version);
+    return js == null ? entry.anyVersion : js;
+  }
+
+  /**
+   * Reads the record: the parser should be positioned before the object or on its start.
+   * @return null at the end of the input.
+   * @throws IllegalArgumentException if the envelope is not at the start of the object
+   *   or there is no {@link Jsonable} for the data type.
+   */
+  public DataMetaEntity read(final JsonParser source) throws IOException {
+    JsonToken t = source.currentToken();
+    if(t != START_OBJECT) t = source.nextToken();
+    if(t == null) return null;
+    if(t != START_OBJECT) throw new IllegalArgumentException("Expected an object, got " + t + " at "
+        + source.getCurrentLocation());
+    String version = null;
+    String dataType = null;
+    while(version == null || dataType == null) {
+      if(source.nextToken() != FIELD_NAME) throw noEnvelope(source);
+      final String fldName = source.getCurrentName();
+      source.nextToken();
+      switch(fldName) {
+        case VER_KEY:
+          version = source.getText();
+          break;
+        case DT_KEY:
+          dataType = source.getText();
+          break;
+        default:
+          throw noEnvelope(source);
+      }
+    }
+    final Jsonable<?> js = getJsonable(dataType, version);
+    if(js == null) throw new IllegalArgumentException("No Jsonable registered for the data type " + dataType
+        + " version " + version + " at " + source.getCurrentLocation());
+    // the Jsonable picks up right after the envelope and reads till the end of the object
+    return js.read(source);
+  }
+
+  private static IllegalArgumentException noEnvelope(final JsonParser source) {
+    return new IllegalArgumentException("Expected the envelope, " + VER_KEY + " and " + DT_KEY
+        + ", at the start of the object at " + source.getCurrentLocation());
+  }
+
+  /**
+   * Reads the record from the JSON string.
+   */
+  public DataMetaEntity read(final String source) throws IOException {
+    try(final JsonParser parser = ju.getJf().createParser(source)) {
+      return read(parser);
+    }
+  }
+
+  /**
+   * Reads the record from the bytes, the UTF-8 for the JSON.
+   */
+  public DataMetaEntity read(final byte[] source) throws IOException {
+    try(final JsonParser parser = ju.getJf().createParser(source)) {
+      return read(parser);
+    }
+  }
+
+  /**
+   * Same as {@link #read(JsonParser)}, with the {@link IOException} wrapped into the {@link UncheckedIOException}
+   * because the {@link SerialDataSource} does not declare it.
+   */
+  @Override public DataMetaEntity next(final JsonParser source) {
+    try {
+      return read(source);
+    }
+    catch(IOException x) {
+      throw new UncheckedIOException(x);
+    }
+  }
+}
@@ -1,11 +1,12 @@
 package org.ebay.datameta.ser.jackson.fasterxml;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import org.ebay.datameta.util.jdk.SemanticVersion;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.ebay.datameta.ser.jackson.fasterxml.JacksonUtil.DT_KEY;
 import static org.ebay.datameta.ser.jackson.fasterxml.JacksonUtil.VER_KEY;
@@ -14,18 +15,76 @@ import static com.fasterxml.jackson.core.JsonToken.END_OBJECT;
 /**
  * Instances of {@link SemanticVersion} and the data class with the full qualified data name, usually
  * retrieved from serialization service.
+ * <p>The classes and the versions are cached, there are usually just a few of each; the caches stop growing at
+ * {@link #MAX_CACHED} entries each, past that the new ones are resolved on every call.</p>
  * @author mubergens Michael Bergens
  */
 public class VerAndDataType {
+  /**
+   * Most entries kept by each of the caches.
+   */
+  public static final int MAX_CACHED = 1024;
+
+  private static final Map<String, Class<?>> CLASSES = new ConcurrentHashMap<>();
+  private static final Map<String, SemanticVersion> VERSIONS = new ConcurrentHashMap<>();
+
   private SemanticVersion version;
   private String dataType;
-  private Class dataClass;
+  private Class<?> dataClass;
+
+  /**
+   * The version parsed from the string, cached.
+   */
+  public static SemanticVersion version(final String source) {
+    SemanticVersion result = VERSIONS.get(source);
+    if(result == null) {
+      result = SemanticVersion.parse(source);
+      if(VERSIONS.size() < MAX_CACHED) VERSIONS.putIfAbsent(source, result);
+    }
+    return result;
+  }
+
+  /**
+   * The class for the name, cached; the misses are not cached.
+   */
+  public static Class<?> dataClass(final String dataType) throws ClassNotFoundException {
+    Class<?> result = CLASSES.get(dataType);
+    if(result == null) {
+      result = Class.forName(dataType);
+      if(CLASSES.size() < MAX_CACHED) CLASSES.putIfAbsent(dataType, result);
+    }
+    return result;
+  }
 
   public static VerAndDataType fromJson(final String json) throws IOException {
+    try(final JsonParser jp = JacksonUtil.getInstance().getJf().createParser(json)) {
+      return fromJson(jp, json);
+    }
+  }
+
+  /**
+   * Same as {@link #fromJson(String)}, from the UTF-8 bytes.
+   */
+  public static VerAndDataType fromJson(final byte[] json) throws IOException {
+    try(final JsonParser jp = JacksonUtil.getInstance().getJf().createParser(json)) {
+      return fromJson(jp);
+    }
+  }
+
+  /**
+   * Reads the envelope from the parser positioned before the object or on its start, stopping right after the envelope.
+   * To read the rest of the object on the same parser, see the {@link JsonableDispatcher}.
+   */
+  public static VerAndDataType fromJson(final JsonParser jp) throws IOException {
+    return fromJson(jp, null);
+  }
+
+  /**
+   * @param json the source for the error message, the parser location used if null.
+   */
+  private static VerAndDataType fromJson(final JsonParser jp, final String json) throws IOException {
 
     final VerAndDataType result = new VerAndDataType();
-    final JsonFactory jf = new JsonFactory();
-    final JsonParser jp = jf.createParser(json);
 
     JsonToken t = null;
     while ( (t = jp.nextToken()) != END_OBJECT) {
@@ -35,16 +94,17 @@ public class VerAndDataType {
         jp.nextToken();
         switch (fldName) {
           case VER_KEY:
-            result.version = SemanticVersion.parse(jp.getText());
+            result.version = version(jp.getText());
             break; // skip the version field
 
           case DT_KEY:
             result.dataType = jp.getText();
             try {
-              result.dataClass = Class.forName(result.dataType);
+              result.dataClass = dataClass(result.dataType);
             }
             catch (ClassNotFoundException e) {
-              throw new IllegalArgumentException("For the source:\n" + json + "\n - the class " + result.dataType +
+              throw new IllegalArgumentException("For the source" + (json == null
+                ? " at " + jp.getCurrentLocation() : ":\n" + json + "\n") + " - the class " + result.dataType +
                 " is not found in the current classloader");
             }
             break;  // skip the data type field
@@ -64,7 +124,7 @@ public class VerAndDataType {
 
   public String getDataType() { return dataType; }
 
-  public Class getDataClass() { return dataClass; }
+  public Class<?> getDataClass() { return dataClass; }
 
   @Override public String toString() {
     return "VerAndDataType{" + dataClass.getName() + '#' + version + '}';
@@ -1,7 +1,21 @@
 package test.ebay.datameta.ser.jackson.fasterxml;
 
 import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.apache.commons.lang3.ArrayUtils;
+import org.ebay.datameta.dom.BitSet;
+import org.ebay.datameta.dom.DataMetaEntity;
+import org.ebay.datameta.dom.SourceIterator;
+import org.ebay.datameta.ser.jackson.fasterxml.FieldNames;
+import org.ebay.datameta.ser.jackson.fasterxml.JacksonFormats;
 import org.ebay.datameta.ser.jackson.fasterxml.JacksonUtil;
+import org.ebay.datameta.ser.jackson.fasterxml.JsonArraySource;
+import org.ebay.datameta.ser.jackson.fasterxml.JsonArrayTarget;
+import org.ebay.datameta.ser.jackson.fasterxml.Jsonable;
+import org.ebay.datameta.ser.jackson.fasterxml.JsonableDispatcher;
 import org.ebay.datameta.ser.jackson.fasterxml.VerAndDataType;
 import org.junit.After;
 import org.junit.Before;
@@ -16,18 +30,30 @@ import test.ebay.datameta.ser.jackson.fasterxml.gen.v3_2_14.TestingDm;
 import test.ebay.datameta.ser.jackson.fasterxml.gen.v3_2_14.TestingDm_DmSameFull;
 import test.ebay.datameta.ser.jackson.fasterxml.gen.v3_2_14.TestingDm_JSONable;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.time.Month;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.ZoneOffset.UTC;
 import static org.ebay.datameta.dom.DateTimeUtil.CLOCK;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
   * Tests for the [[JacksonUtil]], some useful examples.
@@ -109,4 +135,382 @@ public class TestJacksonUtil {
     L.info("DmTesting VDT: {}", vdt);
     assertTrue("Round trip of DmTesting via JSON failed", DmTesting_DmSameFull.I.isSame(dmt, reDmt));
   }
+
+  private static TestingDm testingDm(final int i) {
+    final TestingDm result = new TestingDm();
+    result.setId("rec" + i);
+    result.setColor(Colors.values()[i % Colors.values().length]);
+    final Set<Long> longs = new HashSet<>();
+    for(long v = 0; v < i % 5; v++) longs.add(v * 1000 + i);
+    result.setLongs(longs);
+    final List<ZonedDateTime> whens = new ArrayList<>();
+    whens.add(ZonedDateTime.of(2000 + i % 20, Month.MARCH.getValue(), 1 + i % 28, 10, 20, 30, 0, UTC));
+    result.setWhens(whens);
+    result.verify();
+    return result;
+  }
+
+  /**
+   * The records must come out of a JSON array lazily, in order, and the stream must end cleanly at the array end.
+   */
+  @Test public void testJsonArraySource() throws Exception {
+    final List<TestingDm> expected = new ArrayList<>();
+    for(int i = 0; i < 50; i++) expected.add(testingDm(i));
+    final StringWriter w = new StringWriter();
+    final JsonGenerator gen = JU.getJf().createGenerator(w);
+    JU.writeCollection(gen, expected, TestingDm_JSONable.getInstance());
+    gen.close();
+
+    final JsonParser parser = JU.getJf().createParser(w.toString());
+    final List<TestingDm> actual = JsonArraySource.stream(TestingDm_JSONable.getInstance(), parser)
+        .collect(Collectors.toList());
+    assertEquals(expected.size(), actual.size());
+    for(int i = 0; i < expected.size(); i++)
+      assertTrue("Record " + i, TestingDm_DmSameFull.I.isSame(expected.get(i), actual.get(i)));
+  }
+
+  /**
+   * All the output flavors must produce the same JSON as the String one, the pooled generator again and again.
+   */
+  @Test public void testWriteObjectOutputs() throws Exception {
+    for(int i = 0; i < 5; i++) {
+      final TestingDm tdm = testingDm(i);
+      // the supplementary characters would differ: escaped by the UTF-8 generator, as is by the String one
+      tdm.setId("non-ASCII \u00E9\u4E2D #" + i);
+      final String expected = JU.writeObject(TestingDm_JSONable.getInstance(), tdm);
+      final byte[] expectedBytes = expected.getBytes(UTF_8);
+
+      assertArrayEquals(expectedBytes, JU.writeObjectBytes(TestingDm_JSONable.getInstance(), tdm));
+
+      final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      JU.writeObject(TestingDm_JSONable.getInstance(), tdm, stream);
+      assertArrayEquals(expectedBytes, stream.toByteArray());
+
+      final StringWriter writer = new StringWriter();
+      JU.writeObject(TestingDm_JSONable.getInstance(), tdm, writer);
+      assertEquals(expected, writer.toString());
+
+      final ByteBuffer buffer = ByteBuffer.allocateDirect(expectedBytes.length + 10);
+      JU.writeObject(TestingDm_JSONable.getInstance(), tdm, buffer);
+      buffer.flip();
+      final byte[] fromBuffer = new byte[buffer.remaining()];
+      buffer.get(fromBuffer);
+      assertArrayEquals(expectedBytes, fromBuffer);
+    }
+  }
+
+  /**
+   * The byte flavors of the readObject must read what the String one does, the buffers must advance past the record.
+   */
+  @Test public void testReadObjectBytes() throws Exception {
+    final TestingDm_JSONable js = TestingDm_JSONable.getInstance();
+    for(int i = 0; i < 5; i++) {
+      final TestingDm tdm = testingDm(i);
+      tdm.setId("non-ASCII \u00E9\u4E2D #" + i);
+      final byte[] bytes = JU.writeObjectBytes(js, tdm);
+      assertTrue(TestingDm_DmSameFull.I.isSame(tdm, JU.readObject(js, new String(bytes, UTF_8))));
+      assertTrue(TestingDm_DmSameFull.I.isSame(tdm, JU.readObject(js, bytes)));
+      assertTrue(TestingDm_DmSameFull.I.isSame(tdm, JU.readObject(js, new ByteArrayInputStream(bytes))));
+
+      final byte[] padded = new byte[bytes.length + 7];
+      System.arraycopy(bytes, 0, padded, 3, bytes.length);
+      assertTrue(TestingDm_DmSameFull.I.isSame(tdm, JU.readObject(js, padded, 3, bytes.length)));
+
+      for(final ByteBuffer buffer: new ByteBuffer[] {ByteBuffer.allocate(bytes.length * 2 + 2),
+          ByteBuffer.allocateDirect(bytes.length * 2 + 2)}) {
+        buffer.put((byte) ' ').put(bytes).put(bytes).flip();
+        buffer.position(1);
+        assertTrue(TestingDm_DmSameFull.I.isSame(tdm, JU.readObject(js, buffer)));
+        assertEquals(1 + bytes.length, buffer.position());
+        assertTrue(TestingDm_DmSameFull.I.isSame(tdm, JU.readObject(js, buffer)));
+        assertEquals(buffer.limit(), buffer.position());
+      }
+    }
+  }
+
+  /**
+   * Concatenated records read in one pass, picking the Jsonable by the envelope.
+   */
+  @Test public void testJsonableDispatcher() throws Exception {
+    final JsonableDispatcher dispatcher = new JsonableDispatcher()
+        .register(TestingDm.class, TestingDm_JSONable.getInstance());
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final List<TestingDm> expected = new ArrayList<>();
+    for(int i = 0; i < 20; i++) {
+      expected.add(testingDm(i));
+      out.write(JU.writeObjectBytes(TestingDm_JSONable.getInstance(), expected.get(i)));
+    }
+    final List<DataMetaEntity> actual = SourceIterator.stream(dispatcher, JU.getJf().createParser(out.toByteArray()))
+        .collect(Collectors.toList());
+    assertEquals(expected.size(), actual.size());
+    for(int i = 0; i < expected.size(); i++)
+      assertTrue("Record " + i, TestingDm_DmSameFull.I.isSame(expected.get(i), (TestingDm) actual.get(i)));
+
+    // the version specific one takes over for its version only
+    dispatcher.register(TestingDm.class, TestingDm.VERSION, new Jsonable<TestingDm>() {
+      @Override public void write(final JsonGenerator target, final TestingDm value) throws IOException {
+        TestingDm_JSONable.getInstance().write(target, value);
+      }
+      @Override public TestingDm readInto(final JsonParser source, final TestingDm target, final boolean ignoreUnknown)
+          throws IOException {
+        final TestingDm result = TestingDm_JSONable.getInstance().readInto(source, target, ignoreUnknown);
+        result.setId("versioned " + result.getId());
+        return result;
+      }
+      @Override public TestingDm read(final JsonParser source, final boolean ignoreUnknown) throws IOException {
+        return readInto(source, new TestingDm(), ignoreUnknown);
+      }
+    });
+    final String json = JU.writeObject(TestingDm_JSONable.getInstance(), testingDm(1));
+    assertEquals("versioned rec1", ((TestingDm) dispatcher.read(json)).getId());
+    assertEquals("rec1", ((TestingDm) dispatcher.read(json.replace(TestingDm.VERSION.toString(), "0.0.1"))).getId());
+
+    for(final String bad: new String[] {
+        "{\"id\":\"x\",\"*v*\":\"1.0.0\",\"*dt*\":\"" + TestingDm.class.getName() + "\"}",
+        "{\"*v*\":\"1.0.0\",\"*dt*\":\"no.such.Type\"}",
+        "[]"}) {
+      try {
+        dispatcher.read(bad);
+        fail("Should not read " + bad);
+      }
+      catch(IllegalArgumentException x) {
+        L.info("Expected: {}", x.getMessage());
+      }
+    }
+  }
+
+  /**
+   * The envelope from all the sources, the parser left right after it.
+   */
+  @Test public void testVerAndDataType() throws Exception {
+    final TestingDm tdm = testingDm(3);
+    final String json = JU.writeObject(TestingDm_JSONable.getInstance(), tdm);
+    final VerAndDataType fromString = VerAndDataType.fromJson(json);
+    final VerAndDataType fromBytes = VerAndDataType.fromJson(json.getBytes(UTF_8));
+    final JsonParser parser = JU.getJf().createParser(json);
+    final VerAndDataType fromParser = VerAndDataType.fromJson(parser);
+    for(final VerAndDataType vdt: new VerAndDataType[] {fromString, fromBytes, fromParser}) {
+      assertEquals(TestingDm.class, vdt.getDataClass());
+      assertEquals(TestingDm.VERSION, vdt.getVersion());
+    }
+    assertTrue(fromString.getVersion() == fromBytes.getVersion());
+    assertTrue(TestingDm_DmSameFull.I.isSame(tdm, TestingDm_JSONable.getInstance().read(parser)));
+  }
+
+  /**
+   * Both forms of the byte arrays and the bitsets, the legacy arrays of numbers and the base64 strings,
+   * must read back the same, including the negative bytes.
+   */
+  @Test public void testBinaryFields() throws Exception {
+    final byte[] bytes = new byte[300];
+    for(int i = 0; i < bytes.length; i++) bytes[i] = (byte) (i * 7);
+    final long[] longs = {0L, -1L, Long.MAX_VALUE, Long.MIN_VALUE, 42L};
+    final BitSet bits = new BitSet();
+    bits.set(3);
+    bits.set(1000);
+
+    final StringWriter w = new StringWriter();
+    final JsonGenerator gen = JU.getJf().createGenerator(w);
+    gen.writeStartObject();
+    JU.writeByteArrayFld("nums", gen, bytes);
+    JU.writeByteArrayBinFld("bin", gen, bytes);
+    JU.writeLongArrayFld("longs", gen, longs);
+    JU.writeBitSetFld("bitsNums", gen, bits);
+    JU.writeBitSetBinFld("bitsBin", gen, bits);
+    gen.writeEndObject();
+    gen.close();
+    L.info("Binary fields: {}", w);
+
+    final JsonParser parser = JU.getJf().createParser(w.toString());
+    parser.nextToken();
+    parser.nextToken(); parser.nextToken();
+    assertArrayEquals(bytes, JU.readByteArrayPrim(parser));
+    parser.nextToken(); parser.nextToken();
+    assertArrayEquals(ArrayUtils.toObject(bytes), JU.readByteArray(parser));
+    parser.nextToken(); parser.nextToken();
+    assertArrayEquals(longs, JU.readLongArrayPrim(parser));
+    parser.nextToken(); parser.nextToken();
+    assertEquals(bits, JU.readBitSet(parser));
+    parser.nextToken(); parser.nextToken();
+    assertEquals(bits, JU.readBitSet(parser));
+    assertEquals(JsonToken.END_OBJECT, parser.nextToken());
+    // neither form, and past the end of the input: the parse error rather than the NPE
+    for(final JsonParser p: new JsonParser[]{JU.getJf().createParser("12"), parser}) {
+      p.nextToken();
+      try {
+        JU.readByteArrayPrim(p);
+        fail("Read a byte array from " + p.currentToken());
+      }
+      catch(JsonParseException x) {
+        L.info("Expected: {}", x.getOriginalMessage());
+      }
+      try {
+        JU.readBitSet(p);
+        fail("Read a bitset from " + p.currentToken());
+      }
+      catch(JsonParseException x) {
+        L.info("Expected: {}", x.getOriginalMessage());
+      }
+    }
+  }
+
+  /**
+   * The same Jsonables over the binary formats, with the envelope.
+   */
+  @Test public void testBinaryFormats() throws Exception {
+    final TestingDm_JSONable js = TestingDm_JSONable.getInstance();
+    final TestingDm tdm = testingDm(7);
+    final int jsonSize = JU.writeObjectBytes(js, tdm).length;
+    for(final JacksonUtil ju: new JacksonUtil[] {JacksonFormats.smile(), JacksonFormats.cbor()}) {
+      final String format = ju.getJf().getFormatName();
+      final byte[] bytes = ju.writeObjectBytes(js, tdm);
+      L.info("{}: {} bytes, JSON: {} bytes", format, bytes.length, jsonSize);
+      assertTrue(format, bytes.length < jsonSize);
+      assertArrayEquals(format, bytes, ju.writeObjectBytes(js, tdm));
+      assertTrue(format, TestingDm_DmSameFull.I.isSame(tdm, ju.readObject(js, bytes)));
+
+      final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      ju.writeObject(js, tdm, stream);
+      assertArrayEquals(format, bytes, stream.toByteArray());
+      assertTrue(format, TestingDm_DmSameFull.I.isSame(tdm, ju.readObject(js, new ByteArrayInputStream(bytes))));
+
+      final JsonableDispatcher dispatcher = new JsonableDispatcher(ju).register(TestingDm.class, js);
+      assertTrue(format, TestingDm_DmSameFull.I.isSame(tdm, (TestingDm) dispatcher.read(bytes)));
+      final VerAndDataType vdt = VerAndDataType.fromJson(ju.getJf().createParser(bytes));
+      assertEquals(format, TestingDm.class, vdt.getDataClass());
+    }
+  }
+
+  /**
+   * The TestingDm serializer the way the generated code would adopt the {@link FieldNames}.
+   */
+  private static class IndexedTestingDmJsonable extends Jsonable<TestingDm> {
+    private static final FieldNames FIELDS = fieldNames("color", "id", "longs", "photoPic", "whens");
+
+    @Override public void write(final JsonGenerator out, final TestingDm value) throws IOException {
+      value.verify();
+      FIELDS.write(out, 0);
+      out.writeString(value.getColor().name());
+      FIELDS.write(out, 1);
+      out.writeString(value.getId());
+      if(value.getLongs() != null) JU.writeSetLong("longs", out, value.getLongs());
+      if(value.getPhotoPic() != null) {
+        FIELDS.write(out, 3);
+        out.writeString(value.getPhotoPic().toExternalForm());
+      }
+      if(value.getWhens() != null) JU.writeListZonedDateTime("whens", out, value.getWhens());
+    }
+
+    @Override public TestingDm readInto(final JsonParser in, final TestingDm target, final boolean ignoreUnknown)
+        throws IOException {
+      for(int f = FIELDS.nextField(in, FieldNames.NONE); f != FieldNames.END; f = FIELDS.nextField(in, f)) {
+        switch(f) {
+          case 0: target.setColor(Enum.valueOf(Colors.class, JU.readText(in))); break;
+          case 1: target.setId(JU.readText(in)); break;
+          case 2: target.setLongs(JU.readSetLong(in)); break;
+          case 3: target.setPhotoPic(new java.net.URL(in.getText())); break;
+          case 4: target.setWhens(JU.readListZonedDateTime(in)); break;
+          default:
+            if(!ignoreUnknown) throw new IllegalArgumentException("Unhandled field \"" + in.getCurrentName() + '\"');
+            in.skipChildren();
+        }
+      }
+      return target;
+    }
+
+    @Override public TestingDm read(final JsonParser in, final boolean ignoreUnknown) throws IOException {
+      return readInto(in, new TestingDm(), ignoreUnknown);
+    }
+  }
+
+  /**
+   * Pre-encoded names on write, the index dispatch on read, including the fields out of order and the unknown ones.
+   */
+  @Test public void testFieldNames() throws Exception {
+    final IndexedTestingDmJsonable indexed = new IndexedTestingDmJsonable();
+    for(int i = 0; i < 5; i++) {
+      final TestingDm tdm = testingDm(i);
+      tdm.setPhotoPic(new java.net.URL("https://example.com/" + i + ".jpg"));
+      final String json = JU.writeObject(TestingDm_JSONable.getInstance(), tdm);
+      assertEquals(json, JU.writeObject(indexed, tdm));
+      assertTrue(TestingDm_DmSameFull.I.isSame(tdm, JU.readObject(indexed, json)));
+      assertTrue(TestingDm_DmSameFull.I.isSame(tdm, JU.readObject(indexed, json.getBytes(UTF_8))));
+      assertTrue(TestingDm_DmSameFull.I.isSame(tdm, (TestingDm) new JsonableDispatcher()
+          .register(TestingDm.class, indexed).read(json.getBytes(UTF_8))));
+    }
+    final String shuffled = "{\"id\":\"x\",\"extra\":{\"id\":\"nested\",\"a\":[1,2]},\"*v*\":\"1.0.0\",\"color\":\"Red\"}";
+    final TestingDm fromShuffled = indexed.read(JU.getJf().createParser(shuffled));
+    assertEquals("x", fromShuffled.getId());
+    assertEquals(Colors.Red, fromShuffled.getColor());
+    try {
+      indexed.read(JU.getJf().createParser(shuffled), false);
+      fail("Should not take the unknown field");
+    }
+    catch(IllegalArgumentException x) {
+      L.info("Expected: {}", x.getMessage());
+    }
+  }
+
+  /**
+   * Streaming the arrays both ways, as the root value and as a field, without a collection in between.
+   */
+  @Test public void testArrayStreaming() throws Exception {
+    final TestingDm_JSONable js = TestingDm_JSONable.getInstance();
+    final int count = 1000;
+
+    final StringWriter root = new StringWriter();
+    try(final JsonArrayTarget<TestingDm> target = new JsonArrayTarget<>(js, JU.getJf().createGenerator(root))) {
+      for(int i = 0; i < count; i++) target.save(testingDm(i));
+      assertEquals(count, target.getCount());
+    }
+    final Iterator<TestingDm> it = JU.iterateList(JU.getJf().createParser(root.toString()), js);
+    int i = 0;
+    for(; it.hasNext(); i++) assertTrue("Record " + i, TestingDm_DmSameFull.I.isSame(testingDm(i), it.next()));
+    assertEquals(count, i);
+
+    final StringWriter fields = new StringWriter();
+    try(final JsonGenerator gen = JU.getJf().createGenerator(fields)) {
+      gen.writeStartObject();
+      try(final JsonArrayTarget<TestingDm> target = new JsonArrayTarget<>(js, gen, "pushed")) {
+        for(i = 0; i < count; i++) target.save(testingDm(i));
+      }
+      gen.writeFieldName("iterated");
+      JU.writeCollection(gen, IntStream.range(0, count).mapToObj(TestJacksonUtil::testingDm), js);
+      gen.writeEndObject();
+    }
+    final JsonParser parser = JU.getJf().createParser(fields.toString());
+    parser.nextToken();
+    for(final String name: new String[] {"pushed", "iterated"}) {
+      assertEquals(JsonToken.FIELD_NAME, parser.nextToken());
+      assertEquals(name, parser.getCurrentName());
+      parser.nextToken();
+      final int[] ix = {0};
+      JU.streamList(parser, js).forEach(r -> assertTrue(name + ' ' + ix[0],
+          TestingDm_DmSameFull.I.isSame(testingDm(ix[0]++), r)));
+      assertEquals(count, ix[0]);
+    }
+    assertEquals(JsonToken.END_OBJECT, parser.nextToken());
+  }
+
+  /**
+   * The datetimes as the ISO text and as the epoch millis, both read by the same readDttm.
+   */
+  @Test public void testDttmForms() throws Exception {
+    final ZonedDateTime dttm = ZonedDateTime.of(2018, 5, 13, 5, 30, 15, 123_456_789, ZoneId.of("America/Los_Angeles"));
+    final StringWriter w = new StringWriter();
+    try(final JsonGenerator gen = JU.getJf().createGenerator(w)) {
+      gen.writeStartObject();
+      JU.writeDttmFld("iso", gen, dttm);
+      JU.writeDttmMillisFld("millis", gen, dttm);
+      gen.writeEndObject();
+    }
+    assertEquals("{\"iso\":\"2018-05-13T05:30:15.123456789-07:00[America/Los_Angeles]\",\"millis\":1526214615123}",
+        w.toString());
+    final JsonParser parser = JU.getJf().createParser(w.toString());
+    parser.nextToken();
+    parser.nextToken(); parser.nextToken();
+    assertEquals(dttm, JU.readDttm(parser));
+    parser.nextToken(); parser.nextToken();
+    assertEquals(dttm.withNano(123_000_000).withZoneSameInstant(UTC), JU.readDttm(parser).withZoneSameInstant(UTC));
+  }
 }